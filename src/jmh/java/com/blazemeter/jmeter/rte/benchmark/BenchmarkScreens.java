@@ -0,0 +1,85 @@
+package com.blazemeter.jmeter.rte.benchmark;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.Segment;
+import com.blazemeter.jmeter.rte.core.TerminalType;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import java.awt.Dimension;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Screens used by benchmarks, built from screens recorded in wiresham test flows.
+ *
+ * <p>24x80 screens are taken as they are, and bigger screens are built repeating the segments of
+ * the 24x80 screen until the whole screen is filled, so they keep the same segments density.
+ */
+public class BenchmarkScreens {
+
+  public static final String SIZE_24X80 = "24x80";
+  public static final String SIZE_27X132 = "27x132";
+
+  private static final String SOURCE_SCREEN =
+      "/com/blazemeter/jmeter/rte/protocols/tn3270/login-success-screen.html";
+
+  private BenchmarkScreens() {
+  }
+
+  public static Screen buildScreen(String size) {
+    Screen source = Screen.fromHtml(loadHtml());
+    if (SIZE_24X80.equals(size)) {
+      return source;
+    }
+    return fillScreen(source, parseSize(size));
+  }
+
+  private static String loadHtml() {
+    try {
+      return Resources.toString(BenchmarkScreens.class.getResource(SOURCE_SCREEN),
+          Charsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Dimension parseSize(String size) {
+    int separatorIndex = size.indexOf('x');
+    return new Dimension(Integer.parseInt(size.substring(separatorIndex + 1)),
+        Integer.parseInt(size.substring(0, separatorIndex)));
+  }
+
+  private static Screen fillScreen(Screen source, Dimension size) {
+    Screen ret = new Screen(size);
+    List<Segment> segments = source.getSegments();
+    int screenLength = size.width * size.height;
+    int linealPosition = 0;
+    int segmentIndex = 0;
+    while (linealPosition < screenLength) {
+      Segment segment = segments.get(segmentIndex % segments.size());
+      String text = segment.getText().substring(0,
+          Math.min(segment.getText().length(), screenLength - linealPosition));
+      Segment.SegmentBuilder builder = new Segment.SegmentBuilder()
+          .withLinealPosition(linealPosition)
+          .withText(text)
+          .withColor(segment.getColor());
+      if (segment.isEditable()) {
+        builder.withEditable();
+      }
+      if (segment.isSecret()) {
+        builder.withSecret();
+      }
+      ret.addSegment(builder);
+      linealPosition += text.length();
+      segmentIndex++;
+    }
+    return ret;
+  }
+
+  public static TerminalType buildTerminalType(Screen screen) {
+    return new TerminalType("IBM-3278-" + (screen.getSize().width > 80 ? "5" : "2"),
+        screen.getSize());
+  }
+
+}
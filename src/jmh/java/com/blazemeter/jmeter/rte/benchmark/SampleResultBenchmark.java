@@ -0,0 +1,143 @@
+package com.blazemeter.jmeter.rte.benchmark;
+
+import com.blazemeter.jmeter.rte.JMeterTestUtils;
+import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Protocol;
+import com.blazemeter.jmeter.rte.core.RteSampleResultBuilder;
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.Segment;
+import com.blazemeter.jmeter.rte.core.SegmentsHeaderMode;
+import com.blazemeter.jmeter.rte.core.TerminalType;
+import com.blazemeter.jmeter.rte.core.assertions.RTEAssertion;
+import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.extractor.ExtractionType;
+import com.blazemeter.jmeter.rte.extractor.RTEExtractor;
+import com.blazemeter.jmeter.rte.sampler.Action;
+import java.util.concurrent.TimeUnit;
+import org.apache.jmeter.assertions.AssertionResult;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterContext;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SampleResultBenchmark {
+
+  @Param({BenchmarkScreens.SIZE_24X80, BenchmarkScreens.SIZE_27X132})
+  public String screenSize;
+
+  @Param({"JSON", "RLE"})
+  public SegmentsHeaderMode segmentsHeaderMode;
+
+  private Screen screen;
+  private TerminalType terminalType;
+  private Segment field;
+  /*
+  Segments parsed from a sample result are reused by following post processors and assertions of
+  the same sample, so two results are alternated to measure the parsing of segments, and the first
+  one is used on its own to measure the reuse of already parsed segments.
+   */
+  private SampleResult[] results;
+  private int resultIndex;
+  private JMeterContext context;
+  private RTEExtractor extractor;
+  private RTEAssertion assertion;
+
+  @Setup
+  public void setup() {
+    JMeterTestUtils.setupJmeterEnv();
+    screen = BenchmarkScreens.buildScreen(screenSize);
+    terminalType = BenchmarkScreens.buildTerminalType(screen);
+    field = screen.getSegments().stream()
+        .filter(Segment::isEditable)
+        .findFirst()
+        .orElse(screen.getSegments().get(0));
+    results = new SampleResult[]{buildSampleResult(), buildSampleResult()};
+    context = JMeterContextService.getContext();
+    context.setVariables(new JMeterVariables());
+    extractor = buildExtractor();
+    assertion = buildAssertion();
+  }
+
+  private RTEExtractor buildExtractor() {
+    RTEExtractor ret = new RTEExtractor();
+    ret.setContext(context);
+    ret.setExtractionType(ExtractionType.NEXT_FIELD_POSITION);
+    ret.setVariablePrefix("field");
+    ret.setRow("1");
+    ret.setColumn("1");
+    ret.setOffset("1");
+    return ret;
+  }
+
+  private RTEAssertion buildAssertion() {
+    RTEAssertion ret = new RTEAssertion();
+    Position position = field.getStartPosition();
+    ret.setRow(String.valueOf(position.getRow()));
+    ret.setColumn(String.valueOf(position.getColumn()));
+    ret.setColor(Segment.getColorAsHex(field.getColor()));
+    return ret;
+  }
+
+  @Benchmark
+  public SampleResult buildSampleResult() {
+    return new RteSampleResultBuilder(new Position(1, 1), screen, null, terminalType)
+        .withLabel("bzm-RTE-sampler")
+        .withServer("localhost")
+        .withPort(23)
+        .withProtocol(Protocol.TN3270)
+        .withTerminalType(terminalType)
+        .withSslType(SSLType.NONE)
+        .withAction(Action.SEND_INPUT)
+        .withSegmentsHeaderMode(segmentsHeaderMode)
+        .withConnectEndNow()
+        .withLatencyEndNow()
+        .build();
+  }
+
+  @Benchmark
+  public JMeterVariables extract() {
+    context.setPreviousResult(nextResult());
+    extractor.process();
+    return context.getVariables();
+  }
+
+  private SampleResult nextResult() {
+    resultIndex = (resultIndex + 1) % results.length;
+    return results[resultIndex];
+  }
+
+  @Benchmark
+  public JMeterVariables extractWithParsedSegments() {
+    context.setPreviousResult(results[0]);
+    extractor.process();
+    return context.getVariables();
+  }
+
+  @Benchmark
+  public AssertionResult assertColor() {
+    return assertion.getResult(nextResult());
+  }
+
+  @Benchmark
+  public AssertionResult assertColorWithParsedSegments() {
+    return assertion.getResult(results[0]);
+  }
+
+}
@@ -0,0 +1,56 @@
+package com.blazemeter.jmeter.rte.benchmark;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScreenBenchmark {
+
+  @Param({BenchmarkScreens.SIZE_24X80, BenchmarkScreens.SIZE_27X132})
+  public String screenSize;
+
+  private Screen screen;
+  private String html;
+
+  @Setup
+  public void setup() {
+    screen = BenchmarkScreens.buildScreen(screenSize);
+    html = screen.getHtml();
+  }
+
+  /*
+  Screen caches its text, so a copy is used to measure the text generation and not the cache
+  lookup.
+   */
+  @Benchmark
+  public String getText() {
+    return new Screen(screen).getText();
+  }
+
+  @Benchmark
+  public String getHtml() {
+    return screen.getHtml();
+  }
+
+  @Benchmark
+  public Screen fromHtml() {
+    return Screen.fromHtml(html);
+  }
+
+}
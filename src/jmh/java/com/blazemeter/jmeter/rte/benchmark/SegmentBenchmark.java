@@ -0,0 +1,56 @@
+package com.blazemeter.jmeter.rte.benchmark;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.Segment;
+import com.blazemeter.jmeter.rte.core.SegmentsHeaderMode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SegmentBenchmark {
+
+  @Param({BenchmarkScreens.SIZE_24X80, BenchmarkScreens.SIZE_27X132})
+  public String screenSize;
+
+  @Param({"JSON", "RLE"})
+  public SegmentsHeaderMode segmentsHeaderMode;
+
+  private Screen screen;
+  private String responseHeaders;
+
+  @Setup
+  public void setup() {
+    screen = BenchmarkScreens.buildScreen(screenSize);
+    responseHeaders = "Input-inhibited: false\n"
+        + "Segments: " + segmentsHeaderMode.encode(screen) + "\n"
+        + "Cursor-position: (1,1)";
+  }
+
+  @Benchmark
+  public String encode() {
+    return segmentsHeaderMode.encode(screen);
+  }
+
+  @Benchmark
+  public List<Segment> fromHeaders() throws JsonProcessingException {
+    return Segment.fromHeaders(responseHeaders);
+  }
+
+}
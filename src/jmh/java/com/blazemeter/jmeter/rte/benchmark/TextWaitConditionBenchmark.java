@@ -0,0 +1,69 @@
+package com.blazemeter.jmeter.rte.benchmark;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.wait.Area;
+import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
+import java.awt.Dimension;
+import java.util.concurrent.TimeUnit;
+import org.apache.oro.text.regex.MalformedPatternException;
+import org.apache.oro.text.regex.Perl5Compiler;
+import org.apache.oro.text.regex.Perl5Matcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TextWaitConditionBenchmark {
+
+  @Param({BenchmarkScreens.SIZE_24X80, BenchmarkScreens.SIZE_27X132})
+  public String screenSize;
+
+  @Param({"ROW", "HALF", "FULL"})
+  public String areaSize;
+
+  // texts not included in the screen to always search the whole area
+  @Param({"NOT-IN-SCREEN", "NOT-IN-SCREEN|LOGON[0-9]{6}"})
+  public String regex;
+
+  private Screen screen;
+  private TextWaitCondition condition;
+
+  @Setup
+  public void setup() throws MalformedPatternException {
+    screen = BenchmarkScreens.buildScreen(screenSize);
+    condition = new TextWaitCondition(new Perl5Compiler().compile(regex), new Perl5Matcher(),
+        buildArea(screen.getSize()), 60000, 1000);
+  }
+
+  private Area buildArea(Dimension size) {
+    switch (areaSize) {
+      case "ROW":
+        return Area.fromTopLeftBottomRight(1, 1, 1, size.width);
+      case "HALF":
+        return Area.fromTopLeftBottomRight(1, 1, size.height / 2, size.width);
+      case "FULL":
+        return Area.fromTopLeftBottomRight(1, 1, size.height, size.width);
+      default:
+        throw new IllegalArgumentException("Unknown area size " + areaSize);
+    }
+  }
+
+  @Benchmark
+  public boolean matchesScreen() {
+    return condition.matchesScreen(screen);
+  }
+
+}
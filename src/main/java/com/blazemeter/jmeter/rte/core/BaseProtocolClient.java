@@ -1,41 +1,130 @@
 package com.blazemeter.jmeter.rte.core;
 
 import com.blazemeter.jmeter.rte.core.exceptions.ConnectionClosedException;
+import com.blazemeter.jmeter.rte.core.exceptions.InvalidFieldLabelException;
+import com.blazemeter.jmeter.rte.core.exceptions.InvalidFieldPositionException;
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.blazemeter.jmeter.rte.core.monitor.RteEngineMonitor;
+import com.blazemeter.jmeter.rte.core.pool.ConnectionAdmissionController;
+import com.blazemeter.jmeter.rte.core.pool.ConnectionAdmissionController.Admission;
 import com.blazemeter.jmeter.rte.core.ssl.SSLContextFactory;
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.timing.PhaseTimer;
+import com.blazemeter.jmeter.rte.core.timing.PhaseTimingSocketFactory;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
+import com.blazemeter.jmeter.rte.core.timing.TrafficListener;
+import com.blazemeter.jmeter.rte.core.wait.CompositeConditionWaiter;
 import com.blazemeter.jmeter.rte.core.wait.ConditionWaiter;
 import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitMode;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.net.SocketFactory;
+import javax.net.ssl.SSLSocketFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public abstract class BaseProtocolClient implements RteProtocolClient {
 
-  protected static final ThreadFactory NAMED_THREAD_FACTORY = (runnable) -> new Thread(runnable,
-      "STABLE-TIMEOUT-EXECUTOR");
   private static final Logger LOG = LoggerFactory.getLogger(BaseProtocolClient.class);
   protected ExceptionHandler exceptionHandler;
   protected ScheduledExecutorService stableTimeoutExecutor;
   private ServerDisconnectHandler serverDisconnectHandler;
+  private volatile boolean serverDisconnected;
+  private final AtomicLong screenVersion = new AtomicLong();
+  private volatile VersionedScreen cachedScreen;
+  private volatile PhaseTimer phaseTimer;
+  private volatile Admission admission;
+  private volatile String monitoredSession;
+  private final AtomicLong bytesReceived = new AtomicLong();
+  private final AtomicLong bytesSent = new AtomicLong();
 
   protected SocketFactory getSocketFactory(SSLType sslType, String server) throws RteIOException {
+    SSLSocketFactory sslSocketFactory = null;
     if (sslType != null && sslType != SSLType.NONE) {
       try {
-        return SSLContextFactory.buildSSLContext(sslType).getSocketFactory();
+        sslSocketFactory = SSLContextFactory.getSSLContext(sslType).getSocketFactory();
       } catch (IOException | GeneralSecurityException e) {
         throw new RteIOException(e, server);
       }
-    } else {
-      return SocketFactory.getDefault();
+    }
+    return new PhaseTimingSocketFactory(sslSocketFactory, this::markPhase,
+        new SessionTrafficListener());
+  }
+
+  @Override
+  public long getBytesReceived() {
+    return bytesReceived.get();
+  }
+
+  @Override
+  public long getBytesSent() {
+    return bytesSent.get();
+  }
+
+  @Override
+  public void setPhaseTimer(PhaseTimer phaseTimer) {
+    this.phaseTimer = phaseTimer;
+  }
+
+  protected void markPhase(SamplePhase phase) {
+    PhaseTimer timer = phaseTimer;
+    if (timer != null) {
+      timer.mark(phase);
+    }
+  }
+
+  /*
+  Every connection goes through the engine wide admission controller, so connections from samplers
+  and the recorder share the limits of in-flight connects and open sessions of each server.
+   */
+  @Override
+  public void connect(String server, int port, SSLType sslType, TerminalType terminalType,
+      long timeoutMillis) throws RteIOException, InterruptedException, TimeoutException {
+    releaseSession();
+    if (exceptionHandler != null) {
+      exceptionHandler.discard();
+    }
+    Admission connectAdmission = ConnectionAdmissionController.getInstance()
+        .admit(server, timeoutMillis);
+    admission = connectAdmission;
+    boolean connected = false;
+    try {
+      doConnect(server, port, sslType, terminalType, timeoutMillis);
+      connected = true;
+      monitoredSession = getProtocol() + " " + server + ":" + port;
+      RteEngineMonitor.getInstance().sessionOpened(monitoredSession);
+    } finally {
+      connectAdmission.connectEnded();
+      // failed connections are usually not disconnected, so session is released right away
+      if (!connected) {
+        releaseSession();
+      }
+    }
+  }
+
+  protected abstract Protocol getProtocol();
+
+  protected abstract void doConnect(String server, int port, SSLType sslType,
+      TerminalType terminalType, long timeoutMillis)
+      throws RteIOException, InterruptedException, TimeoutException;
+
+  private void releaseSession() {
+    String session = monitoredSession;
+    monitoredSession = null;
+    if (session != null) {
+      RteEngineMonitor.getInstance().sessionClosed(session);
+    }
+    Admission current = admission;
+    admission = null;
+    if (current != null) {
+      current.close();
     }
   }
 
@@ -43,11 +132,58 @@ public abstract class BaseProtocolClient implements RteProtocolClient {
   public void send(List<Input> input, AttentionKey attentionKey, long echoTimeoutMillis)
       throws RteIOException {
     exceptionHandler.throwAnyPendingError();
-    input.forEach(i -> setField(i, echoTimeoutMillis));
+    resolveInputs(input).forEach(i -> setField(i, echoTimeoutMillis));
+    // fields may be updated locally without emulator notifying about screen changes
+    incrementScreenVersion();
     sendAttentionKey(attentionKey);
+    markPhase(SamplePhase.SEND);
+    incrementScreenVersion();
     exceptionHandler.throwAnyPendingError();
   }
 
+  /*
+  All inputs are resolved against the screen fields before setting any of them, so an invalid input
+  fails the sample without sending a partially filled screen. Inputs by label are resolved to the
+  position of their field, to avoid emulators searching the label in the screen for each input.
+   */
+  private List<Input> resolveInputs(List<Input> inputs) {
+    if (!isFieldIndexSupported() || inputs.stream()
+        .noneMatch(i -> i instanceof CoordInput || i instanceof LabelInput)) {
+      return inputs;
+    }
+    FieldIndex fieldIndex = getVersionedScreen().getFieldIndex();
+    return inputs.stream()
+        .map(i -> resolveInput(i, fieldIndex))
+        .collect(Collectors.toList());
+  }
+
+  private Input resolveInput(Input input, FieldIndex fieldIndex) {
+    if (input instanceof LabelInput) {
+      String label = ((LabelInput) input).getLabel();
+      Position field = fieldIndex.findFieldByLabel(label)
+          .orElseThrow(() -> new InvalidFieldLabelException(label));
+      // empty coordinate inputs just move the cursor, so empty inputs are kept by label
+      return input.getInput().isEmpty() ? input : new CoordInput(field, input.getInput());
+    } else if (input instanceof CoordInput && !input.getInput().isEmpty()) {
+      Position position = ((CoordInput) input).getPosition();
+      if (!fieldIndex.findFieldAt(position).isPresent()) {
+        throw new InvalidFieldPositionException(position);
+      }
+    }
+    return input;
+  }
+
+  /**
+   * Specifies if inputs by label and coordinates can be resolved with the fields of the screen.
+   *
+   * <p>Protocols without fields in their screens should override this method to return false.
+   *
+   * @return true if the protocol screens are composed by fields, false otherwise.
+   */
+  protected boolean isFieldIndexSupported() {
+    return true;
+  }
+
   protected abstract void setField(Input input, long echoTimeoutMillis);
 
   protected abstract void sendAttentionKey(AttentionKey attentionKey);
@@ -55,26 +191,79 @@ public abstract class BaseProtocolClient implements RteProtocolClient {
   @Override
   public void await(List<WaitCondition> waitConditions)
       throws InterruptedException, TimeoutException, RteIOException {
-    List<ConditionWaiter<?>> listeners = waitConditions.stream()
+    await(waitConditions, WaitMode.ALL);
+  }
+
+  @Override
+  public List<WaitCondition> await(List<WaitCondition> waitConditions, WaitMode waitMode)
+      throws InterruptedException, TimeoutException, RteIOException {
+    CompositeConditionWaiter waiter = new CompositeConditionWaiter(waitConditions.stream()
         .map(this::buildWaiter)
-        .collect(Collectors.toList());
+        .collect(Collectors.toList()), waitMode);
     try {
-      for (ConditionWaiter<?> listener : listeners) {
-        listener.await();
-      }
+      List<WaitCondition> completed = waiter.await();
+      markPhase(SamplePhase.STABLE);
+      LOG.debug("Wait for {} conditions ended with {}", waitMode, completed);
+      return completed;
     } finally {
-      listeners.forEach(ConditionWaiter::stop);
+      waiter.stop();
     }
   }
 
   protected abstract ConditionWaiter<?> buildWaiter(WaitCondition waitCondition);
 
+  @Override
+  public Screen getScreen() {
+    return getVersionedScreen().screen;
+  }
+
+  private VersionedScreen getVersionedScreen() {
+    /*
+     version is got before building the screen so, if the screen changes while building it, next
+     invocation builds it again.
+     */
+    long version = screenVersion.get();
+    VersionedScreen cached = cachedScreen;
+    if (cached != null && cached.version == version) {
+      return cached;
+    }
+    VersionedScreen ret = new VersionedScreen(version, buildScreen().toImmutable());
+    cachedScreen = ret;
+    return ret;
+  }
+
+  @Override
+  public long getScreenFingerprint() {
+    return getScreen().getFingerprint();
+  }
+
+  protected abstract Screen buildScreen();
+
+  @Override
+  public long getScreenVersion() {
+    return screenVersion.get();
+  }
+
+  /**
+   * Marks the current screen as changed, to build it again in next {@link #getScreen()}.
+   *
+   * <p>Protocol clients should invoke this method from emulator listeners registered before any
+   * other listener, so listeners evaluating the screen on emulator events get the updated one.
+   */
+  protected void incrementScreenVersion() {
+    screenVersion.incrementAndGet();
+  }
+
   @Override
   public void disconnect() throws RteIOException {
     if (stableTimeoutExecutor == null) {
       return;
     }
-    doDisconnect();
+    try {
+      doDisconnect();
+    } finally {
+      releaseSession();
+    }
     try {
       exceptionHandler.throwAnyPendingError();
     } catch (RteIOException e) {
@@ -83,6 +272,8 @@ public abstract class BaseProtocolClient implements RteProtocolClient {
       } else {
         throw e;
       }
+    } finally {
+      exceptionHandler.discard();
     }
   }
 
@@ -103,7 +294,15 @@ public abstract class BaseProtocolClient implements RteProtocolClient {
     return false;
   }
 
+  @Override
+  public boolean isSessionBroken() {
+    return stableTimeoutExecutor == null || serverDisconnected
+        || exceptionHandler.hasPendingError() || exceptionHandler.hasReportedError()
+        || isInputInhibited().orElse(false);
+  }
+
   protected void handleServerDisconnection() {
+    serverDisconnected = true;
     if (serverDisconnectHandler != null) {
       serverDisconnectHandler.onDisconnection(exceptionHandler);
       return;
@@ -111,4 +310,44 @@ public abstract class BaseProtocolClient implements RteProtocolClient {
     exceptionHandler
         .setPendingError(new UnsupportedOperationException("No disconnection handler set"));
   }
+
+  private class SessionTrafficListener implements TrafficListener {
+
+    @Override
+    public void bytesReceived(int count) {
+      bytesReceived.addAndGet(count);
+      RteEngineMonitor.getInstance().addBytesReceived(count);
+    }
+
+    @Override
+    public void bytesSent(int count) {
+      bytesSent.addAndGet(count);
+      RteEngineMonitor.getInstance().addBytesSent(count);
+    }
+
+  }
+
+  private static class VersionedScreen {
+
+    private final long version;
+    private final Screen screen;
+    private volatile FieldIndex fieldIndex;
+
+    private VersionedScreen(long version, Screen screen) {
+      this.version = version;
+      this.screen = screen;
+    }
+
+    // lazily built since only required when sending inputs by label or coordinates
+    private FieldIndex getFieldIndex() {
+      FieldIndex ret = fieldIndex;
+      if (ret == null) {
+        ret = new FieldIndex(screen);
+        fieldIndex = ret;
+      }
+      return ret;
+    }
+
+  }
+
 }
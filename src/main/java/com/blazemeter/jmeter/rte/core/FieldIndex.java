@@ -0,0 +1,156 @@
+package com.blazemeter.jmeter.rte.core;
+
+import java.awt.Dimension;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the fields of a screen, to resolve inputs by label or by position without scanning the
+ * screen for each input.
+ *
+ * <p>Fields are the editable segments of the screen, and the label of a field is the text of a non
+ * editable segment preceding it. The index is built once per screen, so it should only be used
+ * with screens which are not modified afterwards.
+ */
+public class FieldIndex {
+
+  private static final int NO_FIELD = -1;
+
+  private final List<Segment> segments;
+  private final Dimension size;
+  private final String text;
+  // lineal position where the field containing each cell starts, or NO_FIELD
+  private final int[] cellFields;
+  // index of the segment containing each cell, or -1
+  private final int[] cellSegments;
+  // lineal position where the first field after each segment starts, or NO_FIELD
+  private final int[] nextFields;
+  private final int fieldsCount;
+  // resolved labels, initialized with texts of non editable segments
+  private final Map<String, Integer> labelFields = new ConcurrentHashMap<>();
+
+  public FieldIndex(Screen screen) {
+    segments = screen.getSegments();
+    size = new Dimension(screen.getSize().width, screen.getSize().height);
+    text = screen.getText().replace("\n", "");
+    int cellsCount = size.width * size.height;
+    cellFields = new int[cellsCount];
+    Arrays.fill(cellFields, NO_FIELD);
+    cellSegments = new int[cellsCount];
+    Arrays.fill(cellSegments, -1);
+    int fields = 0;
+    for (int i = 0; i < segments.size(); i++) {
+      Segment segment = segments.get(i);
+      int start = getStart(segment);
+      for (int offset = 0; offset < segment.getText().length(); offset++) {
+        // circular fields continue at the beginning of the screen
+        int cell = (start + offset) % cellsCount;
+        cellSegments[cell] = i;
+        if (segment.isEditable()) {
+          cellFields[cell] = start;
+        }
+      }
+      if (segment.isEditable()) {
+        fields++;
+      }
+    }
+    fieldsCount = fields;
+    nextFields = buildNextFields();
+    for (int i = 0; i < segments.size(); i++) {
+      String label = getLabel(segments.get(i));
+      if (!label.isEmpty() && nextFields[i] != NO_FIELD) {
+        labelFields.putIfAbsent(label, nextFields[i]);
+      }
+    }
+  }
+
+  private int getStart(Segment segment) {
+    return Screen.buildLinealPosition(segment.getStartPosition(), size.width);
+  }
+
+  /*
+  Segments are traversed backwards twice so the fields of the last segments are the first fields of
+  the screen, as happens with circular fields.
+   */
+  private int[] buildNextFields() {
+    int[] ret = new int[segments.size()];
+    int next = NO_FIELD;
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = segments.size() - 1; i >= 0; i--) {
+        ret[i] = next;
+        Segment segment = segments.get(i);
+        if (segment.isEditable()) {
+          next = getStart(segment);
+        }
+      }
+    }
+    return ret;
+  }
+
+  private static String getLabel(Segment segment) {
+    return segment.isEditable() ? "" : segment.getText().replace('\u0000', ' ').trim();
+  }
+
+  public int getFieldsCount() {
+    return fieldsCount;
+  }
+
+  /**
+   * Finds the field containing a given position.
+   *
+   * @param position position of the screen, starting from 1.
+   * @return the position where the field starts, or empty if there is no field in the position.
+   */
+  public Optional<Position> findFieldAt(Position position) {
+    if (position.getRow() < 1 || position.getRow() > size.height || position.getColumn() < 1
+        || position.getColumn() > size.width) {
+      return Optional.empty();
+    }
+    return buildFieldPosition(cellFields[Screen.buildLinealPosition(position, size.width)]);
+  }
+
+  private Optional<Position> buildFieldPosition(int field) {
+    return field == NO_FIELD ? Optional.empty()
+        : Optional.of(Screen.buildPositionFromLinearPosition(field, size.width));
+  }
+
+  /**
+   * Finds the field following a given label.
+   *
+   * <p>Non editable segments with just the label as text are preferred, then segments ending with
+   * the label, and finally any non editable segment containing it. When several segments match,
+   * the first one in the screen is used.
+   *
+   * @param label the label of the field.
+   * @return the position where the field starts, or empty if no field follows the label.
+   */
+  public Optional<Position> findFieldByLabel(String label) {
+    return buildFieldPosition(labelFields.computeIfAbsent(label, this::searchLabelField));
+  }
+
+  private int searchLabelField(String label) {
+    String trimmedLabel = label.trim();
+    if (trimmedLabel.isEmpty()) {
+      return NO_FIELD;
+    }
+    int fallback = NO_FIELD;
+    int position = text.indexOf(label);
+    while (position >= 0) {
+      int segment = cellSegments[position];
+      if (segment >= 0 && !segments.get(segment).isEditable()
+          && nextFields[segment] != NO_FIELD) {
+        if (getLabel(segments.get(segment)).endsWith(trimmedLabel)) {
+          return nextFields[segment];
+        } else if (fallback == NO_FIELD) {
+          fallback = nextFields[segment];
+        }
+      }
+      position = text.indexOf(label, position + 1);
+    }
+    return fallback;
+  }
+
+}
@@ -0,0 +1,21 @@
+package com.blazemeter.jmeter.rte.core;
+
+/**
+ * Specifies which samples include the screen (and screen dependant headers) or the failure stack
+ * trace in their sample results.
+ */
+public enum ResponseCaptureMode {
+  ALWAYS,
+  /**
+   * Only failed samples (including wait timeouts) are captured.
+   */
+  ON_FAILURE,
+  /**
+   * One in every N successful samples is captured, and all failed samples.
+   */
+  SAMPLED,
+  /**
+   * No sample is captured, so sample results only include timings and request data.
+   */
+  NEVER
+}
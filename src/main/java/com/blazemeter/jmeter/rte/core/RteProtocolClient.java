@@ -3,7 +3,9 @@ package com.blazemeter.jmeter.rte.core;
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
 import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.timing.PhaseTimer;
 import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitMode;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -36,6 +38,17 @@ public interface RteProtocolClient {
   void await(List<WaitCondition> waitConditions)
       throws InterruptedException, TimeoutException, RteIOException;
 
+  /**
+   * Waits for the given conditions to be met, evaluating all of them concurrently.
+   *
+   * @param waitConditions conditions to wait for.
+   * @param waitMode specifies if all or any of the conditions need to be met.
+   * @return the met conditions, in the order they were met. Met screen conditions include the
+   * recognized screen.
+   */
+  List<WaitCondition> await(List<WaitCondition> waitConditions, WaitMode waitMode)
+      throws InterruptedException, TimeoutException, RteIOException;
+
   void addTerminalStateListener(TerminalStateListener terminalStateListener);
 
   void removeTerminalStateListener(TerminalStateListener terminalStateListener);
@@ -43,8 +56,36 @@ public interface RteProtocolClient {
   void send(List<Input> input, AttentionKey attentionKey, long echoTimeoutMillis)
       throws RteIOException;
 
+  /**
+   * Gets current screen of the terminal.
+   *
+   * <p>Screens are cached while they don't change, so the same unmodifiable instance is returned
+   * until the screen version changes.
+   *
+   * @return the current screen.
+   */
   Screen getScreen();
 
+  /**
+   * Gets the version of the current screen, which is increased every time the terminal screen
+   * changes.
+   *
+   * <p>This allows to avoid processing the screen when nothing changed since a previous check.
+   *
+   * @return the current screen version.
+   */
+  long getScreenVersion();
+
+  /**
+   * Gets the fingerprint of the current screen.
+   *
+   * <p>This allows to check if two screens are the same in constant time, or group results by
+   * screen. Check {@link Screen#getFingerprint()} for details.
+   *
+   * @return the current screen fingerprint.
+   */
+  long getScreenFingerprint();
+
   Optional<Boolean> isInputInhibited();
 
   Optional<Position> getCursorPosition();
@@ -60,4 +101,40 @@ public interface RteProtocolClient {
   void setDisconnectionHandler(ServerDisconnectHandler serverDisconnectHandler);
   
   boolean isServerDisconnected();
+
+  /**
+   * Checks if the session can't be used for further samples, which happens when it has been
+   * disconnected (by the client or the server), it has an error pending to be reported, an error
+   * has already been reported in a previous sample, or the terminal keyboard is locked.
+   *
+   * <p>Pooled sessions are checked with this method before lending and after releasing them, so
+   * broken sessions are discarded instead of failing the sample of the next borrower.
+   *
+   * @return true if the session should not be reused, false otherwise.
+   */
+  boolean isSessionBroken();
+
+  /**
+   * Sets the timer where the end of each phase of current sample (connection, TLS handshake,
+   * telnet negotiation, sending and waits) is registered.
+   *
+   * @param phaseTimer timer of the current sample.
+   */
+  void setPhaseTimer(PhaseTimer phaseTimer);
+
+  /**
+   * Gets the total bytes received from the server by this session, including telnet negotiation
+   * and excluding TLS overhead.
+   *
+   * @return total bytes received since the client was created.
+   */
+  long getBytesReceived();
+
+  /**
+   * Gets the total bytes sent to the server by this session, including telnet negotiation and
+   * excluding TLS overhead.
+   *
+   * @return total bytes sent since the client was created.
+   */
+  long getBytesSent();
 }
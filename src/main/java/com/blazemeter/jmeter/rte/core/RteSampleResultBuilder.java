@@ -1,16 +1,24 @@
 package com.blazemeter.jmeter.rte.core;
 
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.store.ScreenStore;
+import com.blazemeter.jmeter.rte.core.timing.PhaseTimer;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
+import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
 import com.blazemeter.jmeter.rte.sampler.Action;
 import com.helger.commons.annotation.VisibleForTesting;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import org.apache.jmeter.samplers.SampleResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /*
 We use this class instead of a custom SampleResult to avoid forward incompatibilities when trying
@@ -27,7 +35,11 @@ public class RteSampleResultBuilder {
   public static final String FIELDS_POSITION_HEADER = "Field-positions: ";
   public static final String HEADERS_SEPARATOR = "\n";
   public static final String SEGMENTS = "Segments: ";
+  private static final Logger LOG = LoggerFactory.getLogger(RteSampleResultBuilder.class);
   private static final String INPUT_INHIBITED = "Input-inhibited";
+  private static final String COMPLETED_WAIT_CONDITION = "Completed-wait-condition";
+  private static final String PHASE_TIMINGS = "Phase-timings";
+  private static final String SCREEN_FINGERPRINT = "Screen-fingerprint";
   private SampleResult result;
   private String server;
   private int port;
@@ -43,10 +55,21 @@ public class RteSampleResultBuilder {
   private boolean soundedAlarm;
   private Screen screen;
   private String responseHeaders;
+  private WaitCondition completedWaitCondition;
+  private SegmentsHeaderMode segmentsHeaderMode = SegmentsHeaderMode.JSON;
+  private final PhaseTimer phaseTimer;
+  private boolean phaseSubResults;
+  private RteProtocolClient trafficSource;
+  private long initialBytesReceived;
+  private long initialBytesSent;
+  private ScreenStore screenStore;
+  private BooleanSupplier successResponseCaptured = () -> true;
+  private boolean failureResponseCaptured = true;
 
   public RteSampleResultBuilder() {
     result = new SampleResult();
     result.sampleStart();
+    phaseTimer = new PhaseTimer(result.getStartTime());
   }
 
   @VisibleForTesting
@@ -54,12 +77,21 @@ public class RteSampleResultBuilder {
       TerminalType terminalType) {
     result = new SampleResult();
     result.sampleStart();
+    phaseTimer = new PhaseTimer(result.getStartTime());
     this.screen = screen;
     this.cursorPosition = cursorPosition;
     this.responseHeaders = responseHeaders;
     this.terminalType = terminalType;
   }
 
+  public PhaseTimer getPhaseTimer() {
+    return phaseTimer;
+  }
+
+  public RteProtocolClient getTrafficSource() {
+    return trafficSource;
+  }
+
   public long getCurrentTimeInMillis() {
     return result.currentTimeInMillis();
   }
@@ -91,7 +123,7 @@ public class RteSampleResultBuilder {
   public RteSampleResultBuilder withSuccessResponse(RteProtocolClient client) {
     result.setSuccessful(true);
     if (client != null) {
-      updateResponseFromClient(client);
+      updateResponseFromClient(client, successResponseCaptured.getAsBoolean());
     }
     if (result.getEndTime() == 0) {
       result.sampleEnd();
@@ -99,20 +131,23 @@ public class RteSampleResultBuilder {
     return this;
   }
 
-  private void updateResponseFromClient(RteProtocolClient client) {
+  private void updateResponseFromClient(RteProtocolClient client, boolean captured) {
     cursorPosition = client.getCursorPosition().orElse(null);
     soundedAlarm = client.isAlarmOn();
     inputInhibitedResponse = client.isInputInhibited().orElse(false);
-    screen = client.getScreen();
+    // avoid building the screen when it is not going to be included in the sample result
+    screen = captured ? client.getScreen() : null;
   }
 
   public RteSampleResultBuilder withFailure(Throwable e) {
     result.setSuccessful(false);
     result.setResponseCode(e.getClass().getName());
     result.setResponseMessage(e.getMessage());
-    StringWriter sw = new StringWriter();
-    e.printStackTrace(new PrintWriter(sw));
-    result.setResponseData(sw.toString(), SampleResult.DEFAULT_HTTP_ENCODING);
+    if (failureResponseCaptured) {
+      StringWriter sw = new StringWriter();
+      e.printStackTrace(new PrintWriter(sw));
+      result.setResponseData(sw.toString(), SampleResult.DEFAULT_HTTP_ENCODING);
+    }
     return this;
   }
 
@@ -121,11 +156,37 @@ public class RteSampleResultBuilder {
     result.setResponseCode(e.getClass().getName());
     result.setResponseMessage(e.getMessage());
     if (client != null) {
-      updateResponseFromClient(client);
+      updateResponseFromClient(client, failureResponseCaptured);
     }
     return this;
   }
 
+  /**
+   * Sets if the screen (and headers depending on it) or failure stack trace are included in the
+   * sample result. Must be set before setting the sample response.
+   *
+   * @param onSuccess evaluated only when a successful response is set with a client, to decide
+   * whether to include the screen, so sampled capture only accounts for successful samples.
+   * @param onFailure whether to include the screen or failure stack trace when the sample fails.
+   * @return this builder.
+   */
+  public RteSampleResultBuilder withResponseCapture(BooleanSupplier onSuccess,
+      boolean onFailure) {
+    this.successResponseCaptured = onSuccess;
+    this.failureResponseCaptured = onFailure;
+    return this;
+  }
+
+  public RteSampleResultBuilder withSegmentsHeaderMode(SegmentsHeaderMode segmentsHeaderMode) {
+    this.segmentsHeaderMode = segmentsHeaderMode;
+    return this;
+  }
+
+  public RteSampleResultBuilder withPhaseSubResults(boolean phaseSubResults) {
+    this.phaseSubResults = phaseSubResults;
+    return this;
+  }
+
   public RteSampleResultBuilder withServer(String server) {
     this.server = server;
     return this;
@@ -171,6 +232,41 @@ public class RteSampleResultBuilder {
     return this;
   }
 
+  /**
+   * Sets the client whose traffic is attributed to the sample, from now until the sample result is
+   * built.
+   *
+   * @param client the client used by the sample. If it is the client already set, nothing changes
+   * so traffic since it was first set is still attributed to the sample.
+   * @return this builder.
+   */
+  public RteSampleResultBuilder withTrafficSource(RteProtocolClient client) {
+    if (client != null && client != trafficSource) {
+      trafficSource = client;
+      initialBytesReceived = client.getBytesReceived();
+      initialBytesSent = client.getBytesSent();
+    }
+    return this;
+  }
+
+  /**
+   * Sets the store where to keep the screen of the sample, so the sample result only contains a
+   * reference to it as response data.
+   *
+   * @param screenStore the store to use. When null, the screen text is included in the sample
+   * result.
+   * @return this builder.
+   */
+  public RteSampleResultBuilder withScreenStore(ScreenStore screenStore) {
+    this.screenStore = screenStore;
+    return this;
+  }
+
+  public RteSampleResultBuilder withCompletedWaitCondition(WaitCondition waitCondition) {
+    this.completedWaitCondition = waitCondition;
+    return this;
+  }
+
   public SampleResult build() {
     result.setRequestHeaders(buildRequestHeaders());
     result.setSamplerData(buildSamplerData());
@@ -178,11 +274,48 @@ public class RteSampleResultBuilder {
     result.setResponseHeaders(responseHeaders);
     result.setDataType(SampleResult.TEXT);
     if (result.getResponseDataAsString().isEmpty()) {
-      result.setResponseData(screen != null ? screen.getText() : "", StandardCharsets.UTF_8.name());
+      result.setResponseData(buildResponseData(), StandardCharsets.UTF_8.name());
+    }
+    if (trafficSource != null) {
+      result.setBytes(trafficSource.getBytesReceived() - initialBytesReceived);
+      result.setSentBytes(trafficSource.getBytesSent() - initialBytesSent);
+    }
+    if (phaseSubResults) {
+      addPhaseSubResults();
     }
     return result;
   }
 
+  private String buildResponseData() {
+    if (screen == null) {
+      return "";
+    }
+    if (screenStore != null) {
+      try {
+        return screenStore.store(screen);
+      } catch (IOException e) {
+        LOG.warn("Could not store screen in {}, including it in sample result instead",
+            screenStore.getFile(), e);
+      }
+    }
+    return screen.getText();
+  }
+
+  private void addPhaseSubResults() {
+    // adding sub results may extend the sample end time, which should not change
+    long endTime = result.getEndTime();
+    long phaseStart = phaseTimer.getStartTime();
+    for (Map.Entry<SamplePhase, Long> phase : phaseTimer.getDurations().entrySet()) {
+      SampleResult subResult = new SampleResult();
+      subResult.setSampleLabel(result.getSampleLabel() + "-" + phase.getKey().getLabel());
+      subResult.setStampAndTime(phaseStart, phase.getValue());
+      subResult.setSuccessful(true);
+      result.addSubResult(subResult);
+      phaseStart += phase.getValue();
+    }
+    result.setEndTime(endTime);
+  }
+
   private String buildRequestHeaders() {
     return "Server: " + server + "\n" +
             "Port: " + port + "\n" +
@@ -212,16 +345,29 @@ public class RteSampleResultBuilder {
     }
 
     String fieldsPositions = getFieldsPositions();
-    String segmentsAttributes = getSegmentsAttributes();
     
     Map<String, String> headers = new LinkedHashMap<>();
     headers.put("Deprecated-headers", "Field-positions");
     headers.put("Sound-Alarm", Boolean.toString(soundedAlarm));
     headers.put(CURSOR_POSITION_HEADER, cursorPosition == null ? "" : cursorPosition.toString());
-    headers.put("Segments", segmentsAttributes);
+    if (screen != null) {
+      headers.put(SCREEN_FINGERPRINT, String.format("%016x", screen.getFingerprint()));
+    }
+    if (segmentsHeaderMode != SegmentsHeaderMode.NONE) {
+      headers.put("Segments", getSegmentsAttributes());
+    }
     headers.put(INPUT_INHIBITED, Boolean.toString(inputInhibitedResponse));
     //Field positions is deprecated and will be removed in future releases
     headers.put(FIELDS_POSITION_HEADER, fieldsPositions);
+    if (completedWaitCondition != null) {
+      headers.put(COMPLETED_WAIT_CONDITION, completedWaitCondition.getDescription());
+    }
+    Map<SamplePhase, Long> phaseDurations = phaseTimer.getDurations();
+    if (!phaseDurations.isEmpty()) {
+      headers.put(PHASE_TIMINGS, phaseDurations.entrySet().stream()
+          .map(p -> p.getKey().getLabel() + "=" + p.getValue())
+          .collect(Collectors.joining(", ")));
+    }
     
     return headers.entrySet().stream()
             .map(h -> h.getKey() + (h.getKey().contains(": ") ? "" : ": ") + h.getValue())
@@ -245,8 +391,6 @@ public class RteSampleResultBuilder {
       return "";
     }
 
-    return "[" + screen.getSegments().stream()
-            .map(Segment::toJSON)
-            .collect(Collectors.joining(", ")) + "]";
+    return segmentsHeaderMode.encode(screen);
   }
 }
@@ -0,0 +1,53 @@
+package com.blazemeter.jmeter.rte.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.List;
+import org.apache.jmeter.samplers.SampleResult;
+
+/**
+ * Provides the segments of sample results, parsing response headers at most once per result.
+ *
+ * <p>Post processors and assertions of a sampler are applied in the same thread that generated
+ * the sample result, so keeping the last parsed result per thread allows all RTE extractors and
+ * assertions applied to a result to share the same parsed segments.
+ */
+public class SampleResultSegments {
+
+  private static final ThreadLocal<SampleResultSegments> LAST_PARSED = new ThreadLocal<>();
+
+  private final WeakReference<SampleResult> result;
+  private final String responseHeaders;
+  private final List<Segment> segments;
+
+  private SampleResultSegments(SampleResult result, String responseHeaders,
+      List<Segment> segments) {
+    this.result = new WeakReference<>(result);
+    this.responseHeaders = responseHeaders;
+    this.segments = segments;
+  }
+
+  /**
+   * Gets the segments included in the response headers of a sample result.
+   *
+   * @param result sample result to get segments from.
+   * @return an unmodifiable list with the segments of the sample result.
+   * @throws JsonProcessingException when segments are encoded as JSON and are not valid.
+   * @throws IllegalArgumentException when segments are run length encoded and are not valid.
+   * @see Segment#fromHeaders(String)
+   */
+  public static List<Segment> get(SampleResult result) throws JsonProcessingException {
+    String responseHeaders = result.getResponseHeaders();
+    SampleResultSegments parsed = LAST_PARSED.get();
+    // headers are compared by reference since they are only replaced, never modified
+    if (parsed != null && parsed.result.get() == result
+        && parsed.responseHeaders == responseHeaders) {
+      return parsed.segments;
+    }
+    List<Segment> segments = Collections.unmodifiableList(Segment.fromHeaders(responseHeaders));
+    LAST_PARSED.set(new SampleResultSegments(result, responseHeaders, segments));
+    return segments;
+  }
+
+}
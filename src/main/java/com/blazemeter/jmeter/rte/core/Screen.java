@@ -5,6 +5,8 @@ import java.awt.Dimension;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -25,8 +27,18 @@ public class Screen {
 
   public static final Color DEFAULT_COLOR = Color.GREEN;
   public static final Color SECRET_FIELD_COLOR = Color.BLACK;
+  private static final byte EDITABLE_CELL = 0x01;
+  private static final byte SECRET_CELL = 0x02;
+  private static final int NO_COLOR = 0;
   private List<Segment> segments = new ArrayList<>();
   private Dimension size;
+  /*
+  Grid of screen cells, lazily built from segments, to avoid rebuilding text from segments on every
+  access and resolve positions by just indexing arrays. It is published through a single volatile
+  field so threads sharing an immutable screen either build it or see it completely built.
+   */
+  private transient volatile Cells cells;
+  private transient volatile Long fingerprint;
 
   // Provided for proper deserialization of sample results
   public Screen() {
@@ -115,7 +127,22 @@ public class Screen {
   }
 
   public void addSegment(Segment.SegmentBuilder segmentBuilder) {
-    segments.add(segmentBuilder.build(size));
+    addSegment(segmentBuilder.build(size));
+  }
+
+  private void addSegment(Segment segment) {
+    segments.add(segment);
+    cells = null;
+    fingerprint = null;
+  }
+
+  private Cells getCells() {
+    Cells ret = cells;
+    if (ret == null) {
+      ret = new Cells(size, segments);
+      cells = ret;
+    }
+    return ret;
   }
 
   private static Segment.SegmentBuilder getSegmentBuilder(int linealPosition, String text) {
@@ -125,37 +152,89 @@ public class Screen {
   }
 
   public String getText() {
-    StringBuilder screen = new StringBuilder();
-    int nextScreenPosition = 0;
-    for (Segment segment : segments) {
-      int segmentPosition = buildLinealPosition(segment.getStartPosition(), size.width);
-      if (segmentPosition != nextScreenPosition) {
-        Segment fillSegment = buildBlankSegmentForRange(nextScreenPosition, segmentPosition);
-        screen.append(fillSegment.getWrappedText(size.width));
-        nextScreenPosition += fillSegment.getText().length();
+    return getCells().text;
+  }
 
-      }
-      screen.append(segment.getWrappedText(size.width));
-      nextScreenPosition += segment.getText().length();
+  /**
+   * Gets the text in a row of the screen between given columns.
+   *
+   * @param row row of the screen, starting from 1.
+   * @param startColumn first column to include, starting from 1.
+   * @param endColumn last column to include.
+   * @return the text of the row in the given range.
+   */
+  public String getText(int row, int startColumn, int endColumn) {
+    return new String(getCells().chars, (row - 1) * size.width + startColumn - 1,
+        endColumn - startColumn + 1);
+  }
+
+  public boolean isEditable(Position position) {
+    return (getCellAttributes(position) & EDITABLE_CELL) != 0;
+  }
+
+  public boolean isSecret(Position position) {
+    return (getCellAttributes(position) & SECRET_CELL) != 0;
+  }
+
+  private byte getCellAttributes(Position position) {
+    return getCells().attributes[buildLinealPosition(position, size.width)];
+  }
+
+  /**
+   * Gets the color of a given position of the screen.
+   *
+   * @param position position of the screen to get the color for.
+   * @return the color of the segment in the position, or null if no segment with color covers it.
+   */
+  public Color getColor(Position position) {
+    int color = getCells().colors[buildLinealPosition(position, size.width)];
+    return color == NO_COLOR ? null : new Color(color, true);
+  }
+
+  /**
+   * Gets a 64 bit hash of the screen size, and the text, attributes and color of its cells.
+   *
+   * <p>Equal screens have the same fingerprint, and different screens have different fingerprints
+   * with high probability, so screens can be compared just by their fingerprints. The
+   * fingerprint is computed once, when first requested, hashing all the cells of the screen.
+   *
+   * <p>Since the fingerprint is a xor of cells hashes it could be updated by only hashing changed
+   * cells, but emulators only notify that the screen changed, not which cells did, so finding
+   * changed cells would require comparing all of them anyway.
+   *
+   * @return the screen fingerprint.
+   */
+  public long getFingerprint() {
+    Long ret = fingerprint;
+    if (ret == null) {
+      ret = buildFingerprint();
+      fingerprint = ret;
     }
-    int lastScreenPosition = size.width * size.height;
-    if (nextScreenPosition < lastScreenPosition) {
-      screen.append(buildBlankSegmentForRange(nextScreenPosition, lastScreenPosition)
-          .getWrappedText(size.width));
+    return ret;
+  }
+
+  private long buildFingerprint() {
+    Cells current = getCells();
+    long ret = hashSize();
+    for (int i = 0; i < current.chars.length; i++) {
+      ret ^= hashCell(i, current.chars[i], current.attributes[i], current.colors[i]);
     }
+    return ret;
+  }
 
-    return screen.toString();
+  private long hashSize() {
+    return mix(((long) size.width << 32) | size.height);
   }
 
-  private Segment buildBlankSegmentForRange(int firstPosition, int lastPosition) {
-    return getSegmentBuilder(firstPosition,
-        buildBlankString(lastPosition - firstPosition))
-        .withColor(SECRET_FIELD_COLOR)
-        .build(size);
+  private static long hashCell(int cell, char c, byte attributes, int color) {
+    return mix(mix(((long) cell << 32) | ((long) c << 8) | (attributes & 0xFF)) ^ color);
   }
 
-  private String buildBlankString(int length) {
-    return StringUtils.repeat(' ', length);
+  // splitmix64 finalizer, which spreads every input bit over the whole output
+  private static long mix(long value) {
+    long ret = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    ret = (ret ^ (ret >>> 27)) * 0x94D049BB133111EBL;
+    return ret ^ (ret >>> 31);
   }
 
   public static int buildLinealPosition(Position position, int width) {
@@ -171,10 +250,24 @@ public class Screen {
         .withColor(Screen.DEFAULT_COLOR));
   }
 
+  /**
+   * Gets a copy of this screen which can't be modified.
+   *
+   * <p>Such copies can be safely cached and shared among threads, as done by protocol clients for
+   * screens which have not changed since last time they were requested.
+   *
+   * @return an unmodifiable copy of the screen.
+   */
+  public Screen toImmutable() {
+    Screen ret = new Screen(new Dimension(size));
+    ret.segments = Collections.unmodifiableList(new ArrayList<>(segments));
+    return ret;
+  }
+
   public Screen withInvisibleCharsToSpaces() {
     Screen ret = new Screen(size);
     for (Segment s : segments) {
-      ret.segments.add(s.withInvisibleCharsToSpaces());
+      ret.addSegment(s.withInvisibleCharsToSpaces());
     }
     return ret;
   }
@@ -280,4 +373,60 @@ public class Screen {
   public int hashCode() {
     return Objects.hash(segments, size);
   }
+
+  /*
+   Row major grid of cells, which is completely filled in constructor and never modified afterwards.
+   */
+  private static final class Cells {
+
+    private final char[] chars;
+    private final byte[] attributes;
+    private final int[] colors;
+    private final String text;
+
+    private Cells(Dimension size, List<Segment> segments) {
+      int cellsCount = size.width * size.height;
+      chars = new char[cellsCount];
+      Arrays.fill(chars, ' ');
+      attributes = new byte[cellsCount];
+      colors = new int[cellsCount];
+      segments.forEach(s -> fill(s, size.width));
+      text = buildText(size);
+    }
+
+    private void fill(Segment segment, int width) {
+      String segmentText = segment.getText();
+      byte segmentAttributes = (byte) ((segment.isEditable() ? EDITABLE_CELL : 0)
+          | (segment.isSecret() ? SECRET_CELL : 0));
+      int color = segment.getColor() != null ? segment.getColor().getRGB() : NO_COLOR;
+      int cell = buildLinealPosition(segment.getStartPosition(), width);
+      for (int i = 0; i < segmentText.length(); i++, cell++) {
+        // circular fields continue at the beginning of the screen
+        if (cell >= chars.length) {
+          cell = 0;
+        }
+        char c = segmentText.charAt(i);
+        /*
+         in tn5250 and potentially other protocols, the screen contains non visible characters
+         which are used as markers of no data or additional info. We replace them with spaces for
+         better visualization in text representation.
+         */
+        chars[cell] = c == '\u0000' ? ' ' : c;
+        attributes[cell] = segmentAttributes;
+        colors[cell] = color;
+      }
+    }
+
+    private String buildText(Dimension size) {
+      // we increase one due to new line at end of row
+      char[] screen = new char[size.height * (size.width + 1)];
+      for (int row = 0; row < size.height; row++) {
+        int rowStart = row * (size.width + 1);
+        System.arraycopy(chars, row * size.width, screen, rowStart, size.width);
+        screen[rowStart + size.width] = '\n';
+      }
+      return new String(screen);
+    }
+
+  }
 }
@@ -10,6 +10,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
@@ -17,15 +18,29 @@ import com.fasterxml.jackson.databind.util.StdConverter;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class Segment {
   
   private static final Logger LOG = LoggerFactory.getLogger(Segment.class);
-  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .registerModule(new SimpleModule().addDeserializer(Segment.class,
+          buildSegmentDeserializer()));
+  private static final ObjectReader SEGMENTS_READER = MAPPER
+      .readerFor(new TypeReference<List<Segment>>() {
+      });
+  private static final String SEGMENTS_HEADER = "Segments: ";
+  private static final String RUN_LENGTH_ENCODING_PREFIX = "rle ";
+  private static final Pattern RUN_PATTERN = Pattern
+      .compile("(\\d+)\\+(\\d+)(e?)(s?)(#[0-9a-fA-F]{6})?");
   private final boolean editable;
   private final boolean secret;
   private final String text;
@@ -149,29 +164,133 @@ public class Segment {
 
   public String toJSON() {
     try {
-      return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(Segment.this);
+      return MAPPER.writeValueAsString(Segment.this);
     } catch (JsonProcessingException e) {
       LOG.error("There was an error while parsing the segments. ", e);
       return "{}";
     }
   }
 
+  /**
+   * Encodes segments attributes as runs keyed by lineal position of the screen.
+   *
+   * <p>The encoding starts with the screen size, followed by one run per segment in the form
+   * {@code <linealPosition>+<length>[e][s][#color]}, where {@code e} and {@code s} flag editable
+   * and secret segments. E.g.: {@code rle 24x80 0+19#00ff00 19+5es#000000}.
+   *
+   * @param segments segments to encode.
+   * @param screenSize size of the screen containing the segments.
+   * @return the encoded segments.
+   */
+  public static String toRunLengthEncoding(List<Segment> segments, Dimension screenSize) {
+    StringBuilder ret = new StringBuilder(RUN_LENGTH_ENCODING_PREFIX)
+        .append(screenSize.height)
+        .append('x')
+        .append(screenSize.width);
+    for (Segment segment : segments) {
+      ret.append(' ')
+          .append(Screen.buildLinealPosition(segment.getStartPosition(), screenSize.width))
+          .append('+')
+          .append(segment.getText().length());
+      if (segment.isEditable()) {
+        ret.append('e');
+      }
+      if (segment.isSecret()) {
+        ret.append('s');
+      }
+      if (segment.getColor() != null) {
+        ret.append(new ColorConverter().convert(segment.getColor()));
+      }
+    }
+    return ret.toString();
+  }
+
+  public static List<Segment> fromRunLengthEncoding(String encodedSegments) {
+    String[] runs = encodedSegments.trim().split(" ");
+    if (runs.length < 2 || !(runs[0] + " ").equals(RUN_LENGTH_ENCODING_PREFIX)) {
+      throw new IllegalArgumentException("Invalid run length encoded segments: "
+          + encodedSegments);
+    }
+    Dimension screenSize = parseScreenSize(runs[1]);
+    List<Segment> ret = new ArrayList<>(runs.length - 2);
+    for (int i = 2; i < runs.length; i++) {
+      Matcher matcher = RUN_PATTERN.matcher(runs[i]);
+      if (!matcher.matches()) {
+        throw new IllegalArgumentException("Invalid run length encoded segment: " + runs[i]);
+      }
+      Position start = Screen.buildPositionFromLinearPosition(Integer.parseInt(matcher.group(1)),
+          screenSize.width);
+      SegmentBuilder builder = new SegmentBuilder()
+          .withPosition(start.getRow(), start.getColumn());
+      if (!matcher.group(3).isEmpty()) {
+        builder.withEditable();
+      }
+      if (!matcher.group(4).isEmpty()) {
+        builder.withSecret();
+      }
+      if (matcher.group(5) != null) {
+        builder.withColor(Color.decode(matcher.group(5)));
+      }
+      ret.add(builder.build(new PositionRange(start, SegmentBuilder.calculateEndPosition(
+          screenSize, start, Integer.parseInt(matcher.group(2))))));
+    }
+    return ret;
+  }
+
+  private static Dimension parseScreenSize(String screenSize) {
+    int separatorIndex = screenSize.indexOf('x');
+    try {
+      return new Dimension(Integer.parseInt(screenSize.substring(separatorIndex + 1)),
+          Integer.parseInt(screenSize.substring(0, separatorIndex)));
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid screen size in run length encoded segments: "
+          + screenSize, e);
+    }
+  }
+
   public static List<Segment> fromJSON(String json) throws JsonProcessingException {
-    SimpleModule module = new SimpleModule();
-    module.addDeserializer(Segment.class, buildSegmentDeserializer());
-    MAPPER.registerModule(module);
-    return MAPPER.readValue(json, new TypeReference<List<Segment>>() {});
+    try {
+      return SEGMENTS_READER.readValue(json);
+    } catch (JsonProcessingException e) {
+      throw e;
+    } catch (IOException e) {
+      // reading from a string should not cause any other IO error
+      throw new UncheckedIOException(e);
+    }
   }
 
+  /**
+   * Gets the segments from the response headers of a sample result.
+   *
+   * <p>Segments may be encoded as JSON (pretty printed by older versions of the plugin, or
+   * compact), with run length encoding, or not included at all in headers. In the last case an
+   * empty list is returned.
+   *
+   * @param responseHeaders response headers of a sample result.
+   * @return the segments included in the headers.
+   * @throws JsonProcessingException when segments are encoded as JSON and are not valid.
+   * @throws IllegalArgumentException when segments are run length encoded and are not valid.
+   */
   public static List<Segment> fromHeaders(String responseHeaders)
       throws JsonProcessingException {
-    String segmentsAsText = extractHeaderSegmentsValue(responseHeaders);
+    int segmentIndex = responseHeaders.indexOf(SEGMENTS_HEADER);
+    if (segmentIndex < 0) {
+      return Collections.emptyList();
+    }
+    int startPosition = segmentIndex + SEGMENTS_HEADER.length();
+    if (responseHeaders.startsWith(RUN_LENGTH_ENCODING_PREFIX, startPosition)) {
+      int endPosition = responseHeaders.indexOf('\n', startPosition);
+      return fromRunLengthEncoding(responseHeaders.substring(startPosition,
+          endPosition < 0 ? responseHeaders.length() : endPosition));
+    }
+    if (!responseHeaders.startsWith("[", startPosition)) {
+      return Collections.emptyList();
+    }
+    String segmentsAsText = extractHeaderSegmentsValue(responseHeaders, startPosition);
     return Segment.fromJSON(segmentsAsText);
   }
 
-  private static String extractHeaderSegmentsValue(String responseHeaders) {
-    int segmentIndex = responseHeaders.indexOf("Segments: ");
-    int startPosition = segmentIndex + "Segments: ".length();
+  private static String extractHeaderSegmentsValue(String responseHeaders, int startPosition) {
     String segmentsValue = responseHeaders.substring(startPosition);
     if (segmentsValue.matches("^\\w+-?\\w+:.")) {
       String[] headers = segmentsValue.split("^\\w+-?\\w+:.");
@@ -254,16 +373,17 @@ public class Segment {
       return this;
     }
 
-    private Position calculateEndPosition(Dimension screenSize, Position startPosition) {
+    private static Position calculateEndPosition(Dimension screenSize, Position startPosition,
+        int length) {
       int startLinealPosition = Screen.buildLinealPosition(startPosition, screenSize.width);
-      int endLinealPosition = startLinealPosition + text.length();
+      int endLinealPosition = startLinealPosition + length;
       int maxLinealPos = screenSize.width * screenSize.height;
       //circular field use case
       if (maxLinealPos < endLinealPosition) {
         return Screen.buildPositionFromLinearPosition(Math.abs(endLinealPosition - maxLinealPos),
             screenSize.width);
       }
-      endLinealPosition = startPosition.getColumn() + text.length();
+      endLinealPosition = startPosition.getColumn() + length;
       return new Position(startPosition.getRow() + (endLinealPosition - 1) / screenSize.width,
           (endLinealPosition - 1) % screenSize.width + 1);
     }
@@ -273,7 +393,7 @@ public class Segment {
           ? Screen.buildPositionFromLinearPosition(firstLinealPosition,
           screenSize.width) : startPosition;
       PositionRange positionRange = new PositionRange(position,
-          calculateEndPosition(screenSize, position));
+          calculateEndPosition(screenSize, position, text.length()));
       return new Segment(positionRange, text, editable, secret, color);
     }
 
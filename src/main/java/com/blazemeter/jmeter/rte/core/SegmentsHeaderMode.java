@@ -0,0 +1,32 @@
+package com.blazemeter.jmeter.rte.core;
+
+import java.util.stream.Collectors;
+
+/**
+ * Specifies how screen segments are included in sample results response headers.
+ */
+public enum SegmentsHeaderMode {
+  JSON {
+    @Override
+    public String encode(Screen screen) {
+      return "[" + screen.getSegments().stream()
+          .map(Segment::toJSON)
+          .collect(Collectors.joining(",")) + "]";
+    }
+  },
+  RLE {
+    @Override
+    public String encode(Screen screen) {
+      return Segment.toRunLengthEncoding(screen.getSegments(), screen.getSize());
+    }
+  },
+  NONE {
+    @Override
+    public String encode(Screen screen) {
+      return "";
+    }
+  };
+
+  public abstract String encode(Screen screen);
+
+}
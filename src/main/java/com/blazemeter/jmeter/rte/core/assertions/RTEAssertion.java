@@ -2,11 +2,13 @@ package com.blazemeter.jmeter.rte.core.assertions;
 
 import com.blazemeter.jmeter.rte.core.ColorUtils;
 import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.SampleResultSegments;
 import com.blazemeter.jmeter.rte.core.Segment;
 import com.blazemeter.jmeter.rte.core.TerminalType;
 import com.blazemeter.jmeter.rte.extractor.RTEExtractor;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import java.awt.Color;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.apache.jmeter.assertions.Assertion;
@@ -29,6 +31,11 @@ public class RTEAssertion extends AbstractScopedAssertion implements Assertion {
     List<Segment> segments = this.getSegments(response);
 
     AssertionResult assertion = new AssertionResult("colorAssertion");
+    if (segments.isEmpty()) {
+      assertion.setResultForFailure("No segments found in response headers. Check that segments "
+          + "header mode is not set to NONE");
+      return assertion;
+    }
     Optional<Segment> anySegmentInPosition =
         RTEExtractor.findColorSegmentByPosition(segments, getPosition());
 
@@ -56,11 +63,11 @@ public class RTEAssertion extends AbstractScopedAssertion implements Assertion {
   }
 
   private List<Segment> getSegments(SampleResult response) {
-    List<Segment> segments = null;
+    List<Segment> segments = Collections.emptyList();
 
     try {
-      segments = Segment.fromHeaders(response.getResponseHeaders());
-    } catch (JsonProcessingException e) {
+      segments = SampleResultSegments.get(response);
+    } catch (JsonProcessingException | IllegalArgumentException e) {
       LOG.error("Error parsing response headers", e);
     }
 
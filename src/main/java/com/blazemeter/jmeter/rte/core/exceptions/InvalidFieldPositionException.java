@@ -4,6 +4,10 @@ import com.blazemeter.jmeter.rte.core.Position;
 
 public class InvalidFieldPositionException extends IllegalArgumentException {
 
+  public InvalidFieldPositionException(Position position) {
+    this(position, null);
+  }
+
   public InvalidFieldPositionException(Position position, Throwable cause) {
     super("No field at row " + position.getRow() + " and column " + position.getColumn(), cause);
   }
@@ -1,6 +1,7 @@
 package com.blazemeter.jmeter.rte.core.listener;
 
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
+import com.blazemeter.jmeter.rte.core.monitor.RteEngineMonitor;
 import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
@@ -12,6 +13,9 @@ public class ExceptionHandler {
 
   private List<ExceptionListener> listeners = new ArrayList<>();
   private Throwable pendingError;
+  private boolean errorReported;
+  private boolean errorMonitored;
+  private boolean discarded;
   private String server;
   
   public ExceptionHandler(String server) {
@@ -21,6 +25,11 @@ public class ExceptionHandler {
   public synchronized void setPendingError(Throwable ex) {
     if (pendingError == null) {
       pendingError = ex;
+      // errors of discarded handlers are never reported, so they are not tracked as pending
+      if (!discarded) {
+        errorMonitored = true;
+        RteEngineMonitor.getInstance().errorPending();
+      }
       /*  Creating a copy of listeners keys to avoid concurrent modification exception 
        *  due to listeners potentially removing themselves on exception.
        */ 
@@ -37,11 +46,33 @@ public class ExceptionHandler {
   public synchronized void throwAnyPendingError() throws RteIOException {
     if (pendingError != null) {
       Throwable ret = pendingError;
-      pendingError = null;
+      clearPendingError();
+      errorReported = true;
       throw new RteIOException(ret, server);
     }
   }
 
+  private void clearPendingError() {
+    pendingError = null;
+    if (errorMonitored) {
+      errorMonitored = false;
+      RteEngineMonitor.getInstance().errorReported();
+    }
+  }
+
+  /**
+   * Drops any pending error when the connection this handler belongs to is no longer used, so the
+   * error is no longer accounted as pending.
+   */
+  public synchronized void discard() {
+    discarded = true;
+    clearPendingError();
+  }
+
+  public synchronized boolean hasReportedError() {
+    return errorReported;
+  }
+
   public synchronized void removeListener(ExceptionListener listener) {
     listeners.remove(listener);
   }
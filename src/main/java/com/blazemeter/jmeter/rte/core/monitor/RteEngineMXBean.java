@@ -0,0 +1,62 @@
+package com.blazemeter.jmeter.rte.core.monitor;
+
+import java.util.Map;
+
+/**
+ * Live state of RTE sessions and components of a JMeter engine, exposed through JMX.
+ */
+public interface RteEngineMXBean {
+
+  /**
+   * Gets the number of open sessions.
+   *
+   * @return open sessions indexed by protocol, server and port (e.g.: TN5250 myhost:23).
+   */
+  Map<String, Integer> getActiveSessions();
+
+  int getActiveSessionsCount();
+
+  long getConnectsCount();
+
+  long getDisconnectsCount();
+
+  long getConnectsPerSecond();
+
+  long getDisconnectsPerSecond();
+
+  /**
+   * Gets the number of waits which have not yet ended.
+   *
+   * @return pending waits indexed by wait condition type (e.g.: SyncWaitCondition).
+   */
+  Map<String, Integer> getPendingWaits();
+
+  int getScheduledStableTimers();
+
+  long getAverageTimerLagMicros();
+
+  long getMaxTimerLagMicros();
+
+  /**
+   * Gets the number of errors notified by emulators which have not yet been reported in a sample.
+   *
+   * @return the number of pending errors.
+   */
+  int getPendingErrors();
+
+  int getLiveThreads();
+
+  /**
+   * Gets an estimation of platform threads created by RTE components (emulators, schedulers and
+   * connection threads), computed as live threads not existing when the monitor was registered
+   * and not being JMeter threads.
+   *
+   * @return the estimated number of threads created by RTE components.
+   */
+  int getRteThreads();
+
+  long getBytesReceived();
+
+  long getBytesSent();
+
+}
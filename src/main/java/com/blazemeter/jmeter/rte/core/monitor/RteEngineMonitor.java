@@ -0,0 +1,258 @@
+package com.blazemeter.jmeter.rte.core.monitor;
+
+import com.blazemeter.jmeter.rte.core.wait.StableTimeoutScheduler;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Engine wide monitor which keeps track of RTE sessions and components and exposes them through
+ * JMX while a test runs.
+ *
+ * <p>Protocol clients, waiters and exception handlers notify this monitor, which only keeps
+ * counters, so notifying it is cheap even when it is not registered.
+ */
+public class RteEngineMonitor implements RteEngineMXBean {
+
+  public static final String OBJECT_NAME = "com.blazemeter.jmeter.rte:type=RteEngine";
+
+  private static final Logger LOG = LoggerFactory.getLogger(RteEngineMonitor.class);
+  private static final RteEngineMonitor INSTANCE = new RteEngineMonitor();
+
+  private final ConcurrentMap<String, AtomicInteger> activeSessions = new ConcurrentHashMap<>();
+  private final RateCounter connects = new RateCounter();
+  private final RateCounter disconnects = new RateCounter();
+  private final ConcurrentMap<String, AtomicInteger> pendingWaits = new ConcurrentHashMap<>();
+  private final AtomicInteger pendingErrors = new AtomicInteger();
+  private final LongAdder bytesReceived = new LongAdder();
+  private final LongAdder bytesSent = new LongAdder();
+  private volatile int baselineThreads;
+
+  public static RteEngineMonitor getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Registers the monitor in the platform MBean server, if not already registered, and resets its
+   * counters so they only reflect the test being started.
+   */
+  public static synchronized void register() {
+    INSTANCE.reset();
+    try {
+      INSTANCE.baselineThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+      ManagementFactory.getPlatformMBeanServer()
+          .registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+    } catch (InstanceAlreadyExistsException e) {
+      LOG.debug("RTE engine monitor already registered", e);
+    } catch (JMException e) {
+      LOG.warn("Could not register RTE engine monitor", e);
+    }
+  }
+
+  public static synchronized void unregister() {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      LOG.warn("Could not unregister RTE engine monitor", e);
+    }
+  }
+
+  private void reset() {
+    activeSessions.clear();
+    connects.reset();
+    disconnects.reset();
+    pendingWaits.clear();
+    pendingErrors.set(0);
+    bytesReceived.reset();
+    bytesSent.reset();
+  }
+
+  public void sessionOpened(String session) {
+    activeSessions.computeIfAbsent(session, s -> new AtomicInteger()).incrementAndGet();
+    connects.increment();
+  }
+
+  public void sessionClosed(String session) {
+    AtomicInteger count = activeSessions.get(session);
+    if (count != null) {
+      count.decrementAndGet();
+    }
+    disconnects.increment();
+  }
+
+  public void waitStarted(String waitType) {
+    pendingWaits.computeIfAbsent(waitType, s -> new AtomicInteger()).incrementAndGet();
+  }
+
+  public void waitEnded(String waitType) {
+    AtomicInteger count = pendingWaits.get(waitType);
+    if (count != null) {
+      count.decrementAndGet();
+    }
+  }
+
+  public void errorPending() {
+    pendingErrors.incrementAndGet();
+  }
+
+  public void errorReported() {
+    pendingErrors.decrementAndGet();
+  }
+
+  public void addBytesReceived(long bytes) {
+    bytesReceived.add(bytes);
+  }
+
+  public void addBytesSent(long bytes) {
+    bytesSent.add(bytes);
+  }
+
+  @Override
+  public Map<String, Integer> getActiveSessions() {
+    return getCounts(activeSessions);
+  }
+
+  private static Map<String, Integer> getCounts(Map<String, AtomicInteger> counters) {
+    Map<String, Integer> ret = new TreeMap<>();
+    counters.forEach((key, count) -> {
+      if (count.get() > 0) {
+        ret.put(key, count.get());
+      }
+    });
+    return ret;
+  }
+
+  @Override
+  public int getActiveSessionsCount() {
+    return activeSessions.values().stream()
+        .mapToInt(AtomicInteger::get)
+        .sum();
+  }
+
+  @Override
+  public long getConnectsCount() {
+    return connects.getTotal();
+  }
+
+  @Override
+  public long getDisconnectsCount() {
+    return disconnects.getTotal();
+  }
+
+  @Override
+  public long getConnectsPerSecond() {
+    return connects.getLastSecondCount();
+  }
+
+  @Override
+  public long getDisconnectsPerSecond() {
+    return disconnects.getLastSecondCount();
+  }
+
+  @Override
+  public Map<String, Integer> getPendingWaits() {
+    return getCounts(pendingWaits);
+  }
+
+  @Override
+  public int getScheduledStableTimers() {
+    StableTimeoutScheduler scheduler = StableTimeoutScheduler.getCurrentInstance();
+    return scheduler != null ? scheduler.getScheduledCount() : 0;
+  }
+
+  @Override
+  public long getAverageTimerLagMicros() {
+    StableTimeoutScheduler scheduler = StableTimeoutScheduler.getCurrentInstance();
+    return scheduler != null ? scheduler.getAverageLagMicros() : 0;
+  }
+
+  @Override
+  public long getMaxTimerLagMicros() {
+    StableTimeoutScheduler scheduler = StableTimeoutScheduler.getCurrentInstance();
+    return scheduler != null ? scheduler.getMaxLagMicros() : 0;
+  }
+
+  @Override
+  public int getPendingErrors() {
+    return pendingErrors.get();
+  }
+
+  @Override
+  public int getLiveThreads() {
+    return ManagementFactory.getThreadMXBean().getThreadCount();
+  }
+
+  @Override
+  public int getRteThreads() {
+    return Math.max(0,
+        getLiveThreads() - baselineThreads - JMeterContextService.getNumberOfThreads());
+  }
+
+  @Override
+  public long getBytesReceived() {
+    return bytesReceived.sum();
+  }
+
+  @Override
+  public long getBytesSent() {
+    return bytesSent.sum();
+  }
+
+  /*
+  Counts events in each second, to provide the number of events in the last completed second.
+   */
+  private static class RateCounter {
+
+    private final LongAdder total = new LongAdder();
+    private long currentSecond;
+    private long currentSecondCount;
+    private long lastSecondCount;
+
+    private synchronized void increment() {
+      roll();
+      currentSecondCount++;
+      total.increment();
+    }
+
+    private void roll() {
+      long second = System.currentTimeMillis() / 1000;
+      if (second != currentSecond) {
+        lastSecondCount = second == currentSecond + 1 ? currentSecondCount : 0;
+        currentSecond = second;
+        currentSecondCount = 0;
+      }
+    }
+
+    private synchronized void reset() {
+      total.reset();
+      currentSecondCount = 0;
+      lastSecondCount = 0;
+    }
+
+    private synchronized long getLastSecondCount() {
+      roll();
+      return lastSecondCount;
+    }
+
+    private long getTotal() {
+      return total.sum();
+    }
+
+  }
+
+}
@@ -0,0 +1,276 @@
+package com.blazemeter.jmeter.rte.core.pool;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Engine wide control of connections admitted to each server.
+ *
+ * <p>Limits the number of connections being established at the same time (in-flight connects) and
+ * the number of open sessions to each server. Connections exceeding such limits wait in a fair
+ * queue until they are admitted or their timeout is reached, so an overloaded server or gateway
+ * slows down new connections instead of making all of them time out together.
+ */
+public class ConnectionAdmissionController {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ConnectionAdmissionController.class);
+
+  private static ConnectionAdmissionController instance = new ConnectionAdmissionController(0, 0);
+
+  private final int maxConnecting;
+  private final int maxSessions;
+  private final Map<String, ServerAdmission> servers = new ConcurrentHashMap<>();
+  private final LongAdder admittedCount = new LongAdder();
+  private final LongAdder timeoutCount = new LongAdder();
+  private final LongAdder totalWaitNanos = new LongAdder();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+  private final AtomicLong maxQueueDepth = new AtomicLong();
+
+  /**
+   * Creates a new controller.
+   *
+   * @param maxConnecting maximum number of connections being established at the same time to each
+   * server. Zero or negative values mean no limit.
+   * @param maxSessions maximum number of open sessions to each server. Zero or negative values mean
+   * no limit.
+   */
+  public ConnectionAdmissionController(int maxConnecting, int maxSessions) {
+    this.maxConnecting = maxConnecting;
+    this.maxSessions = maxSessions;
+  }
+
+  public static synchronized ConnectionAdmissionController getInstance() {
+    return instance;
+  }
+
+  /**
+   * Replaces the engine wide controller with a new one with the given limits.
+   *
+   * <p>Sessions admitted by the previous controller are still released to it, so changing limits
+   * does not affect the accounting of already open sessions.
+   *
+   * @param maxConnecting maximum number of connections being established at the same time to each
+   * server. Zero or negative values mean no limit.
+   * @param maxSessions maximum number of open sessions to each server. Zero or negative values mean
+   * no limit.
+   */
+  public static synchronized void configure(int maxConnecting, int maxSessions) {
+    instance = new ConnectionAdmissionController(maxConnecting, maxSessions);
+  }
+
+  public boolean isLimited() {
+    return maxConnecting > 0 || maxSessions > 0;
+  }
+
+  /**
+   * Waits until a new connection to the given server is admitted.
+   *
+   * @param server the server to connect to.
+   * @param timeoutMillis maximum time to wait for the connection to be admitted.
+   * @return the admission of the connection, which has to be notified when the connection is
+   * established and when it is closed.
+   * @throws InterruptedException if the thread is interrupted while waiting.
+   * @throws TimeoutException if the connection is not admitted in the given time.
+   */
+  public Admission admit(String server, long timeoutMillis)
+      throws InterruptedException, TimeoutException {
+    ServerAdmission serverAdmission = servers.computeIfAbsent(server, s -> new ServerAdmission());
+    long waitStart = System.nanoTime();
+    try {
+      serverAdmission.acquire(timeoutMillis);
+    } catch (TimeoutException e) {
+      timeoutCount.increment();
+      throw new TimeoutException("Timeout waiting for admission of connection to " + server
+          + " after " + timeoutMillis + " millis. Consider reducing the number of concurrent "
+          + "threads or increasing the server in-flight connects and sessions limits.");
+    } finally {
+      long waitNanos = System.nanoTime() - waitStart;
+      totalWaitNanos.add(waitNanos);
+      maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+    admittedCount.increment();
+    return new Admission(serverAdmission);
+  }
+
+  public long getAdmittedCount() {
+    return admittedCount.sum();
+  }
+
+  public long getTimeoutCount() {
+    return timeoutCount.sum();
+  }
+
+  public long getAverageWaitMillis() {
+    long attempts = admittedCount.sum() + timeoutCount.sum();
+    return attempts == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum() / attempts);
+  }
+
+  public long getMaxWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+  }
+
+  public int getQueueDepth() {
+    return servers.values().stream()
+        .mapToInt(ServerAdmission::getQueueDepth)
+        .sum();
+  }
+
+  public long getMaxQueueDepth() {
+    return maxQueueDepth.get();
+  }
+
+  public int getConnectingCount() {
+    return servers.values().stream()
+        .mapToInt(ServerAdmission::getConnectingCount)
+        .sum();
+  }
+
+  public int getSessionsCount() {
+    return servers.values().stream()
+        .mapToInt(ServerAdmission::getSessionsCount)
+        .sum();
+  }
+
+  public String getStatsSummary() {
+    return "admitted=" + getAdmittedCount() +
+        ", timeouts=" + getTimeoutCount() +
+        ", avgWaitMillis=" + getAverageWaitMillis() +
+        ", maxWaitMillis=" + getMaxWaitMillis() +
+        ", queueDepth=" + getQueueDepth() +
+        ", maxQueueDepth=" + getMaxQueueDepth() +
+        ", connecting=" + getConnectingCount() +
+        ", sessions=" + getSessionsCount();
+  }
+
+  public void logStats() {
+    if (isLimited()) {
+      LOG.info("RTE connection admission stats: {}", getStatsSummary());
+    }
+  }
+
+  /**
+   * Admission of a connection, which holds an in-flight connect slot until the connection is
+   * established and a session slot until it is closed.
+   */
+  public static class Admission {
+
+    private final ServerAdmission serverAdmission;
+    private boolean connecting = true;
+    private boolean open = true;
+
+    private Admission(ServerAdmission serverAdmission) {
+      this.serverAdmission = serverAdmission;
+    }
+
+    public synchronized void connectEnded() {
+      if (connecting) {
+        connecting = false;
+        serverAdmission.release(true, false);
+      }
+    }
+
+    public synchronized void close() {
+      if (open) {
+        open = false;
+        serverAdmission.release(connecting, true);
+        connecting = false;
+      }
+    }
+
+  }
+
+  private class ServerAdmission {
+
+    // fair lock and explicit queue so connections are admitted in arrival order
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition admissionAvailable = lock.newCondition();
+    private final Deque<Thread> queue = new ArrayDeque<>();
+    private int connecting;
+    private int sessions;
+
+    private void acquire(long timeoutMillis) throws InterruptedException, TimeoutException {
+      long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      Thread current = Thread.currentThread();
+      lock.lockInterruptibly();
+      try {
+        queue.addLast(current);
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        try {
+          while (queue.peekFirst() != current || !hasCapacity()) {
+            if (remainingNanos <= 0) {
+              throw new TimeoutException();
+            }
+            remainingNanos = admissionAvailable.awaitNanos(remainingNanos);
+          }
+          connecting++;
+          sessions++;
+        } finally {
+          queue.remove(current);
+          // next in queue may be admitted, or the head may have changed if this one gave up
+          admissionAvailable.signalAll();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean hasCapacity() {
+      return (maxConnecting <= 0 || connecting < maxConnecting)
+          && (maxSessions <= 0 || sessions < maxSessions);
+    }
+
+    private void release(boolean connectSlot, boolean sessionSlot) {
+      lock.lock();
+      try {
+        if (connectSlot) {
+          connecting--;
+        }
+        if (sessionSlot) {
+          sessions--;
+        }
+        admissionAvailable.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int getQueueDepth() {
+      lock.lock();
+      try {
+        return queue.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int getConnectingCount() {
+      lock.lock();
+      try {
+        return connecting;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int getSessionsCount() {
+      lock.lock();
+      try {
+        return sessions;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,357 @@
+package com.blazemeter.jmeter.rte.core.pool;
+
+import com.blazemeter.jmeter.rte.core.RteProtocolClient;
+import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of established sessions shared by all the threads of a test.
+ *
+ * <p>Sessions are lent to samplers and taken back at the end of the iteration, so a reduced set of
+ * connections can serve many more threads and connection time is only paid when no idle session
+ * is available.
+ */
+public class RteSessionPool {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RteSessionPool.class);
+
+  private final int maxTotal;
+  private final int maxIdle;
+  private final long maxIdleTimeMillis;
+  private final Map<SessionKey, SessionQueue> queues = new ConcurrentHashMap<>();
+  private final LongAdder borrowCount = new LongAdder();
+  private final LongAdder createdCount = new LongAdder();
+  private final LongAdder evictedCount = new LongAdder();
+  private final LongAdder waitTimeoutCount = new LongAdder();
+  private final LongAdder totalWaitNanos = new LongAdder();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+  private volatile boolean closed;
+
+  /**
+   * Creates a new pool.
+   *
+   * @param maxTotal maximum number of sessions (lent or idle) per {@link SessionKey}. Zero or
+   * negative values mean no limit.
+   * @param maxIdle maximum number of idle sessions kept per {@link SessionKey}. Zero or negative
+   * values mean no limit.
+   * @param maxIdleTimeMillis time after which an idle session is disconnected and evicted from the
+   * pool. Zero or negative values mean idle sessions are never evicted.
+   */
+  public RteSessionPool(int maxTotal, int maxIdle, long maxIdleTimeMillis) {
+    this.maxTotal = maxTotal;
+    this.maxIdle = maxIdle;
+    this.maxIdleTimeMillis = maxIdleTimeMillis;
+  }
+
+  public RteProtocolClient borrow(SessionKey key, long maxWaitMillis, SessionFactory factory)
+      throws RteIOException, InterruptedException, TimeoutException {
+    SessionQueue queue = queues.computeIfAbsent(key, k -> new SessionQueue());
+    evictExpired(queue);
+    long waitStart = System.nanoTime();
+    RteProtocolClient client;
+    try {
+      client = acquireLiveSession(queue, key, maxWaitMillis);
+    } catch (TimeoutException e) {
+      waitTimeoutCount.increment();
+      throw new TimeoutException(
+          "Timeout waiting for an available session to " + key + " after " + maxWaitMillis
+              + " millis. Consider increasing the session pool max total.");
+    } finally {
+      recordWait(System.nanoTime() - waitStart);
+    }
+    borrowCount.increment();
+    if (client != null) {
+      LOG.debug("Reusing pooled session to {}", key);
+      return client;
+    }
+    boolean created = false;
+    try {
+      client = factory.create();
+      created = true;
+      createdCount.increment();
+      return client;
+    } finally {
+      if (!created) {
+        queue.releaseSlot();
+      }
+    }
+  }
+
+  /*
+  Idle sessions may have been closed by the server, or got an error, while waiting in the pool, so
+  they are discarded and the slot they free is used to get another idle session or create a new one.
+   */
+  private RteProtocolClient acquireLiveSession(SessionQueue queue, SessionKey key,
+      long maxWaitMillis) throws InterruptedException, TimeoutException {
+    while (true) {
+      RteProtocolClient client = queue.acquire(maxTotal, maxWaitMillis);
+      if (client == null || !client.isSessionBroken()) {
+        return client;
+      }
+      LOG.debug("Discarding broken pooled session to {}", key);
+      evict(queue, client);
+    }
+  }
+
+  private void evict(SessionQueue queue, RteProtocolClient client) {
+    evictedCount.increment();
+    queue.releaseSlot();
+    disconnect(client);
+  }
+
+  private void recordWait(long waitNanos) {
+    totalWaitNanos.add(waitNanos);
+    maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+  }
+
+  private void evictExpired(SessionQueue queue) {
+    if (maxIdleTimeMillis <= 0) {
+      return;
+    }
+    List<RteProtocolClient> expired = queue
+        .removeIdleSince(System.currentTimeMillis() - maxIdleTimeMillis);
+    evictedCount.add(expired.size());
+    disconnectAll(expired);
+  }
+
+  public void release(SessionKey key, RteProtocolClient client) {
+    SessionQueue queue = queues.get(key);
+    if (queue == null) {
+      disconnect(client);
+      return;
+    }
+    // sessions which failed in last sample are not kept, to avoid failing next borrower sample
+    if (closed || client.isSessionBroken() || !queue.offer(client, maxIdle)) {
+      evict(queue, client);
+    }
+  }
+
+  /**
+   * Removes a lent session from the pool accounting. Invoked when the session is explicitly
+   * disconnected by the borrower, who is responsible for closing it.
+   *
+   * @param key key used to borrow the session.
+   */
+  public void invalidate(SessionKey key) {
+    SessionQueue queue = queues.get(key);
+    if (queue != null) {
+      queue.releaseSlot();
+    }
+  }
+
+  public void close() {
+    closed = true;
+    queues.values().forEach(q -> disconnectAll(q.drainIdle()));
+    LOG.info("RTE session pool stats: {}", getStatsSummary());
+  }
+
+  private void disconnectAll(List<RteProtocolClient> clients) {
+    clients.forEach(this::disconnect);
+  }
+
+  private void disconnect(RteProtocolClient client) {
+    try {
+      client.disconnect();
+    } catch (Exception e) {
+      LOG.error("Problem while closing pooled RTE connection", e);
+    }
+  }
+
+  public long getBorrowCount() {
+    return borrowCount.sum();
+  }
+
+  public long getCreatedCount() {
+    return createdCount.sum();
+  }
+
+  public long getEvictedCount() {
+    return evictedCount.sum();
+  }
+
+  public long getWaitTimeoutCount() {
+    return waitTimeoutCount.sum();
+  }
+
+  public long getAverageWaitMillis() {
+    long borrows = borrowCount.sum() + waitTimeoutCount.sum();
+    return borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum() / borrows);
+  }
+
+  public long getMaxWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+  }
+
+  public int getIdleCount() {
+    return queues.values().stream()
+        .mapToInt(SessionQueue::getIdleCount)
+        .sum();
+  }
+
+  public int getTotalCount() {
+    return queues.values().stream()
+        .mapToInt(SessionQueue::getTotalCount)
+        .sum();
+  }
+
+  public String getStatsSummary() {
+    return "borrowed=" + getBorrowCount() +
+        ", created=" + getCreatedCount() +
+        ", evicted=" + getEvictedCount() +
+        ", waitTimeouts=" + getWaitTimeoutCount() +
+        ", avgWaitMillis=" + getAverageWaitMillis() +
+        ", maxWaitMillis=" + getMaxWaitMillis() +
+        ", idle=" + getIdleCount() +
+        ", total=" + getTotalCount();
+  }
+
+  @FunctionalInterface
+  public interface SessionFactory {
+
+    RteProtocolClient create() throws RteIOException, InterruptedException, TimeoutException;
+
+  }
+
+  private static class IdleSession {
+
+    private final RteProtocolClient client;
+    private final long idleSinceMillis;
+
+    private IdleSession(RteProtocolClient client) {
+      this.client = client;
+      this.idleSinceMillis = System.currentTimeMillis();
+    }
+
+  }
+
+  private static class SessionQueue {
+
+    // fair lock so threads waiting for a session are served in arrival order
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition sessionAvailable = lock.newCondition();
+    // most recently released sessions are kept first, so the oldest ones are the ones expiring
+    private final Deque<IdleSession> idle = new ArrayDeque<>();
+    private int total;
+
+    /*
+    Returns an idle session if available, or null if a new session may be created by the caller,
+    in which case a slot is reserved for it and has to be released if creation fails.
+     */
+    private RteProtocolClient acquire(int maxTotal, long maxWaitMillis)
+        throws InterruptedException, TimeoutException {
+      long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+      lock.lockInterruptibly();
+      try {
+        while (true) {
+          IdleSession session = idle.pollFirst();
+          if (session != null) {
+            return session.client;
+          }
+          if (maxTotal <= 0 || total < maxTotal) {
+            total++;
+            return null;
+          }
+          if (remainingNanos <= 0) {
+            throw new TimeoutException();
+          }
+          remainingNanos = sessionAvailable.awaitNanos(remainingNanos);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private boolean offer(RteProtocolClient client, int maxIdle) {
+      lock.lock();
+      try {
+        if (maxIdle > 0 && idle.size() >= maxIdle) {
+          return false;
+        }
+        idle.offerFirst(new IdleSession(client));
+        sessionAvailable.signal();
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void releaseSlot() {
+      lock.lock();
+      try {
+        total--;
+        sessionAvailable.signal();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private List<RteProtocolClient> removeIdleSince(long limitMillis) {
+      lock.lock();
+      try {
+        List<RteProtocolClient> ret = new ArrayList<>();
+        while (!idle.isEmpty() && idle.peekLast().idleSinceMillis < limitMillis) {
+          ret.add(idle.pollLast().client);
+          total--;
+        }
+        if (!ret.isEmpty()) {
+          sessionAvailable.signalAll();
+        }
+        return ret;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private List<RteProtocolClient> drainIdle() {
+      lock.lock();
+      try {
+        if (idle.isEmpty()) {
+          return Collections.emptyList();
+        }
+        List<RteProtocolClient> ret = new ArrayList<>();
+        while (!idle.isEmpty()) {
+          ret.add(idle.pollFirst().client);
+          total--;
+        }
+        sessionAvailable.signalAll();
+        return ret;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int getIdleCount() {
+      lock.lock();
+      try {
+        return idle.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private int getTotalCount() {
+      lock.lock();
+      try {
+        return total;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+  }
+
+}
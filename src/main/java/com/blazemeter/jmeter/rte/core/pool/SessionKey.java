@@ -0,0 +1,76 @@
+package com.blazemeter.jmeter.rte.core.pool;
+
+import com.blazemeter.jmeter.rte.core.Protocol;
+import com.blazemeter.jmeter.rte.core.TerminalType;
+import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import java.util.Objects;
+
+/**
+ * Identifies sessions which are interchangeable, i.e. that have been established with the same
+ * server, port, protocol, terminal type and SSL type.
+ */
+public class SessionKey {
+
+  private final String server;
+  private final int port;
+  private final Protocol protocol;
+  private final TerminalType terminalType;
+  private final SSLType sslType;
+
+  public SessionKey(String server, int port, Protocol protocol, TerminalType terminalType,
+      SSLType sslType) {
+    this.server = server;
+    this.port = port;
+    this.protocol = protocol;
+    this.terminalType = terminalType;
+    this.sslType = sslType;
+  }
+
+  public String getServer() {
+    return server;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public Protocol getProtocol() {
+    return protocol;
+  }
+
+  public TerminalType getTerminalType() {
+    return terminalType;
+  }
+
+  public SSLType getSslType() {
+    return sslType;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SessionKey that = (SessionKey) o;
+    return port == that.port &&
+        Objects.equals(server, that.server) &&
+        protocol == that.protocol &&
+        Objects.equals(terminalType, that.terminalType) &&
+        sslType == that.sslType;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(server, port, protocol, terminalType, sslType);
+  }
+
+  @Override
+  public String toString() {
+    return server + ":" + port + "[" + protocol + ", " + (terminalType != null
+        ? terminalType.getId() : null) + ", " + sslType + "]";
+  }
+
+}
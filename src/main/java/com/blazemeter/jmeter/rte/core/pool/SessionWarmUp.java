@@ -0,0 +1,119 @@
+package com.blazemeter.jmeter.rte.core.pool;
+
+import com.blazemeter.jmeter.rte.core.RteProtocolClient;
+import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
+import com.blazemeter.jmeter.rte.core.pool.RteSessionPool.SessionFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Establishes sessions before threads run their first sample, so connection time and the load
+ * caused by many threads connecting at once do not affect measured samples.
+ *
+ * <p>Warm up connections to each server go through an engine wide token bucket, with capacity for
+ * one connection and refilled at the configured rate, so they are evenly spaced instead of all
+ * hitting the server when threads start. Time spent warming up sessions is tracked apart from
+ * samples.
+ */
+public class SessionWarmUp {
+
+  private final long intervalNanos;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  private final LongAdder warmedUpCount = new LongAdder();
+  private final LongAdder failedCount = new LongAdder();
+  private final LongAdder totalWarmUpNanos = new LongAdder();
+  private final AtomicLong maxWarmUpNanos = new AtomicLong();
+  private final LongAdder totalThrottleNanos = new LongAdder();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param connectsPerSecond maximum number of warm up connections per second to each server.
+   * Zero or negative values mean no limit.
+   */
+  public SessionWarmUp(int connectsPerSecond) {
+    this.intervalNanos = connectsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / connectsPerSecond
+        : 0;
+  }
+
+  public RteProtocolClient warmUp(String server, SessionFactory factory)
+      throws RteIOException, InterruptedException, TimeoutException {
+    throttle(server);
+    long startNanos = System.nanoTime();
+    boolean warmedUp = false;
+    try {
+      RteProtocolClient ret = factory.create();
+      warmedUp = true;
+      return ret;
+    } finally {
+      long warmUpNanos = System.nanoTime() - startNanos;
+      if (warmedUp) {
+        warmedUpCount.increment();
+        totalWarmUpNanos.add(warmUpNanos);
+        maxWarmUpNanos.accumulateAndGet(warmUpNanos, Math::max);
+      } else {
+        failedCount.increment();
+      }
+    }
+  }
+
+  private void throttle(String server) throws InterruptedException {
+    if (intervalNanos == 0) {
+      return;
+    }
+    long waitNanos = buckets.computeIfAbsent(server, s -> new TokenBucket()).reserve();
+    totalThrottleNanos.add(waitNanos);
+    TimeUnit.NANOSECONDS.sleep(waitNanos);
+  }
+
+  public long getWarmedUpCount() {
+    return warmedUpCount.sum();
+  }
+
+  public long getFailedCount() {
+    return failedCount.sum();
+  }
+
+  public long getAverageWarmUpMillis() {
+    long warmedUp = warmedUpCount.sum();
+    return warmedUp == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWarmUpNanos.sum() / warmedUp);
+  }
+
+  public long getMaxWarmUpMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(maxWarmUpNanos.get());
+  }
+
+  public long getAverageThrottleMillis() {
+    long attempts = warmedUpCount.sum() + failedCount.sum();
+    return attempts == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalThrottleNanos.sum() / attempts);
+  }
+
+  public String getStatsSummary() {
+    return "warmedUp=" + getWarmedUpCount() +
+        ", failed=" + getFailedCount() +
+        ", avgWarmUpMillis=" + getAverageWarmUpMillis() +
+        ", maxWarmUpMillis=" + getMaxWarmUpMillis() +
+        ", avgThrottleMillis=" + getAverageThrottleMillis();
+  }
+
+  private class TokenBucket {
+
+    private long nextTokenNanos = System.nanoTime();
+
+    /*
+    Takes the next available token and returns the time to wait until it is available.
+     */
+    private synchronized long reserve() {
+      long now = System.nanoTime();
+      long tokenNanos = nextTokenNanos - now > 0 ? nextTokenNanos : now;
+      nextTokenNanos = tokenNanos + intervalNanos;
+      return tokenNanos - now;
+    }
+
+  }
+
+}
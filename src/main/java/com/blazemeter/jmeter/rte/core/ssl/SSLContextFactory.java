@@ -7,22 +7,45 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.KeyStore;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509TrustManager;
 import org.apache.jmeter.util.CustomX509TrustManager;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides SSL contexts for protocol clients.
+ *
+ * <p>Contexts are cached per {@link SSLType} and key store and trust store files, passwords and
+ * modification times, so they are shared by all the connections of a test. This avoids reloading
+ * stores for every connection and, since TLS sessions are cached per context, allows resuming
+ * previous sessions instead of doing a full handshake on each connection.
+ */
 public class SSLContextFactory {
 
+  private static final Logger LOG = LoggerFactory.getLogger(SSLContextFactory.class);
+
   private static final String KEY_STORE_PROPERTY = "javax.net.ssl.keyStore";
   private static final String KEY_STORE_PASSWORD_PROPERTY = "javax.net.ssl.keyStorePassword";
   private static final String TRUST_STORE_PROPERTY = "javax.net.ssl.trustStore";
   private static final String TRUST_STORE_PASSWORD_PROPERTY = "javax.net.ssl.trustStorePassword";
 
   private static final SecureRandom RAND = new SecureRandom();
+  private static final Map<List<Object>, SSLContext> CONTEXTS = new ConcurrentHashMap<>();
+  private static final LongAdder CONTEXT_HITS = new LongAdder();
+  private static final LongAdder CONTEXT_MISSES = new LongAdder();
+  private static final LongAdder RESUMED_HANDSHAKES = new LongAdder();
+  private static final LongAdder FULL_HANDSHAKES = new LongAdder();
 
   private SSLContextFactory() {
 
@@ -54,7 +77,88 @@ public class SSLContextFactory {
     return System.getProperty(TRUST_STORE_PASSWORD_PROPERTY);
   }
 
-  public static SSLContext buildSSLContext(SSLType sslType)
+  /**
+   * Gets the SSL context for the given type and current key store and trust store, building it
+   * only if no context has been built yet for them.
+   *
+   * @param sslType type of SSL protocol of the context.
+   * @return the cached context, or a new one when no cached context is found.
+   * @throws GeneralSecurityException when the context can't be initialized with the stores.
+   * @throws IOException when the stores can't be loaded.
+   */
+  public static SSLContext getSSLContext(SSLType sslType)
+      throws GeneralSecurityException, IOException {
+    List<Object> key = Arrays.asList(sslType, getStoreFingerprint(getKeyStore()),
+        getKeyStorePassword(), getStoreFingerprint(getTrustStore()), getTrustStorePassword());
+    SSLContext context = CONTEXTS.get(key);
+    if (context == null) {
+      synchronized (CONTEXTS) {
+        context = CONTEXTS.get(key);
+        if (context == null) {
+          CONTEXT_MISSES.increment();
+          context = buildSSLContext(sslType);
+          CONTEXTS.put(key, context);
+          return context;
+        }
+      }
+    }
+    CONTEXT_HITS.increment();
+    return context;
+  }
+
+  /*
+  Modification time and length are included to build a new context when a store file is replaced
+  between tests.
+   */
+  private static String getStoreFingerprint(String storeFileName) {
+    if (storeFileName == null) {
+      return null;
+    }
+    File storeFile = new File(storeFileName);
+    return storeFile.getAbsolutePath() + ":" + storeFile.lastModified() + ":" + storeFile.length();
+  }
+
+  /**
+   * Records the result of a TLS handshake to keep track of resumed sessions.
+   *
+   * @param session the session established by the handshake.
+   * @param handshakeStartMillis time in millis when the handshake started. Sessions created before
+   * this time have been resumed.
+   */
+  public static void recordHandshake(SSLSession session, long handshakeStartMillis) {
+    if (session.getCreationTime() < handshakeStartMillis) {
+      RESUMED_HANDSHAKES.increment();
+    } else {
+      FULL_HANDSHAKES.increment();
+    }
+  }
+
+  public static String getStatsSummary() {
+    return "contextHits=" + CONTEXT_HITS.sum() +
+        ", contextMisses=" + CONTEXT_MISSES.sum() +
+        ", resumedHandshakes=" + RESUMED_HANDSHAKES.sum() +
+        ", fullHandshakes=" + FULL_HANDSHAKES.sum();
+  }
+
+  /**
+   * Logs the cache and handshake counters, if any context has been requested, and resets them.
+   */
+  public static void logAndResetStats() {
+    if (CONTEXT_HITS.sum() + CONTEXT_MISSES.sum() > 0) {
+      LOG.info("SSL context stats: {}", getStatsSummary());
+    }
+    CONTEXT_HITS.reset();
+    CONTEXT_MISSES.reset();
+    RESUMED_HANDSHAKES.reset();
+    FULL_HANDSHAKES.reset();
+  }
+
+  @VisibleForTesting
+  public static void clearCache() {
+    CONTEXTS.clear();
+  }
+
+  private static SSLContext buildSSLContext(SSLType sslType)
       throws GeneralSecurityException, IOException {
     SSLContext context = SSLContext.getInstance(sslType.toString());
     KeyManager[] keyManagers = buildKeyManagerFactory().getKeyManagers();
@@ -79,11 +183,15 @@ public class SSLContextFactory {
 
   private static KeyStore buildKeyStore(String storeFileName, String pass)
       throws GeneralSecurityException, IOException {
-    FileInputStream storeInputStream = storeFileName != null && new File(storeFileName).exists()
-        ? new FileInputStream(storeFileName)
-        : null;
     KeyStore store = KeyStore.getInstance(KeyStore.getDefaultType());
-    store.load(storeInputStream, pass == null ? null : pass.toCharArray());
+    char[] password = pass == null ? null : pass.toCharArray();
+    if (storeFileName != null && new File(storeFileName).exists()) {
+      try (FileInputStream storeInputStream = new FileInputStream(storeFileName)) {
+        store.load(storeInputStream, password);
+      }
+    } else {
+      store.load(null, password);
+    }
     return store;
   }
 
@@ -0,0 +1,162 @@
+package com.blazemeter.jmeter.rte.core.store;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.Segment;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Append only file of screens, where each distinct screen is stored once and identified by the
+ * hash of its content.
+ *
+ * <p>Sample results only need to carry the returned reference instead of the whole screen, which
+ * greatly reduces result files size when same screens are visited many times. Stored screens can
+ * be later resolved with {@link ScreenStoreReader}.
+ *
+ * <p>Each record in the file consists of the screen hash (as written by
+ * {@link DataOutputStream#writeUTF(String)}), the length of the compressed screen and the deflate
+ * compressed screen (size and segments with their text and attributes).
+ */
+public class ScreenStore implements Closeable {
+
+  public static final String SCREEN_REFERENCE_PREFIX = "rte-screen:";
+  private static final String HASH_ALGORITHM = "SHA-256";
+
+  private final File file;
+  private final Set<String> storedHashes = ConcurrentHashMap.newKeySet();
+  private final DataOutputStream output;
+  private final LongAdder storedCount = new LongAdder();
+  private final LongAdder deduplicatedCount = new LongAdder();
+
+  /**
+   * Opens a store, appending to given file if it already exists.
+   *
+   * <p>Screens already stored in an existing file are not written again.
+   *
+   * @param file file where to store screens.
+   * @throws IOException if there is some problem reading existing file or opening it for writing.
+   */
+  public ScreenStore(File file) throws IOException {
+    this.file = file;
+    if (file.exists()) {
+      storedHashes.addAll(new ScreenStoreReader(file).getHashes());
+    }
+    output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Stores a screen if not already stored.
+   *
+   * @param screen the screen to store.
+   * @return the reference to include in sample results to later resolve the screen with
+   * {@link ScreenStoreReader}.
+   * @throws IOException if there is some problem writing to the file.
+   */
+  public String store(Screen screen) throws IOException {
+    byte[] content = encode(screen);
+    String hash = hash(content);
+    if (storedHashes.add(hash)) {
+      write(hash, content);
+      storedCount.increment();
+    } else {
+      deduplicatedCount.increment();
+    }
+    return SCREEN_REFERENCE_PREFIX + hash;
+  }
+
+  static byte[] encode(Screen screen) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(screen.getSize().height);
+      out.writeInt(screen.getSize().width);
+      out.writeInt(screen.getSegments().size());
+      for (Segment segment : screen.getSegments()) {
+        out.writeInt(Screen.buildLinealPosition(segment.getStartPosition(),
+            screen.getSize().width));
+        out.writeUTF(segment.getText());
+        out.writeBoolean(segment.isEditable());
+        out.writeBoolean(segment.isSecret());
+        out.writeBoolean(segment.getColor() != null);
+        out.writeInt(segment.getColor() != null ? segment.getColor().getRGB() : 0);
+      }
+    } catch (IOException e) {
+      // this should never happen since we are writing to memory
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static String hash(byte[] content) {
+    try {
+      byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM).digest(content);
+      StringBuilder ret = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        ret.append(Character.forDigit((b >> 4) & 0xF, 16))
+            .append(Character.forDigit(b & 0xF, 16));
+      }
+      return ret.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // every java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void write(String hash, byte[] content) throws IOException {
+    byte[] compressed = compress(content);
+    synchronized (output) {
+      output.writeUTF(hash);
+      output.writeInt(compressed.length);
+      output.write(compressed);
+      // flush each record so readers can resolve the screen while the test is still running
+      output.flush();
+    }
+  }
+
+  private static byte[] compress(byte[] content) throws IOException {
+    ByteArrayOutputStream ret = new ByteArrayOutputStream();
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try (DeflaterOutputStream out = new DeflaterOutputStream(ret, deflater)) {
+      out.write(content);
+    } finally {
+      deflater.end();
+    }
+    return ret.toByteArray();
+  }
+
+  public long getStoredCount() {
+    return storedCount.sum();
+  }
+
+  public long getDeduplicatedCount() {
+    return deduplicatedCount.sum();
+  }
+
+  public String getStatsSummary() {
+    return "stored=" + getStoredCount() + ", deduplicated=" + getDeduplicatedCount();
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (output) {
+      output.close();
+    }
+  }
+
+}
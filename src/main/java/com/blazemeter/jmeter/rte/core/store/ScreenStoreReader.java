@@ -0,0 +1,131 @@
+package com.blazemeter.jmeter.rte.core.store;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.Segment;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Resolves screens stored by {@link ScreenStore}.
+ *
+ * <p>The file is indexed incrementally, so screens appended after the reader has been created
+ * (e.g.: while a test is still running) can be resolved as well.
+ */
+public class ScreenStoreReader {
+
+  private final File file;
+  private final Map<String, Long> recordOffsets = new HashMap<>();
+  private long indexedLength;
+
+  public ScreenStoreReader(File file) {
+    this.file = file;
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  public static boolean isScreenReference(String responseData) {
+    return responseData != null && responseData.startsWith(ScreenStore.SCREEN_REFERENCE_PREFIX);
+  }
+
+  /**
+   * Gets a stored screen.
+   *
+   * @param reference the reference returned by {@link ScreenStore#store(Screen)} or just the hash
+   * of the screen.
+   * @return the stored screen, or empty if no screen is stored with given reference.
+   * @throws IOException if there is some problem reading the file.
+   */
+  public synchronized Optional<Screen> getScreen(String reference) throws IOException {
+    String hash = isScreenReference(reference)
+        ? reference.substring(ScreenStore.SCREEN_REFERENCE_PREFIX.length()).trim() : reference;
+    Long offset = recordOffsets.get(hash);
+    if (offset == null) {
+      updateIndex();
+      offset = recordOffsets.get(hash);
+      if (offset == null) {
+        return Optional.empty();
+      }
+    }
+    try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+      in.seek(offset);
+      in.readUTF();
+      byte[] compressed = new byte[in.readInt()];
+      in.readFully(compressed);
+      return Optional.of(decode(compressed));
+    }
+  }
+
+  public synchronized Set<String> getHashes() throws IOException {
+    updateIndex();
+    return new HashSet<>(recordOffsets.keySet());
+  }
+
+  private void updateIndex() throws IOException {
+    if (!file.exists()) {
+      return;
+    }
+    try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+      long length = in.length();
+      in.seek(indexedLength);
+      while (in.getFilePointer() < length) {
+        long recordOffset = in.getFilePointer();
+        String hash;
+        int compressedLength;
+        try {
+          hash = in.readUTF();
+          compressedLength = in.readInt();
+        } catch (EOFException e) {
+          // record is still being written
+          return;
+        }
+        long recordEnd = in.getFilePointer() + compressedLength;
+        if (recordEnd > length) {
+          return;
+        }
+        recordOffsets.put(hash, recordOffset);
+        in.seek(recordEnd);
+        indexedLength = recordEnd;
+      }
+    }
+  }
+
+  private static Screen decode(byte[] compressed) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+      int height = in.readInt();
+      int width = in.readInt();
+      Screen ret = new Screen(new Dimension(width, height));
+      int segmentsCount = in.readInt();
+      for (int i = 0; i < segmentsCount; i++) {
+        Segment.SegmentBuilder segment = new Segment.SegmentBuilder()
+            .withLinealPosition(in.readInt())
+            .withText(in.readUTF());
+        if (in.readBoolean()) {
+          segment.withEditable();
+        }
+        if (in.readBoolean()) {
+          segment.withSecret();
+        }
+        boolean hasColor = in.readBoolean();
+        int rgb = in.readInt();
+        ret.addSegment(segment.withColor(hasColor ? new Color(rgb) : null));
+      }
+      return ret;
+    }
+  }
+
+}
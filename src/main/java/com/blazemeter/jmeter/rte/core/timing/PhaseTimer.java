@@ -0,0 +1,59 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the time when each phase of a sample ends.
+ *
+ * <p>Phases may be marked from emulators threads, and only the first mark of each phase is kept,
+ * since later marks correspond to further screens or waits which are not part of the phase.
+ */
+public class PhaseTimer {
+
+  private final long startTime;
+  private final Map<SamplePhase, Long> endTimes = new EnumMap<>(SamplePhase.class);
+
+  public PhaseTimer(long startTime) {
+    this.startTime = startTime;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public synchronized void mark(SamplePhase phase) {
+    endTimes.putIfAbsent(phase, System.currentTimeMillis());
+  }
+
+  public synchronized boolean isMarked(SamplePhase phase) {
+    return endTimes.containsKey(phase);
+  }
+
+  /**
+   * Gets the duration of each marked phase in the order they ended.
+   *
+   * <p>Each phase duration is measured from the end of the previous phase (or the sample start
+   * for the first one), so durations add up to the time of the last phase end.
+   *
+   * @return the duration in millis of each marked phase, in the order they ended.
+   */
+  public synchronized Map<SamplePhase, Long> getDurations() {
+    List<Map.Entry<SamplePhase, Long>> ends = new ArrayList<>(endTimes.entrySet());
+    // sort is stable, so phases ended at same millisecond keep the natural order
+    ends.sort(Comparator.comparing(Map.Entry::getValue));
+    Map<SamplePhase, Long> ret = new LinkedHashMap<>();
+    long previousEnd = startTime;
+    for (Map.Entry<SamplePhase, Long> end : ends) {
+      long endTime = Math.max(end.getValue(), previousEnd);
+      ret.put(end.getKey(), endTime - previousEnd);
+      previousEnd = endTime;
+    }
+    return ret;
+  }
+
+}
@@ -0,0 +1,31 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+import com.blazemeter.jmeter.rte.core.RteProtocolClient;
+import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
+
+/**
+ * Marks when the first screen is received and when the keyboard is unlocked afterwards.
+ */
+public class PhaseTimingListener implements TerminalStateListener {
+
+  private final RteProtocolClient client;
+  private final PhaseTimer phaseTimer;
+
+  public PhaseTimingListener(RteProtocolClient client, PhaseTimer phaseTimer) {
+    this.client = client;
+    this.phaseTimer = phaseTimer;
+  }
+
+  @Override
+  public void onTerminalStateChange() {
+    phaseTimer.mark(SamplePhase.FIRST_SCREEN);
+    if (!phaseTimer.isMarked(SamplePhase.UNLOCK) && !client.isInputInhibited().orElse(true)) {
+      phaseTimer.mark(SamplePhase.UNLOCK);
+    }
+  }
+
+  @Override
+  public void onException(Throwable e) {
+  }
+
+}
@@ -0,0 +1,158 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+import com.blazemeter.jmeter.rte.core.ssl.SSLContextFactory;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.util.function.Consumer;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+class PhaseTimingSocket extends Socket {
+
+  private final SSLSocketFactory sslSocketFactory;
+  private final Consumer<SamplePhase> phaseListener;
+  private final TrafficListener trafficListener;
+  private volatile SSLSocket sslSocket;
+
+  PhaseTimingSocket(SSLSocketFactory sslSocketFactory, Consumer<SamplePhase> phaseListener,
+      TrafficListener trafficListener) {
+    this.sslSocketFactory = sslSocketFactory;
+    this.phaseListener = phaseListener;
+    this.trafficListener = trafficListener;
+  }
+
+  @Override
+  public void connect(SocketAddress endpoint, int timeout) throws IOException {
+    super.connect(endpoint, timeout);
+    phaseListener.accept(SamplePhase.CONNECT);
+    if (sslSocketFactory != null) {
+      startTls((InetSocketAddress) endpoint, timeout);
+      phaseListener.accept(SamplePhase.TLS_HANDSHAKE);
+    }
+  }
+
+  private void startTls(InetSocketAddress endpoint, int timeout) throws IOException {
+    SSLSocket socket = (SSLSocket) sslSocketFactory.createSocket(this, endpoint.getHostString(),
+        endpoint.getPort(), true);
+    // avoid hanging forever on handshake when server does not answer
+    int soTimeout = getSoTimeout();
+    setSoTimeout(timeout);
+    long handshakeStart = System.currentTimeMillis();
+    try {
+      socket.startHandshake();
+    } finally {
+      setSoTimeout(soTimeout);
+    }
+    SSLContextFactory.recordHandshake(socket.getSession(), handshakeStart);
+    sslSocket = socket;
+  }
+
+  /*
+  When TLS is used, the ssl socket layered over this one gets its streams (to read and write
+  encrypted records) before it is assigned, so such streams are not counted, and only the
+  decrypted streams provided after the handshake are.
+   */
+  @Override
+  public InputStream getInputStream() throws IOException {
+    if (sslSocketFactory == null) {
+      return new CountingInputStream(super.getInputStream());
+    }
+    SSLSocket socket = sslSocket;
+    return socket != null ? new CountingInputStream(socket.getInputStream())
+        : super.getInputStream();
+  }
+
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    if (sslSocketFactory == null) {
+      return new CountingOutputStream(super.getOutputStream());
+    }
+    SSLSocket socket = sslSocket;
+    return socket != null ? new CountingOutputStream(socket.getOutputStream())
+        : super.getOutputStream();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    /*
+     ssl socket is created with auto close, so it closes this socket as well. Reference is cleared
+     first to avoid closing the ssl socket again in such case.
+     */
+    SSLSocket socket = sslSocket;
+    sslSocket = null;
+    try {
+      if (socket != null) {
+        socket.close();
+      }
+    } finally {
+      super.close();
+    }
+  }
+
+  /*
+  Bytes are counted over decrypted streams when TLS is used, so counts are application level bytes
+  (including telnet negotiation) and exclude TLS records overhead.
+   */
+  private class CountingInputStream extends FilterInputStream {
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int ret = super.read();
+      if (ret >= 0) {
+        trafficListener.bytesReceived(1);
+      }
+      return ret;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int ret = super.read(b, off, len);
+      if (ret > 0) {
+        trafficListener.bytesReceived(ret);
+      }
+      return ret;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long ret = super.skip(n);
+      if (ret > 0) {
+        trafficListener.bytesReceived((int) ret);
+      }
+      return ret;
+    }
+
+  }
+
+  private class CountingOutputStream extends FilterOutputStream {
+
+    private CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      trafficListener.bytesSent(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      // avoid default FilterOutputStream implementation which writes byte by byte
+      out.write(b, off, len);
+      trafficListener.bytesSent(len);
+    }
+
+  }
+
+}
@@ -0,0 +1,69 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.function.Consumer;
+import javax.net.SocketFactory;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Socket factory which notifies when TCP connection and TLS handshake phases end, and bytes
+ * transferred through created sockets.
+ *
+ * <p>When an SSL socket factory is provided, TLS is layered over the plain socket right after
+ * connecting, instead of delegating socket creation to the SSL socket factory, so TCP connection
+ * and TLS handshake can be timed separately.
+ */
+public class PhaseTimingSocketFactory extends SocketFactory {
+
+  private final SSLSocketFactory sslSocketFactory;
+  private final Consumer<SamplePhase> phaseListener;
+  private final TrafficListener trafficListener;
+
+  public PhaseTimingSocketFactory(SSLSocketFactory sslSocketFactory,
+      Consumer<SamplePhase> phaseListener, TrafficListener trafficListener) {
+    this.sslSocketFactory = sslSocketFactory;
+    this.phaseListener = phaseListener;
+    this.trafficListener = trafficListener;
+  }
+
+  @Override
+  public Socket createSocket() {
+    return new PhaseTimingSocket(sslSocketFactory, phaseListener, trafficListener);
+  }
+
+  @Override
+  public Socket createSocket(String host, int port) throws IOException {
+    Socket ret = createSocket();
+    ret.connect(new InetSocketAddress(host, port));
+    return ret;
+  }
+
+  @Override
+  public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+      throws IOException {
+    Socket ret = createSocket();
+    ret.bind(new InetSocketAddress(localHost, localPort));
+    ret.connect(new InetSocketAddress(host, port));
+    return ret;
+  }
+
+  @Override
+  public Socket createSocket(InetAddress host, int port) throws IOException {
+    Socket ret = createSocket();
+    ret.connect(new InetSocketAddress(host, port));
+    return ret;
+  }
+
+  @Override
+  public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+      int localPort) throws IOException {
+    Socket ret = createSocket();
+    ret.bind(new InetSocketAddress(localAddress, localPort));
+    ret.connect(new InetSocketAddress(address, port));
+    return ret;
+  }
+
+}
@@ -0,0 +1,25 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+/**
+ * Phases of a sample which are timed to identify where sample time is spent.
+ */
+public enum SamplePhase {
+  CONNECT("connect"),
+  TLS_HANDSHAKE("tls-handshake"),
+  NEGOTIATION("negotiation"),
+  SEND("send"),
+  FIRST_SCREEN("first-screen"),
+  UNLOCK("unlock"),
+  STABLE("stable");
+
+  private final String label;
+
+  SamplePhase(String label) {
+    this.label = label;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+}
@@ -0,0 +1,12 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+/**
+ * Listener notified of bytes read from and written to a connection socket.
+ */
+public interface TrafficListener {
+
+  void bytesReceived(int count);
+
+  void bytesSent(int count);
+
+}
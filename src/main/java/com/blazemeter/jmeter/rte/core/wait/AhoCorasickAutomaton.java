@@ -0,0 +1,134 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton which finds all occurrences of a set of literal texts in a single pass
+ * over a text, no matter the number of texts.
+ *
+ * <p>Once built the automaton is immutable, so it can be shared by several threads.
+ */
+public class AhoCorasickAutomaton {
+
+  private static final int ROOT = 0;
+  private static final int[] NO_PATTERNS = new int[0];
+
+  private final int[] patternLengths;
+  // transitions of each state, indexed by char
+  private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+  private final int[] failures;
+  // patterns which end in each state, including the ones ending in its failure states
+  private final int[][] outputs;
+
+  public AhoCorasickAutomaton(List<String> patterns) {
+    patternLengths = new int[patterns.size()];
+    List<List<Integer>> stateOutputs = new ArrayList<>();
+    addState(stateOutputs);
+    for (int i = 0; i < patterns.size(); i++) {
+      String pattern = patterns.get(i);
+      if (pattern.isEmpty()) {
+        throw new IllegalArgumentException("Empty texts are not supported");
+      }
+      patternLengths[i] = pattern.length();
+      int state = ROOT;
+      for (char c : pattern.toCharArray()) {
+        Integer next = transitions.get(state).get(c);
+        if (next == null) {
+          next = addState(stateOutputs);
+          transitions.get(state).put(c, next);
+        }
+        state = next;
+      }
+      stateOutputs.get(state).add(i);
+    }
+    failures = new int[transitions.size()];
+    outputs = new int[transitions.size()][];
+    buildFailures(stateOutputs);
+  }
+
+  private int addState(List<List<Integer>> stateOutputs) {
+    transitions.add(new HashMap<>());
+    stateOutputs.add(new ArrayList<>());
+    return transitions.size() - 1;
+  }
+
+  /*
+  States are visited in breadth first order, so failure states (which are always shallower) are
+  resolved before the states pointing to them.
+   */
+  private void buildFailures(List<List<Integer>> stateOutputs) {
+    outputs[ROOT] = toArray(stateOutputs.get(ROOT));
+    Queue<Integer> pending = new ArrayDeque<>();
+    for (int child : transitions.get(ROOT).values()) {
+      failures[child] = ROOT;
+      pending.add(child);
+    }
+    while (!pending.isEmpty()) {
+      int state = pending.remove();
+      List<Integer> stateOutput = stateOutputs.get(state);
+      int[] failureOutput = outputs[failures[state]];
+      int[] output = Arrays.copyOf(toArray(stateOutput), stateOutput.size()
+          + failureOutput.length);
+      System.arraycopy(failureOutput, 0, output, stateOutput.size(), failureOutput.length);
+      outputs[state] = output;
+      for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+        int child = transition.getValue();
+        failures[child] = findNextState(failures[state], transition.getKey());
+        pending.add(child);
+      }
+    }
+  }
+
+  private static int[] toArray(List<Integer> values) {
+    return values.isEmpty() ? NO_PATTERNS : values.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private int findNextState(int state, char c) {
+    while (true) {
+      Integer next = transitions.get(state).get(c);
+      if (next != null) {
+        return next;
+      }
+      if (state == ROOT) {
+        return ROOT;
+      }
+      state = failures[state];
+    }
+  }
+
+  /**
+   * Finds all the occurrences of the patterns in the given text.
+   *
+   * @param text the text to search in.
+   * @param listener listener notified of each occurrence, in order of occurrence end.
+   */
+  public void search(CharSequence text, MatchListener listener) {
+    int state = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      state = findNextState(state, text.charAt(i));
+      for (int pattern : outputs[state]) {
+        listener.onMatch(pattern, i - patternLengths[pattern] + 1);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  public interface MatchListener {
+
+    /**
+     * Notifies an occurrence of a pattern.
+     *
+     * @param pattern index of the pattern in the list provided to the automaton.
+     * @param start index in text where the pattern occurrence starts.
+     */
+    void onMatch(int pattern, int start);
+
+  }
+
+}
@@ -0,0 +1,106 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Waits for a group of conditions which are evaluated concurrently against a single deadline.
+ *
+ * <p>All waiters start listening at the same time, and each condition timeout is measured from
+ * the moment the composite wait starts, so the whole wait never takes longer than the longest
+ * timeout. Depending on the {@link WaitMode} the wait ends when all the conditions are met or as
+ * soon as any of them is met.
+ */
+public class CompositeConditionWaiter {
+
+  private final List<ConditionWaiter<?>> waiters;
+  private final WaitMode waitMode;
+  private final CountDownLatch anyEnded = new CountDownLatch(1);
+  private final List<WaitCondition> completedConditions = new ArrayList<>();
+
+  public CompositeConditionWaiter(List<ConditionWaiter<?>> waiters, WaitMode waitMode) {
+    this.waiters = waiters;
+    this.waitMode = waitMode;
+    waiters.forEach(w -> w.setEndListener(this::onWaiterEnd));
+  }
+
+  private synchronized void onWaiterEnd(ConditionWaiter<?> waiter) {
+    if (waiter.isCompleted()) {
+      completedConditions.add(waiter.getCompletedCondition());
+    }
+    anyEnded.countDown();
+  }
+
+  /**
+   * Waits for the conditions according to the wait mode.
+   *
+   * @return the met conditions, in the order they were met, as reported by
+   * {@link ConditionWaiter#getCompletedCondition()}.
+   * @throws TimeoutException when the conditions are not met in time.
+   */
+  public List<WaitCondition> await()
+      throws InterruptedException, TimeoutException, RteIOException {
+    if (waiters.isEmpty()) {
+      return Collections.emptyList();
+    }
+    long startNanos = System.nanoTime();
+    if (waitMode == WaitMode.ANY) {
+      awaitAny(startNanos);
+    } else {
+      awaitAll(startNanos);
+    }
+    return getCompletedConditions();
+  }
+
+  private void awaitAll(long startNanos)
+      throws InterruptedException, TimeoutException, RteIOException {
+    for (ConditionWaiter<?> waiter : waiters) {
+      waiter.await(getRemainingMillis(startNanos, waiter.getCondition().getTimeoutMillis()));
+    }
+  }
+
+  private long getRemainingMillis(long startNanos, long timeoutMillis) {
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    return Math.max(0, timeoutMillis - elapsedMillis);
+  }
+
+  private void awaitAny(long startNanos)
+      throws InterruptedException, TimeoutException, RteIOException {
+    long timeoutMillis = waiters.stream()
+        .mapToLong(w -> w.getCondition().getTimeoutMillis())
+        .max()
+        .orElse(0);
+    if (!anyEnded.await(getRemainingMillis(startNanos, timeoutMillis), TimeUnit.MILLISECONDS)) {
+      throw new TimeoutException("Timeout waiting for any of " + getDescription() + " after "
+          + timeoutMillis + " millis. Check if Timeout values of the 'Wait for' components are "
+          + "greater than Stable time or Silent interval.");
+    }
+    if (getCompletedConditions().isEmpty()) {
+      // the wait was cancelled by an error, which is thrown by any of the waiters
+      for (ConditionWaiter<?> waiter : waiters) {
+        waiter.await(0);
+      }
+    }
+  }
+
+  private String getDescription() {
+    return waiters.stream()
+        .map(w -> w.getCondition().getDescription())
+        .collect(Collectors.joining(", "));
+  }
+
+  private synchronized List<WaitCondition> getCompletedConditions() {
+    return new ArrayList<>(completedConditions);
+  }
+
+  public void stop() {
+    waiters.forEach(ConditionWaiter::stop);
+  }
+
+}
@@ -3,11 +3,13 @@ package com.blazemeter.jmeter.rte.core.wait;
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
 import com.blazemeter.jmeter.rte.core.listener.ExceptionListener;
+import com.blazemeter.jmeter.rte.core.monitor.RteEngineMonitor;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +24,10 @@ public abstract class ConditionWaiter<T extends WaitCondition> implements Except
   private ExceptionHandler exceptionHandler;
   private ScheduledFuture stableTimeoutTask;
   private boolean ended;
+  private boolean completed;
+  private WaitCondition stablePeriodCondition;
+  private WaitCondition completedCondition;
+  private Consumer<ConditionWaiter<?>> endListener;
 
   public ConditionWaiter(T condition, ScheduledExecutorService stableTimeoutExecutor,
       ExceptionHandler exceptionHandler) {
@@ -29,6 +35,11 @@ public abstract class ConditionWaiter<T extends WaitCondition> implements Except
     this.stableTimeoutExecutor = stableTimeoutExecutor;
     this.exceptionHandler = exceptionHandler;
     exceptionHandler.addListener(this);
+    RteEngineMonitor.getInstance().waitStarted(getConditionType());
+  }
+
+  private String getConditionType() {
+    return condition.getClass().getSimpleName();
   }
 
   private synchronized void startStablePeriod() {
@@ -36,8 +47,31 @@ public abstract class ConditionWaiter<T extends WaitCondition> implements Except
       return;
     }
     endStablePeriod();
+    stablePeriodCondition = buildCompletedCondition();
     stableTimeoutTask = stableTimeoutExecutor
-        .schedule(lock::countDown, condition.getStableTimeoutMillis(), TimeUnit.MILLISECONDS);
+        .schedule(this::complete, condition.getStableTimeoutMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private void complete() {
+    Consumer<ConditionWaiter<?>> listener;
+    synchronized (this) {
+      if (ended) {
+        return;
+      }
+      ended = true;
+      completed = true;
+      completedCondition = stablePeriodCondition;
+      RteEngineMonitor.getInstance().waitEnded(getConditionType());
+      lock.countDown();
+      listener = endListener;
+    }
+    notifyEnd(listener);
+  }
+
+  private void notifyEnd(Consumer<ConditionWaiter<?>> listener) {
+    if (listener != null) {
+      listener.accept(this);
+    }
   }
 
   private synchronized void endStablePeriod() {
@@ -46,9 +80,49 @@ public abstract class ConditionWaiter<T extends WaitCondition> implements Except
     }
   }
 
+  public T getCondition() {
+    return condition;
+  }
+
+  public synchronized boolean isCompleted() {
+    return completed;
+  }
+
+  /**
+   * Gets the condition met by this waiter, which includes what met it, like the recognized screen.
+   *
+   * @return the met condition, or null if the waiter has not completed.
+   */
+  public synchronized WaitCondition getCompletedCondition() {
+    return completedCondition;
+  }
+
+  /**
+   * Sets a listener to be notified when this waiter ends, either because the condition has been
+   * stable for the stable period, or because the wait was cancelled. If the waiter already ended,
+   * the listener is notified right away.
+   *
+   * @param endListener the listener to notify, which receives this waiter.
+   */
+  public void setEndListener(Consumer<ConditionWaiter<?>> endListener) {
+    boolean alreadyEnded;
+    synchronized (this) {
+      this.endListener = endListener;
+      alreadyEnded = ended;
+    }
+    if (alreadyEnded) {
+      notifyEnd(endListener);
+    }
+  }
+
   public void await() throws InterruptedException, TimeoutException, RteIOException {
+    await(condition.getTimeoutMillis());
+  }
+
+  public void await(long timeoutMillis)
+      throws InterruptedException, TimeoutException, RteIOException {
     exceptionHandler.throwAnyPendingError();
-    if (!lock.await(condition.getTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+    if (!lock.await(timeoutMillis, TimeUnit.MILLISECONDS)) {
       cancelWait();
       throw new TimeoutException(
           "Timeout waiting for " + condition.getDescription() + " after " + condition
@@ -59,10 +133,19 @@ public abstract class ConditionWaiter<T extends WaitCondition> implements Except
     exceptionHandler.throwAnyPendingError();
   }
 
-  private synchronized void cancelWait() {
-    ended = true;
-    lock.countDown();
-    endStablePeriod();
+  private void cancelWait() {
+    Consumer<ConditionWaiter<?>> listener;
+    synchronized (this) {
+      if (ended) {
+        return;
+      }
+      ended = true;
+      RteEngineMonitor.getInstance().waitEnded(getConditionType());
+      lock.countDown();
+      endStablePeriod();
+      listener = endListener;
+    }
+    notifyEnd(listener);
   }
 
   @Override
@@ -88,11 +171,35 @@ public abstract class ConditionWaiter<T extends WaitCondition> implements Except
         LOG.debug("Stable period cancelled. Since {} arrived condition does not meet", event);
         endStablePeriod();
       }
+    } else if (currentConditionState && isConditionMatchChanged()) {
+      LOG.debug("Stable period restarted because event {} changed what meets the condition",
+          event);
+      startStablePeriod();
     }
   }
 
   protected abstract boolean getCurrentConditionState();
 
+  /**
+   * Builds the condition to report as met if the stable period which is starting ends, from the
+   * last evaluation of the condition, so it reflects what the condition stabilized on.
+   *
+   * @return the condition to report as met.
+   */
+  protected WaitCondition buildCompletedCondition() {
+    return condition;
+  }
+
+  /**
+   * Checks if, in last evaluation of the condition, what meets the condition changed (e.g.: a
+   * different screen is recognized), in which case the stable period has to start again.
+   *
+   * @return true if what meets the condition changed, false otherwise.
+   */
+  protected boolean isConditionMatchChanged() {
+    return false;
+  }
+
   protected void initialVerificationOfCondition() {
     if (getCurrentConditionState()) {
       LOG.debug("Start stable period since condition was already met");
@@ -6,6 +6,12 @@ public class DisconnectWaitCondition extends WaitCondition {
     super(timeoutMillis, 0);
   }
 
+  // disconnection does not need to be stable
+  @Override
+  public WaitCondition withStableTimeout(long stableTimeoutMillis) {
+    return this;
+  }
+
   @Override
   public String getDescription() {
     return "server to be disconnected";
@@ -0,0 +1,92 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import java.awt.Dimension;
+
+/**
+ * Matches a {@link TextWaitCondition} against successive screens, only scanning the rows of the
+ * search area which changed since the previous check.
+ *
+ * <p>Emulators notify about screen updates without telling which rows changed, so changed rows are
+ * detected by comparing each row of the search area against the one found in previous check. For
+ * literal texts only changed rows are searched again, and for regular expressions the evaluation is
+ * skipped when no row in the search area changed. When the same screen instance is checked again
+ * nothing is scanned at all.
+ */
+public class IncrementalTextMatcher {
+
+  private final TextWaitCondition condition;
+  private Screen lastScreen;
+  private Dimension screenSize;
+  private Area area;
+  private String[] rows;
+  private boolean[] matchingRows;
+  private int matchingRowsCount;
+  private boolean matches;
+
+  public IncrementalTextMatcher(TextWaitCondition condition) {
+    this.condition = condition;
+  }
+
+  public synchronized boolean matches(Screen screen) {
+    // protocol clients return same screen instance while the screen doesn't change
+    if (screen == lastScreen) {
+      return matches;
+    }
+    lastScreen = screen;
+    String screenText = screen.getText();
+    Dimension size = screen.getSize();
+    if (!size.equals(screenSize)) {
+      reset(size);
+    }
+    boolean changed = false;
+    for (int i = 0; i < rows.length; i++) {
+      int row = area.getTop() + i;
+      if (rows[i] == null || !rowEquals(rows[i], screenText, row)) {
+        rows[i] = screen.getText(row, area.getLeft(), area.getRight());
+        changed = true;
+        if (condition.isLiteral()) {
+          updateRowMatch(i, condition.rowMatchesLiteral(rows[i]));
+        }
+      }
+    }
+    if (condition.isLiteral()) {
+      matches = matchingRowsCount > 0;
+    } else if (changed) {
+      matches = condition.matchesArea(buildAreaText());
+    }
+    return matches;
+  }
+
+  private void reset(Dimension size) {
+    screenSize = new Dimension(size);
+    area = condition.getBoundedSearchArea(size);
+    rows = new String[area.getBottom() - area.getTop() + 1];
+    matchingRows = new boolean[rows.length];
+    matchingRowsCount = 0;
+    matches = false;
+  }
+
+  private boolean rowEquals(String lastRow, String screenText, int row) {
+    int rowStart = TextWaitCondition.getRowStart(row, area, screenSize);
+    return screenText.length() >= rowStart + lastRow.length()
+        && screenText.regionMatches(rowStart, lastRow, 0, lastRow.length());
+  }
+
+  private void updateRowMatch(int index, boolean rowMatches) {
+    if (matchingRows[index] != rowMatches) {
+      matchingRows[index] = rowMatches;
+      matchingRowsCount += rowMatches ? 1 : -1;
+    }
+  }
+
+  private String buildAreaText() {
+    StringBuilder builder = new StringBuilder();
+    for (String row : rows) {
+      builder.append(row);
+      builder.append("\n");
+    }
+    return builder.toString();
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+
+/**
+ * Recognizes successive screens with a {@link ScreenWaitCondition}, skipping the search when the
+ * screen has not changed since the previous check, and tracking changes in the recognized screen.
+ */
+public class ScreenRecognizer {
+
+  private final ScreenWaitCondition condition;
+  private Screen lastScreen;
+  private long lastFingerprint;
+  private ScreenSignature recognized;
+  private boolean recognizedChanged;
+
+  public ScreenRecognizer(ScreenWaitCondition condition) {
+    this.condition = condition;
+  }
+
+  /**
+   * Recognizes the given screen.
+   *
+   * @param screen the screen to recognize.
+   * @return the signature recognized in the screen, or null if none matches it.
+   */
+  public synchronized ScreenSignature recognize(Screen screen) {
+    // protocol clients return same screen instance while the screen doesn't change
+    if (screen == lastScreen
+        || lastScreen != null && screen.getFingerprint() == lastFingerprint) {
+      lastScreen = screen;
+      recognizedChanged = false;
+      return recognized;
+    }
+    lastScreen = screen;
+    lastFingerprint = screen.getFingerprint();
+    ScreenSignature current = condition.recognize(screen);
+    recognizedChanged = current != recognized;
+    recognized = current;
+    return recognized;
+  }
+
+  /**
+   * Gets the signature recognized in the last check.
+   *
+   * @return the recognized signature, or null if none matched the last checked screen.
+   */
+  public synchronized ScreenSignature getRecognized() {
+    return recognized;
+  }
+
+  /**
+   * Checks if the screen recognized in the last check is different from the previous one.
+   *
+   * @return true if the recognized screen changed in last check, false otherwise.
+   */
+  public synchronized boolean isRecognizedChanged() {
+    return recognizedChanged;
+  }
+
+}
@@ -0,0 +1,147 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import com.blazemeter.jmeter.rte.core.Position;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Named screen identified by a literal text which appears in a given area of the screen.
+ */
+public class ScreenSignature {
+
+  private static final String SEPARATOR = "|";
+  private static final Pattern AREA_PATTERN = Pattern.compile("(\\d+),(\\d+),(\\d*),(\\d*)");
+  private final String name;
+  private final String text;
+  private final Area searchArea;
+
+  public ScreenSignature(String name, String text, Area searchArea) {
+    if (text.isEmpty() || text.contains("\n")) {
+      throw new IllegalArgumentException(
+          "Text of screen " + name + " must not be empty nor contain line breaks");
+    }
+    this.name = name;
+    this.text = text;
+    this.searchArea = searchArea;
+  }
+
+  /**
+   * Parses a table of screen signatures, with a signature per line in the form
+   * {@code name|text} or {@code name|text|top,left,bottom,right}.
+   *
+   * <p>When no area is specified, or bottom row or right column are empty, the text is searched up
+   * to the screen limits. Empty lines are ignored.
+   *
+   * @param table the signatures table.
+   * @return the list of signatures in the same order as in the table.
+   * @throws IllegalArgumentException when a line does not follow the expected format.
+   */
+  public static List<ScreenSignature> fromTable(String table) {
+    List<ScreenSignature> ret = new ArrayList<>();
+    for (String line : table.split("\\r?\\n")) {
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      int nameEnd = line.indexOf(SEPARATOR);
+      if (nameEnd <= 0 || nameEnd == line.length() - 1) {
+        throw new IllegalArgumentException("Invalid screen signature '" + line
+            + "'. Expected format is name|text or name|text|top,left,bottom,right");
+      }
+      String name = line.substring(0, nameEnd).trim();
+      String text = line.substring(nameEnd + 1);
+      Area area = Area.fromTopLeftBottomRight(1, 1, Position.UNSPECIFIED_INDEX,
+          Position.UNSPECIFIED_INDEX);
+      int areaStart = text.lastIndexOf(SEPARATOR);
+      if (areaStart > 0) {
+        Matcher matcher = AREA_PATTERN.matcher(text.substring(areaStart + 1).trim());
+        if (matcher.matches()) {
+          area = Area.fromTopLeftBottomRight(Integer.parseInt(matcher.group(1)),
+              Integer.parseInt(matcher.group(2)), parseOptionalIndex(matcher.group(3)),
+              parseOptionalIndex(matcher.group(4)));
+          text = text.substring(0, areaStart);
+        }
+      }
+      ret.add(new ScreenSignature(name, text, area));
+    }
+    return ret;
+  }
+
+  private static int parseOptionalIndex(String value) {
+    return value.isEmpty() ? Position.UNSPECIFIED_INDEX : Integer.parseInt(value);
+  }
+
+  public static String toTable(List<ScreenSignature> signatures) {
+    return signatures.stream()
+        .map(ScreenSignature::toTableRow)
+        .collect(Collectors.joining("\n"));
+  }
+
+  private String toTableRow() {
+    return name + SEPARATOR + text + SEPARATOR + searchArea.getTop() + "," + searchArea.getLeft()
+        + "," + formatOptionalIndex(searchArea.getBottom()) + ","
+        + formatOptionalIndex(searchArea.getRight());
+  }
+
+  private static String formatOptionalIndex(int value) {
+    return value == Position.UNSPECIFIED_INDEX ? "" : String.valueOf(value);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  public Area getSearchArea() {
+    return searchArea;
+  }
+
+  /**
+   * Checks if an occurrence of the text of this signature is inside the search area.
+   *
+   * @param row row where the text occurrence is, starting from 1.
+   * @param column column where the text occurrence starts, starting from 1.
+   * @return true if the occurrence is inside the search area, false otherwise.
+   */
+  public boolean isInSearchArea(int row, int column) {
+    return row >= searchArea.getTop() && column >= searchArea.getLeft()
+        && (searchArea.getBottom() == Position.UNSPECIFIED_INDEX || row <= searchArea.getBottom())
+        && (searchArea.getRight() == Position.UNSPECIFIED_INDEX
+        || column + text.length() - 1 <= searchArea.getRight());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ScreenSignature that = (ScreenSignature) o;
+    return name.equals(that.name) &&
+        text.equals(that.text) &&
+        searchArea.equals(that.searchArea);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, text, searchArea);
+  }
+
+  @Override
+  public String toString() {
+    return "ScreenSignature{" +
+        "name='" + name + '\'' +
+        ", text='" + text + '\'' +
+        ", searchArea=" + searchArea +
+        '}';
+  }
+
+}
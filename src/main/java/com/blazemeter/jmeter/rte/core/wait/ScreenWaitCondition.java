@@ -0,0 +1,138 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * {@link WaitCondition} to wait for the terminal screen to be any of a set of known screens.
+ *
+ * <p>Texts of all the screens are searched in a single pass over the screen, and when several
+ * screens match, the first one in the list of signatures is the recognized one.
+ */
+public class ScreenWaitCondition extends WaitCondition {
+
+  private final List<ScreenSignature> signatures;
+  private final AhoCorasickAutomaton automaton;
+  // signatures indexes for each distinct text searched by the automaton
+  private final int[][] textSignatures;
+  private ScreenSignature recognizedScreen;
+
+  public ScreenWaitCondition(List<ScreenSignature> signatures, long timeoutMillis,
+      long stableTimeoutMillis) {
+    super(timeoutMillis, stableTimeoutMillis);
+    this.signatures = signatures;
+    Map<String, List<Integer>> textsSignatures = new HashMap<>();
+    List<String> texts = new ArrayList<>();
+    for (int i = 0; i < signatures.size(); i++) {
+      String text = signatures.get(i).getText();
+      textsSignatures.computeIfAbsent(text, t -> {
+        texts.add(t);
+        return new ArrayList<>();
+      }).add(i);
+    }
+    automaton = new AhoCorasickAutomaton(texts);
+    textSignatures = texts.stream()
+        .map(t -> textsSignatures.get(t).stream().mapToInt(Integer::intValue).toArray())
+        .toArray(int[][]::new);
+  }
+
+  public List<ScreenSignature> getSignatures() {
+    return signatures;
+  }
+
+  /**
+   * Gets a copy of this condition which reports the screen recognized when the condition was met.
+   *
+   * @param recognizedScreen the signature of the recognized screen.
+   * @return the condition met with the given screen.
+   */
+  public ScreenWaitCondition withRecognizedScreen(ScreenSignature recognizedScreen) {
+    ScreenWaitCondition ret = (ScreenWaitCondition) copy();
+    ret.recognizedScreen = recognizedScreen;
+    return ret;
+  }
+
+  /**
+   * Gets the screen recognized when this condition was met.
+   *
+   * @return the signature of the recognized screen, or null if this condition is not the result of
+   * a wait.
+   */
+  public ScreenSignature getRecognizedScreen() {
+    return recognizedScreen;
+  }
+
+  @Override
+  public String getDescription() {
+    return "emulator screen to be any of " + signatures.stream()
+        .map(ScreenSignature::getName)
+        .collect(Collectors.joining(", ", "[", "]"));
+  }
+
+  /**
+   * Finds which of the known screens is the given one.
+   *
+   * @param screen the screen to recognize.
+   * @return the first signature matching the screen, or null if no signature matches it.
+   */
+  public ScreenSignature recognize(Screen screen) {
+    int rowLength = screen.getSize().width + 1;
+    int[] firstMatch = {signatures.size()};
+    automaton.search(screen.getText(), (text, start) -> {
+      int row = start / rowLength + 1;
+      int column = start % rowLength + 1;
+      for (int signature : textSignatures[text]) {
+        if (signature < firstMatch[0]
+            && signatures.get(signature).isInSearchArea(row, column)) {
+          firstMatch[0] = signature;
+        }
+      }
+    });
+    return firstMatch[0] < signatures.size() ? signatures.get(firstMatch[0]) : null;
+  }
+
+  /**
+   * Builds a recognizer which keeps the last recognized screen, to avoid searching screens which
+   * did not change and know when the recognized screen changes.
+   *
+   * @return a new recognizer for this condition. Each waiter should use its own one.
+   */
+  public ScreenRecognizer buildRecognizer() {
+    return new ScreenRecognizer(this);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    ScreenWaitCondition that = (ScreenWaitCondition) o;
+    return signatures.equals(that.signatures);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), signatures);
+  }
+
+  @Override
+  public String toString() {
+    return "ScreenWaitCondition{" +
+        "signatures=" + signatures +
+        ", timeoutMillis=" + timeoutMillis +
+        ", stableTimeoutMillis=" + stableTimeoutMillis +
+        '}';
+  }
+
+}
@@ -6,6 +6,12 @@ public class SilentWaitCondition extends WaitCondition {
     super(timeoutMillis, stableTimeoutMillis);
   }
 
+  // the silent time is not a stable period, so it is always kept
+  @Override
+  public WaitCondition withStableTimeout(long stableTimeoutMillis) {
+    return this;
+  }
+
   @Override
   public String getDescription() {
     return "emulator to be silent for " + stableTimeoutMillis + " millis";
@@ -0,0 +1,142 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
+import com.helger.commons.annotation.VisibleForTesting;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Learns, for each sampler label, the stable period required to consider a screen stable.
+ *
+ * <p>Gaps between terminal events received while waiting for a response are recorded per label,
+ * and once enough gaps have been observed the stable period is shrunk to the 99th percentile of
+ * such gaps plus a safety margin. The configured stable period is used while not enough gaps have
+ * been observed, and periodically afterwards so gaps longer than the learned period can still be
+ * observed. The learned period is never longer than the configured one.
+ */
+public class StablePeriodLearner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StablePeriodLearner.class);
+  private static final int MAX_GAPS = 1024;
+  @VisibleForTesting
+  protected static final int MIN_GAPS = 100;
+  @VisibleForTesting
+  protected static final int EXPLORATION_INTERVAL = 20;
+  private static final double PERCENTILE = 0.99;
+
+  private final long marginMillis;
+  private final ConcurrentMap<String, LabelStats> labelsStats = new ConcurrentHashMap<>();
+
+  public StablePeriodLearner(long marginMillis) {
+    this.marginMillis = marginMillis;
+  }
+
+  /**
+   * Gets the stable period to use in a new sample with the given label.
+   *
+   * @param label label of the sampler.
+   * @param configuredMillis stable period configured by the user.
+   * @return the learned stable period, or the configured one when not enough gaps have been
+   * observed for the label or when the sample is used to observe gaps with the configured period.
+   */
+  public long getStablePeriodMillis(String label, long configuredMillis) {
+    return getLabelStats(label).nextStablePeriodMillis(configuredMillis);
+  }
+
+  private LabelStats getLabelStats(String label) {
+    return labelsStats.computeIfAbsent(label, l -> new LabelStats());
+  }
+
+  /**
+   * Builds a listener which records the gaps between terminal events for the given label.
+   *
+   * <p>The listener should only be registered while waiting for a response, to avoid recording
+   * gaps of local events, like the ones generated while sending inputs.
+   *
+   * @param label label of the sampler.
+   * @return the listener to register in the protocol client.
+   */
+  public TerminalStateListener buildGapRecorder(String label) {
+    return new GapRecorder(getLabelStats(label));
+  }
+
+  @VisibleForTesting
+  protected void addGap(String label, long gapMillis) {
+    getLabelStats(label).addGap(gapMillis);
+  }
+
+  public void logSummary() {
+    new TreeMap<>(labelsStats).forEach((label, stats) -> LOG.info("Stable period for '{}': {}",
+        label, stats.getSummary()));
+  }
+
+  private class LabelStats {
+
+    private final long[] gaps = new long[MAX_GAPS];
+    private long gapsCount;
+    private long samplesCount;
+    private long learnedMillis = -1;
+
+    private synchronized void addGap(long gapMillis) {
+      gaps[(int) (gapsCount % MAX_GAPS)] = gapMillis;
+      gapsCount++;
+      learnedMillis = -1;
+    }
+
+    private synchronized long nextStablePeriodMillis(long configuredMillis) {
+      samplesCount++;
+      return gapsCount < MIN_GAPS || samplesCount % EXPLORATION_INTERVAL == 0
+          ? configuredMillis : Math.min(configuredMillis, getLearnedMillis());
+    }
+
+    private long getLearnedMillis() {
+      if (learnedMillis < 0) {
+        long[] sortedGaps = Arrays.copyOf(gaps, (int) Math.min(gapsCount, MAX_GAPS));
+        Arrays.sort(sortedGaps);
+        int index = (int) Math.ceil(PERCENTILE * sortedGaps.length) - 1;
+        learnedMillis = sortedGaps[Math.max(index, 0)] + marginMillis;
+      }
+      return learnedMillis;
+    }
+
+    private synchronized String getSummary() {
+      return gapsCount < MIN_GAPS
+          ? "not learned (gaps=" + gapsCount + ", samples=" + samplesCount + ")"
+          : "learned=" + getLearnedMillis() + "ms (gaps=" + gapsCount + ", samples="
+              + samplesCount + ")";
+    }
+
+  }
+
+  private static class GapRecorder implements TerminalStateListener {
+
+    private final LabelStats stats;
+    private boolean eventReceived;
+    private long lastEventNanos;
+
+    private GapRecorder(LabelStats stats) {
+      this.stats = stats;
+    }
+
+    @Override
+    public synchronized void onTerminalStateChange() {
+      long now = System.nanoTime();
+      if (eventReceived) {
+        stats.addGap(TimeUnit.NANOSECONDS.toMillis(now - lastEventNanos));
+      }
+      eventReceived = true;
+      lastEventNanos = now;
+    }
+
+    @Override
+    public void onException(Throwable e) {
+    }
+
+  }
+
+}
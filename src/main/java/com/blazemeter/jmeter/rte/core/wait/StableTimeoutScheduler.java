@@ -0,0 +1,145 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Engine wide scheduler used to time the stable periods of all the sessions.
+ *
+ * <p>A small fixed set of single thread executors (shards) is shared by all protocol clients, so
+ * the number of threads does not depend on the number of sessions. Each session is assigned to a
+ * shard by its hash, so its tasks always run in the same thread and each shard queue only holds
+ * the tasks of a fraction of the sessions. The difference between the time a task was due and the
+ * time it actually ran (timer lag) is tracked and logged when the scheduler is shut down.
+ */
+public class StableTimeoutScheduler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StableTimeoutScheduler.class);
+  private static final int MAX_SHARDS = 4;
+
+  private static StableTimeoutScheduler instance;
+
+  private final Shard[] shards;
+  private final LongAdder executedCount = new LongAdder();
+  private final LongAdder totalLagNanos = new LongAdder();
+  private final AtomicLong maxLagNanos = new AtomicLong();
+
+  private StableTimeoutScheduler(int shardsCount) {
+    ThreadFactory threadFactory = buildThreadFactory();
+    shards = new Shard[shardsCount];
+    for (int i = 0; i < shardsCount; i++) {
+      shards[i] = new Shard(threadFactory);
+    }
+  }
+
+  private static ThreadFactory buildThreadFactory() {
+    AtomicInteger threadCount = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable,
+          "STABLE-TIMEOUT-EXECUTOR-" + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  public static synchronized StableTimeoutScheduler getInstance() {
+    if (instance == null) {
+      instance = new StableTimeoutScheduler(
+          Math.min(MAX_SHARDS, Runtime.getRuntime().availableProcessors()));
+    }
+    return instance;
+  }
+
+  /**
+   * Gets the engine wide scheduler without creating it.
+   *
+   * @return the current scheduler, or null if it has not been created or has been shut down.
+   */
+  public static synchronized StableTimeoutScheduler getCurrentInstance() {
+    return instance;
+  }
+
+  public static synchronized void shutdownInstance() {
+    if (instance != null) {
+      for (Shard shard : instance.shards) {
+        shard.shutdownNow();
+      }
+      LOG.info("Stable timeout scheduler stats: {}", instance.getStatsSummary());
+      instance = null;
+    }
+  }
+
+  /**
+   * Gets the executor to schedule the stable periods of a given session.
+   *
+   * @param session the session (usually a protocol client) which schedules the tasks.
+   * @return the same executor for all the calls with the same session.
+   */
+  public ScheduledExecutorService getExecutor(Object session) {
+    int hash = System.identityHashCode(session);
+    // spread the hash since identity hashes may not vary much in their lower bits
+    return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+  }
+
+  private void recordLag(long lagNanos) {
+    executedCount.increment();
+    totalLagNanos.add(lagNanos);
+    maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+  }
+
+  public int getScheduledCount() {
+    int ret = 0;
+    for (Shard shard : shards) {
+      ret += shard.getQueue().size();
+    }
+    return ret;
+  }
+
+  public long getExecutedCount() {
+    return executedCount.sum();
+  }
+
+  public long getAverageLagMicros() {
+    long executed = executedCount.sum();
+    return executed == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLagNanos.sum() / executed);
+  }
+
+  public long getMaxLagMicros() {
+    return TimeUnit.NANOSECONDS.toMicros(maxLagNanos.get());
+  }
+
+  public String getStatsSummary() {
+    return "shards=" + shards.length +
+        ", executed=" + getExecutedCount() +
+        ", avgLagMicros=" + getAverageLagMicros() +
+        ", maxLagMicros=" + getMaxLagMicros();
+  }
+
+  private class Shard extends ScheduledThreadPoolExecutor {
+
+    private Shard(ThreadFactory threadFactory) {
+      super(1, threadFactory);
+      // cancelled stable periods are removed from the queue right away instead of when due
+      setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+      long dueNanos = System.nanoTime() + unit.toNanos(delay);
+      return super.schedule(() -> {
+        recordLag(Math.max(0, System.nanoTime() - dueNanos));
+        command.run();
+      }, delay, unit);
+    }
+
+  }
+
+}
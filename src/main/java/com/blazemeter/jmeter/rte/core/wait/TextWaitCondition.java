@@ -4,8 +4,10 @@ import com.blazemeter.jmeter.rte.core.Position;
 import com.blazemeter.jmeter.rte.core.Screen;
 import java.awt.Dimension;
 import java.util.Objects;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.oro.text.regex.Pattern;
 import org.apache.oro.text.regex.PatternMatcher;
+import org.apache.oro.text.regex.Perl5Compiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,9 +17,13 @@ import org.slf4j.LoggerFactory;
 public class TextWaitCondition extends WaitCondition {
   
   private static final Logger LOG = LoggerFactory.getLogger(TextWaitCondition.class);
+  private static final String REGEX_META_CHARS = "\\^$.|?*+()[]{}\n";
+  private static final int NON_LITERAL_OPTIONS_MASK = Perl5Compiler.CASE_INSENSITIVE_MASK
+      | Perl5Compiler.EXTENDED_MASK;
   private final Pattern regex;
   private final PatternMatcher matcher;
   private final Area searchArea;
+  private final String literal;
 
   public TextWaitCondition(Pattern regex, PatternMatcher matcher, Area searchArea,
       long timeoutMillis,
@@ -26,6 +32,20 @@ public class TextWaitCondition extends WaitCondition {
     this.regex = regex;
     this.matcher = matcher;
     this.searchArea = searchArea;
+    this.literal = findLiteral(regex);
+  }
+
+  /*
+  Patterns without regex meta characters are just literal texts, which can be searched with plain
+  string search, avoiding regex evaluation.
+   */
+  private static String findLiteral(Pattern regex) {
+    String pattern = regex.getPattern();
+    if ((regex.getOptions() & NON_LITERAL_OPTIONS_MASK) != 0 || StringUtils
+        .containsAny(pattern, REGEX_META_CHARS)) {
+      return null;
+    }
+    return pattern;
   }
 
   public String getRegex() {
@@ -41,13 +61,62 @@ public class TextWaitCondition extends WaitCondition {
     return "emulator screen area " + searchArea + " to contain '" + regex.getPattern() + "'";
   }
 
+  public boolean isLiteral() {
+    return literal != null;
+  }
+
   public boolean matchesScreen(Screen screen) {
-    String screenArea = extractScreenArea(searchArea, screen.getText(), screen.getSize());
-    return matcher.contains(screenArea, regex);
+    Area area = getBoundedSearchArea(screen.getSize());
+    if (literal != null) {
+      for (int i = area.getTop(); i <= area.getBottom(); i++) {
+        if (rowMatchesLiteral(screen.getText(i, area.getLeft(), area.getRight()))) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return matcher.contains(extractScreenArea(area, screen), regex);
+  }
+
+  /**
+   * Builds a matcher which keeps state between checks of screens, to only scan rows of the search
+   * area which changed since the last check.
+   *
+   * @return a new matcher for this condition. Each waiter should use its own one.
+   */
+  public IncrementalTextMatcher buildIncrementalMatcher() {
+    return new IncrementalTextMatcher(this);
   }
 
-  private String extractScreenArea(Area searchArea, String screen, Dimension screenSize) {
+  protected boolean matchesArea(String areaText) {
+    return matcher.contains(areaText, regex);
+  }
+
+  protected boolean rowMatchesLiteral(String row) {
+    return row.contains(literal);
+  }
+
+  private String extractScreenArea(Area area, Screen screen) {
     StringBuilder builder = new StringBuilder();
+    for (int i = area.getTop(); i <= area.getBottom(); i++) {
+      builder.append(screen.getText(i, area.getLeft(), area.getRight()));
+      builder.append("\n");
+    }
+    return builder.toString();
+  }
+
+  protected static int getRowStart(int row, Area area, Dimension screenSize) {
+    // we increase one due to new line at end of row
+    return (row - 1) * (screenSize.width + 1) + area.getLeft() - 1;
+  }
+
+  /**
+   * Gets the search area with unspecified or out of bounds values replaced by screen limits.
+   *
+   * @param screenSize size of the screen to search in.
+   * @return the bounded area.
+   */
+  protected Area getBoundedSearchArea(Dimension screenSize) {
     int top = getBoundedValueOrDefault(searchArea.getTop(), 1, screenSize.height, 1, "top row");
     int left = getBoundedValueOrDefault(searchArea.getLeft(), 1, screenSize.width, 1,
         "left column");
@@ -57,13 +126,7 @@ public class TextWaitCondition extends WaitCondition {
     int right = getBoundedValueOrDefault(
         searchArea.getRight() == Position.UNSPECIFIED_INDEX ? screenSize.width
             : searchArea.getRight(), left, screenSize.width, screenSize.width, "right column");
-    for (int i = top; i <= bottom; i++) {
-      // we increase one due to new line at end of row
-      int rowStart = (i - 1) * (screenSize.width + 1);
-      builder.append(screen, rowStart + left - 1, rowStart + right);
-      builder.append("\n");
-    }
-    return builder.toString();
+    return Area.fromTopLeftBottomRight(top, left, bottom, right);
   }
 
   private int getBoundedValueOrDefault(int value, int lowerBound, int upperBound, int defaultValue,
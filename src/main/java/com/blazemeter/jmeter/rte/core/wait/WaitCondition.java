@@ -5,7 +5,7 @@ import java.util.Objects;
 /**
  * Condition to wait for emulator to match.
  */
-public abstract class WaitCondition {
+public abstract class WaitCondition implements Cloneable {
 
   protected long timeoutMillis;
   protected long stableTimeoutMillis;
@@ -23,6 +23,30 @@ public abstract class WaitCondition {
     return this.stableTimeoutMillis;
   }
 
+  /**
+   * Gets a condition equal to this one but which requires the emulator to keep the condition for
+   * the given period.
+   *
+   * @param stableTimeoutMillis period the condition has to be kept to be considered stable.
+   * @return this condition if it already uses the given period, or a copy using it otherwise.
+   */
+  public WaitCondition withStableTimeout(long stableTimeoutMillis) {
+    if (stableTimeoutMillis == this.stableTimeoutMillis) {
+      return this;
+    }
+    WaitCondition ret = copy();
+    ret.stableTimeoutMillis = stableTimeoutMillis;
+    return ret;
+  }
+
+  protected WaitCondition copy() {
+    try {
+      return (WaitCondition) clone();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   public abstract String getDescription();
 
   @Override
@@ -0,0 +1,19 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+/**
+ * Specifies when a group of wait conditions is considered met.
+ */
+public enum WaitMode {
+  ALL("All conditions"), ANY("Any condition");
+
+  private final String label;
+
+  WaitMode(String label) {
+    this.label = label;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+}
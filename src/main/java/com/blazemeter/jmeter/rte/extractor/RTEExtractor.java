@@ -2,6 +2,7 @@ package com.blazemeter.jmeter.rte.extractor;
 
 import com.blazemeter.jmeter.rte.core.Position;
 import com.blazemeter.jmeter.rte.core.RteSampleResultBuilder;
+import com.blazemeter.jmeter.rte.core.SampleResultSegments;
 import com.blazemeter.jmeter.rte.core.Screen;
 import com.blazemeter.jmeter.rte.core.Segment;
 import com.blazemeter.jmeter.rte.core.TerminalType;
@@ -59,12 +60,18 @@ public class RTEExtractor extends AbstractScopedTestElement implements PostProce
 
     List<Segment> segments;
     try {
-      segments = Segment.fromHeaders(responseHeaders);
-    } catch (JsonProcessingException e) {
+      segments = SampleResultSegments.get(context.getPreviousResult());
+    } catch (JsonProcessingException | IllegalArgumentException e) {
       LOG.error("Error parsing response headers", e);
       return;
     }
 
+    if (segments.isEmpty()) {
+      LOG.error("No segments found in response headers. Check that segments header mode is not "
+          + "set to NONE");
+      return;
+    }
+
     if (type.equals(ExtractionType.NEXT_FIELD_POSITION)) {
       storeNextFieldPosition(variablePrefix, segments);
       return;
@@ -7,6 +7,7 @@ import com.blazemeter.jmeter.rte.core.Input;
 import com.blazemeter.jmeter.rte.core.LabelInput;
 import com.blazemeter.jmeter.rte.core.NavigationInput;
 import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Protocol;
 import com.blazemeter.jmeter.rte.core.Screen;
 import com.blazemeter.jmeter.rte.core.Segment.SegmentBuilder;
 import com.blazemeter.jmeter.rte.core.TerminalType;
@@ -17,16 +18,20 @@ import com.blazemeter.jmeter.rte.core.exceptions.ScreenWithoutFieldException;
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
 import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
 import com.blazemeter.jmeter.rte.core.wait.ConditionWaiter;
 import com.blazemeter.jmeter.rte.core.wait.ConnectionEndWaiter;
 import com.blazemeter.jmeter.rte.core.wait.CursorWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.DisconnectWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.SilentWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.StableTimeoutScheduler;
 import com.blazemeter.jmeter.rte.core.wait.SyncWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
 import com.blazemeter.jmeter.rte.protocols.tn3270.Tn3270TerminalType.DeviceModel;
 import com.blazemeter.jmeter.rte.protocols.tn3270.listeners.DisconnectListener;
+import com.blazemeter.jmeter.rte.protocols.tn3270.listeners.ScreenRecognitionListener;
 import com.blazemeter.jmeter.rte.protocols.tn3270.listeners.ScreenTextListener;
 import com.blazemeter.jmeter.rte.protocols.tn3270.listeners.SilenceListener;
 import com.blazemeter.jmeter.rte.protocols.tn3270.listeners.Tn3270TerminalStateListenerProxy;
@@ -50,7 +55,6 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
 import javax.naming.OperationNotSupportedException;
 import org.apache.commons.lang3.StringUtils;
@@ -124,9 +128,14 @@ public class Tn3270Client extends BaseProtocolClient {
   }
 
   @Override
-  public void connect(String server, int port, SSLType sslType, TerminalType terminalType,
+  protected Protocol getProtocol() {
+    return Protocol.TN3270;
+  }
+
+  @Override
+  protected void doConnect(String server, int port, SSLType sslType, TerminalType terminalType,
       long timeoutMillis) throws RteIOException, InterruptedException, TimeoutException {
-    stableTimeoutExecutor = Executors.newSingleThreadScheduledExecutor(NAMED_THREAD_FACTORY);
+    stableTimeoutExecutor = StableTimeoutScheduler.getInstance().getExecutor(this);
     Tn3270TerminalType termType = (Tn3270TerminalType) terminalType;
     client = new TerminalClient(termType.getModel(), termType.getScreenDimensions());
     client.setUsesExtended3270(termType.isExtended());
@@ -152,12 +161,15 @@ public class Tn3270Client extends BaseProtocolClient {
         handleServerDisconnection();
       }
     });
+    incrementScreenVersion();
+    client.addScreenChangeListener(screenWatcher -> incrementScreenVersion());
     for (TerminalStateListener listener : listenersProxies.keySet()) {
       addListener(listener);
     }
     client.connect(server, port);
     connectionEndWaiter.await();
     exceptionHandler.throwAnyPendingError();
+    markPhase(SamplePhase.NEGOTIATION);
   }
 
   private void addListener(TerminalStateListener listener) {
@@ -279,6 +291,9 @@ public class Tn3270Client extends BaseProtocolClient {
     } else if (waitCondition instanceof TextWaitCondition) {
       return new ScreenTextListener((TextWaitCondition) waitCondition, this, stableTimeoutExecutor,
           exceptionHandler);
+    } else if (waitCondition instanceof ScreenWaitCondition) {
+      return new ScreenRecognitionListener((ScreenWaitCondition) waitCondition, this,
+          stableTimeoutExecutor, exceptionHandler);
     } else if (waitCondition instanceof DisconnectWaitCondition) {
       return new DisconnectListener((DisconnectWaitCondition) waitCondition, this,
           stableTimeoutExecutor, exceptionHandler);
@@ -289,7 +304,7 @@ public class Tn3270Client extends BaseProtocolClient {
   }
 
   @Override
-  public Screen getScreen() {
+  protected Screen buildScreen() {
     List<Field> fields = client.getFields();
     String screenText = client.getScreenText().replace("\n", "");
     if (fields.isEmpty()) {
@@ -432,7 +447,6 @@ public class Tn3270Client extends BaseProtocolClient {
 
   @Override
   protected void doDisconnect() {
-    stableTimeoutExecutor.shutdownNow();
     stableTimeoutExecutor = null;
     try {
       client.disconnect();
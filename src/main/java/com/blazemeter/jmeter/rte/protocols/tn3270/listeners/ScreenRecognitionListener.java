@@ -0,0 +1,71 @@
+package com.blazemeter.jmeter.rte.protocols.tn3270.listeners;
+
+import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.blazemeter.jmeter.rte.core.wait.ScreenRecognizer;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
+import com.blazemeter.jmeter.rte.protocols.tn3270.Tn3270Client;
+import com.bytezone.dm3270.application.KeyboardStatusChangedEvent;
+import com.bytezone.dm3270.application.KeyboardStatusListener;
+import com.bytezone.dm3270.display.CursorMoveListener;
+import com.bytezone.dm3270.display.Field;
+import com.bytezone.dm3270.display.ScreenChangeListener;
+import com.bytezone.dm3270.display.ScreenWatcher;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class ScreenRecognitionListener extends Tn3270ConditionWaiter<ScreenWaitCondition>
+    implements KeyboardStatusListener, CursorMoveListener, ScreenChangeListener {
+
+  private ScreenRecognizer recognizer;
+
+  public ScreenRecognitionListener(ScreenWaitCondition condition, Tn3270Client client,
+      ScheduledExecutorService stableTimeoutExecutor, ExceptionHandler exceptionHandler) {
+    super(condition, client, stableTimeoutExecutor, exceptionHandler);
+    client.addCursorMoveListener(this);
+    client.addKeyboardStatusListener(this);
+    client.addScreenChangeListener(this);
+  }
+
+  @Override
+  public void keyboardStatusChanged(KeyboardStatusChangedEvent keyboardStatusChangedEvent) {
+    updateConditionState(keyboardStatusChangedEvent.getClass().getSimpleName());
+  }
+
+  @Override
+  public void cursorMoved(int i, int i1, Field field) {
+    updateConditionState(CURSOR_MOVED);
+  }
+
+  @Override
+  public void screenChanged(ScreenWatcher screenWatcher) {
+    updateConditionState(screenWatcher.getClass().getSimpleName());
+  }
+
+  @Override
+  public void stop() {
+    super.stop();
+    client.removeCursorMoveListener(this);
+    client.removeKeyboardStatusListener(this);
+    client.removeScreenChangeListener(this);
+  }
+
+  @Override
+  protected boolean getCurrentConditionState() {
+    // initialized here since this method is invoked from super constructor
+    if (recognizer == null) {
+      recognizer = condition.buildRecognizer();
+    }
+    return recognizer.recognize(client.getScreen()) != null;
+  }
+
+  @Override
+  protected boolean isConditionMatchChanged() {
+    return recognizer.isRecognizedChanged();
+  }
+
+  @Override
+  protected WaitCondition buildCompletedCondition() {
+    return condition.withRecognizedScreen(recognizer.getRecognized());
+  }
+
+}
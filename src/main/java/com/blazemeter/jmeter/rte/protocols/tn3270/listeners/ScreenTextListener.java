@@ -1,6 +1,7 @@
 package com.blazemeter.jmeter.rte.protocols.tn3270.listeners;
 
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.blazemeter.jmeter.rte.core.wait.IncrementalTextMatcher;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.protocols.tn3270.Tn3270Client;
 import com.bytezone.dm3270.application.KeyboardStatusChangedEvent;
@@ -14,6 +15,8 @@ import java.util.concurrent.ScheduledExecutorService;
 public class ScreenTextListener extends Tn3270ConditionWaiter<TextWaitCondition> implements
     KeyboardStatusListener, CursorMoveListener, ScreenChangeListener {
 
+  private IncrementalTextMatcher textMatcher;
+
   public ScreenTextListener(TextWaitCondition condition, Tn3270Client client,
       ScheduledExecutorService stableTimeoutExecutor, ExceptionHandler exceptionHandler) {
     super(condition, client, stableTimeoutExecutor, exceptionHandler);
@@ -48,7 +51,11 @@ public class ScreenTextListener extends Tn3270ConditionWaiter<TextWaitCondition>
 
   @Override
   protected boolean getCurrentConditionState() {
-    return condition.matchesScreen(client.getScreen());
+    // initialized here since this method is invoked from super constructor
+    if (textMatcher == null) {
+      textMatcher = condition.buildIncrementalMatcher();
+    }
+    return textMatcher.matches(client.getScreen());
   }
 
 }
@@ -7,6 +7,7 @@ import com.blazemeter.jmeter.rte.core.Input;
 import com.blazemeter.jmeter.rte.core.LabelInput;
 import com.blazemeter.jmeter.rte.core.NavigationInput;
 import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Protocol;
 import com.blazemeter.jmeter.rte.core.Screen;
 import com.blazemeter.jmeter.rte.core.Segment.SegmentBuilder;
 import com.blazemeter.jmeter.rte.core.TerminalType;
@@ -17,16 +18,20 @@ import com.blazemeter.jmeter.rte.core.exceptions.ScreenWithoutFieldException;
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
 import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
 import com.blazemeter.jmeter.rte.core.wait.ConditionWaiter;
 import com.blazemeter.jmeter.rte.core.wait.ConnectionEndWaiter;
 import com.blazemeter.jmeter.rte.core.wait.CursorWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.DisconnectWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.SilentWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.StableTimeoutScheduler;
 import com.blazemeter.jmeter.rte.core.wait.SyncWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
 import com.blazemeter.jmeter.rte.protocols.tn5250.listeners.ConnectionEndTerminalListener;
 import com.blazemeter.jmeter.rte.protocols.tn5250.listeners.DisconnectListener;
+import com.blazemeter.jmeter.rte.protocols.tn5250.listeners.ScreenRecognitionListener;
 import com.blazemeter.jmeter.rte.protocols.tn5250.listeners.ScreenTextListener;
 import com.blazemeter.jmeter.rte.protocols.tn5250.listeners.SilenceListener;
 import com.blazemeter.jmeter.rte.protocols.tn5250.listeners.Tn5250TerminalStateListenerProxy;
@@ -43,11 +48,11 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
 import javax.naming.OperationNotSupportedException;
 import net.infordata.em.TerminalClient;
 import net.infordata.em.TerminalClient.Segment;
+import net.infordata.em.tn5250.XI5250EmulatorEvent;
 import net.infordata.em.tn5250.XI5250EmulatorListener;
 
 public class Tn5250Client extends BaseProtocolClient {
@@ -105,9 +110,14 @@ public class Tn5250Client extends BaseProtocolClient {
   }
 
   @Override
-  public void connect(String server, int port, SSLType sslType, TerminalType terminalType,
+  protected Protocol getProtocol() {
+    return Protocol.TN5250;
+  }
+
+  @Override
+  protected void doConnect(String server, int port, SSLType sslType, TerminalType terminalType,
       long timeoutMillis) throws RteIOException, TimeoutException, InterruptedException {
-    stableTimeoutExecutor = Executors.newSingleThreadScheduledExecutor(NAMED_THREAD_FACTORY);
+    stableTimeoutExecutor = StableTimeoutScheduler.getInstance().getExecutor(this);
     /*
      we need create terminalClient instance on connect instead of 
      constructor to avoid leaving keyboard thread running when 
@@ -132,6 +142,8 @@ public class Tn5250Client extends BaseProtocolClient {
         handleServerDisconnection();
       }
     });
+    incrementScreenVersion();
+    client.addEmulatorListener(new ScreenVersionListener());
     for (TerminalStateListener listener : listenersProxies.keySet()) {
       addListener(listener);
     }
@@ -142,6 +154,7 @@ public class Tn5250Client extends BaseProtocolClient {
       client.connect(server, port);
       connectionEndWaiter.await();
       exceptionHandler.throwAnyPendingError();
+      markPhase(SamplePhase.NEGOTIATION);
     } finally {
       client.removeEmulatorListener(connectionEndListener);
     }
@@ -239,6 +252,9 @@ public class Tn5250Client extends BaseProtocolClient {
     } else if (waitCondition instanceof TextWaitCondition) {
       return new ScreenTextListener((TextWaitCondition) waitCondition, this,
           stableTimeoutExecutor, exceptionHandler);
+    } else if (waitCondition instanceof ScreenWaitCondition) {
+      return new ScreenRecognitionListener((ScreenWaitCondition) waitCondition, this,
+          stableTimeoutExecutor, exceptionHandler);
     } else if (waitCondition instanceof DisconnectWaitCondition) {
       return new DisconnectListener((DisconnectWaitCondition) waitCondition, this,
           stableTimeoutExecutor, exceptionHandler);
@@ -273,7 +289,7 @@ public class Tn5250Client extends BaseProtocolClient {
   }
 
   @Override
-  public Screen getScreen() {
+  protected Screen buildScreen() {
     Dimension size = client.getScreenDimensions();
     Screen screen = new Screen(size);
     int lastLinealPosition = size.width * size.height;
@@ -342,11 +358,49 @@ public class Tn5250Client extends BaseProtocolClient {
 
   @Override
   protected void doDisconnect() {
-    stableTimeoutExecutor.shutdownNow();
     stableTimeoutExecutor = null;
     client.disconnect();
   }
 
+  private class ScreenVersionListener implements XI5250EmulatorListener {
+
+    @Override
+    public void connecting(XI5250EmulatorEvent event) {
+      incrementScreenVersion();
+    }
+
+    @Override
+    public void connected(XI5250EmulatorEvent event) {
+      incrementScreenVersion();
+    }
+
+    @Override
+    public void disconnected(XI5250EmulatorEvent event) {
+      incrementScreenVersion();
+    }
+
+    @Override
+    public void stateChanged(XI5250EmulatorEvent event) {
+      incrementScreenVersion();
+    }
+
+    @Override
+    public void newPanelReceived(XI5250EmulatorEvent event) {
+      incrementScreenVersion();
+    }
+
+    @Override
+    public void fieldsRemoved(XI5250EmulatorEvent event) {
+      incrementScreenVersion();
+    }
+
+    @Override
+    public void dataSended(XI5250EmulatorEvent event) {
+      incrementScreenVersion();
+    }
+
+  }
+
   private static class KeyEventMap {
 
     private final int modifier;
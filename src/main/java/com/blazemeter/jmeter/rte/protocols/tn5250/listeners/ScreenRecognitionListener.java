@@ -0,0 +1,81 @@
+package com.blazemeter.jmeter.rte.protocols.tn5250.listeners;
+
+import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.blazemeter.jmeter.rte.core.wait.ScreenRecognizer;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
+import com.blazemeter.jmeter.rte.protocols.tn5250.Tn5250Client;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import net.infordata.em.tn5250.XI5250EmulatorEvent;
+
+public class ScreenRecognitionListener extends Tn5250ConditionWaiter<ScreenWaitCondition> {
+
+  private static final List<String> EVENT_NAMES = getEventNames();
+
+  private ScreenRecognizer recognizer;
+
+  public ScreenRecognitionListener(ScreenWaitCondition condition, Tn5250Client client,
+      ScheduledExecutorService stableTimeoutExecutor, ExceptionHandler exceptionHandler) {
+    super(condition, client, stableTimeoutExecutor, exceptionHandler);
+  }
+
+  @Override
+  public void connecting(XI5250EmulatorEvent event) {
+    handleReceivedEvent(event);
+  }
+
+  @Override
+  public void connected(XI5250EmulatorEvent event) {
+    handleReceivedEvent(event);
+  }
+
+  @Override
+  public void disconnected(XI5250EmulatorEvent event) {
+    handleReceivedEvent(event);
+  }
+
+  @Override
+  public void stateChanged(XI5250EmulatorEvent event) {
+    handleReceivedEvent(event);
+  }
+
+  @Override
+  public void newPanelReceived(XI5250EmulatorEvent event) {
+    handleReceivedEvent(event);
+  }
+
+  @Override
+  public void fieldsRemoved(XI5250EmulatorEvent event) {
+    handleReceivedEvent(event);
+  }
+
+  @Override
+  public void dataSended(XI5250EmulatorEvent event) {
+    handleReceivedEvent(event);
+  }
+
+  @Override
+  protected boolean getCurrentConditionState() {
+    // initialized here since this method is invoked from super constructor
+    if (recognizer == null) {
+      recognizer = condition.buildRecognizer();
+    }
+    return recognizer.recognize(client.getScreen()) != null;
+  }
+
+  @Override
+  protected boolean isConditionMatchChanged() {
+    return recognizer.isRecognizedChanged();
+  }
+
+  @Override
+  protected WaitCondition buildCompletedCondition() {
+    return condition.withRecognizedScreen(recognizer.getRecognized());
+  }
+
+  private void handleReceivedEvent(XI5250EmulatorEvent event) {
+    updateConditionState(EVENT_NAMES.get(event.getID()));
+  }
+
+}
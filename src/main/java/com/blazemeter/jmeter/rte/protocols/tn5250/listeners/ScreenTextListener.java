@@ -1,6 +1,7 @@
 package com.blazemeter.jmeter.rte.protocols.tn5250.listeners;
 
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.blazemeter.jmeter.rte.core.wait.IncrementalTextMatcher;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.protocols.tn5250.Tn5250Client;
 import java.util.List;
@@ -9,6 +10,8 @@ import net.infordata.em.tn5250.XI5250EmulatorEvent;
 
 public class ScreenTextListener extends Tn5250ConditionWaiter<TextWaitCondition> {
 
+  private IncrementalTextMatcher textMatcher;
+
   private static final List<String> EVENT_NAMES = getEventNames();
 
   public ScreenTextListener(TextWaitCondition condition, Tn5250Client client,
@@ -53,7 +56,11 @@ public class ScreenTextListener extends Tn5250ConditionWaiter<TextWaitCondition>
 
   @Override
   protected boolean getCurrentConditionState() {
-    return condition.matchesScreen(client.getScreen());
+    // initialized here since this method is invoked from super constructor
+    if (textMatcher == null) {
+      textMatcher = condition.buildIncrementalMatcher();
+    }
+    return textMatcher.matches(client.getScreen());
   }
 
   private void handleReceivedEvent(XI5250EmulatorEvent event) {
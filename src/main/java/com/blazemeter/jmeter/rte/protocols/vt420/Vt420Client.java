@@ -6,21 +6,26 @@ import com.blazemeter.jmeter.rte.core.CharacterBasedProtocolClient;
 import com.blazemeter.jmeter.rte.core.Input;
 import com.blazemeter.jmeter.rte.core.NavigationInput;
 import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Protocol;
 import com.blazemeter.jmeter.rte.core.Screen;
 import com.blazemeter.jmeter.rte.core.TerminalType;
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
 import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
 import com.blazemeter.jmeter.rte.core.wait.ConditionWaiter;
 import com.blazemeter.jmeter.rte.core.wait.ConnectionEndWaiter;
 import com.blazemeter.jmeter.rte.core.wait.CursorWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.DisconnectWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.SilentWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.StableTimeoutScheduler;
 import com.blazemeter.jmeter.rte.core.wait.SyncWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
 import com.blazemeter.jmeter.rte.protocols.vt420.listeners.DisconnectListener;
+import com.blazemeter.jmeter.rte.protocols.vt420.listeners.ScreenRecognitionListener;
 import com.blazemeter.jmeter.rte.protocols.vt420.listeners.ScreenTextListener;
 import com.blazemeter.jmeter.rte.protocols.vt420.listeners.SilenceListener;
 import com.blazemeter.jmeter.rte.protocols.vt420.listeners.UnlockListener;
@@ -38,7 +43,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -56,6 +60,8 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
   public static final Map<NavigationType, String> NAVIGATION_KEYS = buildNavigationKeysMapping();
   public static final Map<AttentionKey, String> ATTENTION_KEYS = buildAttKeysMapping();
   private static final Logger LOG = LoggerFactory.getLogger(Vt420Client.class);
+  // time without screen changes after which an echo not matching expected cursor is complete
+  private static final long ECHO_QUIET_PERIOD_MILLIS = 100;
   private TerminalClient client;
   private Map<TerminalStateListener, Vt420TerminalStateListenerProxy> listeners =
       new ConcurrentHashMap<>();
@@ -106,6 +112,11 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
     };
   }
 
+  @Override
+  protected boolean isFieldIndexSupported() {
+    return false;
+  }
+
   @Override
   protected void setField(Input input, long echoTimeoutMillis) {
     if (input instanceof NavigationInput) {
@@ -162,7 +173,63 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
     IntStream.range(0, navigationInput.getRepeat())
         .forEach(e -> input.add(NAVIGATION_KEYS.get(navigationInput.getNavigationType())));
     input.addAll(textToList(navigationInput.getInput()));
-    sendCharacterByOneAtATime(input, echoTimeoutMillis);
+    sendCharacters(input, echoTimeoutMillis);
+  }
+
+  private void sendCharacters(List<String> characters, long echoTimeoutMillis) {
+    int window = RTESampler.getCharacterSendWindow();
+    if (window == 1) {
+      sendCharacterByOneAtATime(characters, echoTimeoutMillis);
+    } else {
+      sendPipelined(characters, window <= 0 ? characters.size() : window, echoTimeoutMillis);
+    }
+  }
+
+  /*
+  Writes characters in windows, waiting for the echo of each window before sending the next one,
+  instead of waiting for the echo of each character. The echo is verified by the emulator thread
+  against the cursor position expected after the window is typed.
+   */
+  private void sendPipelined(List<String> characters, int window, long timeoutMillis) {
+    for (int i = 0; i < characters.size(); i += window) {
+      String text = String.join("", characters.subList(i,
+          Math.min(i + window, characters.size())));
+      EchoListener echoListener = new EchoListener(getExpectedCursorPosition(text));
+      client.addScreenChangeListener(echoListener);
+      try {
+        client.sendTextByCurrentCursorPosition(text);
+        if (!echoListener.await(timeoutMillis)) {
+          exceptionHandler.setPendingError(
+              new TimeoutException("No server response after waiting '" + timeoutMillis
+                  + "' milliseconds when sending '" + text + "'."));
+          return;
+        }
+      } catch (IOException e) {
+        exceptionHandler.setPendingError(e);
+        return;
+      } catch (InterruptedException ex) {
+        LOG.debug("Send of '{}' has been interrupted", text, ex);
+        exceptionHandler.setPendingError(ex);
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        client.removeScreenChangeListener(echoListener);
+      }
+    }
+  }
+
+  /*
+  Only printable texts typed in the same row have a predictable cursor position, for the rest
+  (e.g.: navigation keys or texts wrapping lines) any screen change is considered the echo.
+   */
+  private Position getExpectedCursorPosition(String text) {
+    if (!text.chars().allMatch(c -> c >= ' ' && c != '\u007f')) {
+      return null;
+    }
+    return getCursorPosition()
+        .filter(p -> p.getColumn() + text.length() <= client.getScreenSize().width)
+        .map(p -> new Position(p.getRow(), p.getColumn() + text.length()))
+        .orElse(null);
   }
 
   protected void sendAttentionKey(AttentionKey attentionKey) {
@@ -194,6 +261,9 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
       return new VisibleCursorListener((CursorWaitCondition) waitCondition, this,
           stableTimeoutExecutor,
           exceptionHandler);
+    } else if (waitCondition instanceof ScreenWaitCondition) {
+      return new ScreenRecognitionListener((ScreenWaitCondition) waitCondition, this,
+          stableTimeoutExecutor, exceptionHandler);
     } else if (waitCondition instanceof DisconnectWaitCondition) {
       return new DisconnectListener((DisconnectWaitCondition) waitCondition, this,
           stableTimeoutExecutor, exceptionHandler);
@@ -205,7 +275,6 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
   @Override
   protected void doDisconnect() {
     try {
-      stableTimeoutExecutor.shutdownNow();
       stableTimeoutExecutor = null;
       client.disconnect();
     } catch (IOException e) {
@@ -220,10 +289,15 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
   }
 
   @Override
-  public void connect(String server, int port, SSLType sslType, TerminalType terminalType,
+  protected Protocol getProtocol() {
+    return Protocol.VT420;
+  }
+
+  @Override
+  protected void doConnect(String server, int port, SSLType sslType, TerminalType terminalType,
       long timeoutMillis) throws RteIOException {
     client = new TerminalClient(terminalType.getScreenSize(), terminalType.getId());
-    stableTimeoutExecutor = Executors.newSingleThreadScheduledExecutor(NAMED_THREAD_FACTORY);
+    stableTimeoutExecutor = StableTimeoutScheduler.getInstance().getExecutor(this);
     exceptionHandler = new ExceptionHandler(server);
     client.setSocketFactory(getSocketFactory(sslType, server));
     ConnectionEndWaiter connectionEndWaiter = new ConnectionEndWaiter(timeoutMillis);
@@ -243,12 +317,15 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
         connectionEndWaiter.stop();
       }
     });
+    incrementScreenVersion();
+    client.addScreenChangeListener(screen -> incrementScreenVersion());
     listeners.forEach((stateListener, listenerProxy) -> client
         .addScreenChangeListener(listeners.get(stateListener)));
 
     try {
       client.connect(server, port, (int) timeoutMillis);
       connectionEndWaiter.await();
+      markPhase(SamplePhase.NEGOTIATION);
     } catch (ConnectionException e) {
       LOG.error("Connection error: ", e);
       throw new RteIOException(new Throwable("Connection error"), server);
@@ -282,7 +359,7 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
   }
 
   @Override
-  public Screen getScreen() {
+  protected Screen buildScreen() {
     return Screen.buildScreenFromText(client.getScreen(), client.getScreenSize());
   }
 
@@ -327,6 +404,52 @@ public class Vt420Client extends BaseProtocolClient implements CharacterBasedPro
         RTESampler.getCharacterTimeout());
   }
 
+  private class EchoListener implements ScreenChangeListener {
+
+    private final Position expectedCursorPosition;
+    private final Semaphore screenChanges = new Semaphore(0);
+    private volatile boolean echoed;
+
+    private EchoListener(Position expectedCursorPosition) {
+      this.expectedCursorPosition = expectedCursorPosition;
+    }
+
+    @Override
+    public void screenChanged(String screen) {
+      if (expectedCursorPosition == null || getCursorPosition()
+          .map(expectedCursorPosition::equals)
+          .orElse(true)) {
+        echoed = true;
+      }
+      screenChanges.release();
+    }
+
+    /*
+    some hosts echo typed text in a different way (e.g.: adjusting it to field length or moving to
+    next field), so once the screen has changed, the echo is considered complete when the cursor
+    reaches expected position or when the screen stops changing for a short period.
+     */
+    private boolean await(long timeoutMillis) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      long waitNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      boolean screenChanged = false;
+      while (screenChanges.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+        if (echoed) {
+          return true;
+        }
+        screenChanged = true;
+        waitNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(ECHO_QUIET_PERIOD_MILLIS),
+            deadline - System.nanoTime());
+      }
+      if (screenChanged) {
+        LOG.warn("Cursor did not reach expected position {} after sending characters",
+            expectedCursorPosition);
+      }
+      return screenChanged;
+    }
+
+  }
+
   public void setExceptionHandler(ExceptionHandler exceptionHandler) {
     this.exceptionHandler = exceptionHandler;
   }
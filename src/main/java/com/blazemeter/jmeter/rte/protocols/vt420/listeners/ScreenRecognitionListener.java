@@ -0,0 +1,52 @@
+package com.blazemeter.jmeter.rte.protocols.vt420.listeners;
+
+import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.blazemeter.jmeter.rte.core.wait.ScreenRecognizer;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
+import com.blazemeter.jmeter.rte.protocols.vt420.Vt420Client;
+import java.util.concurrent.ScheduledExecutorService;
+import nl.lxtreme.jvt220.terminal.ScreenChangeListener;
+
+public class ScreenRecognitionListener extends Vt420ConditionWaiter<ScreenWaitCondition>
+    implements ScreenChangeListener {
+
+  private ScreenRecognizer recognizer;
+
+  public ScreenRecognitionListener(ScreenWaitCondition condition, Vt420Client client,
+      ScheduledExecutorService stableTimeoutExecutor, ExceptionHandler exceptionHandler) {
+    super(condition, client, stableTimeoutExecutor, exceptionHandler);
+    client.addScreenChangeListener(this);
+  }
+
+  @Override
+  public void screenChanged(String s) {
+    updateConditionState(SCREEN_CHANGED);
+  }
+
+  @Override
+  public void stop() {
+    super.stop();
+    client.removeScreenChangeListener(this);
+  }
+
+  @Override
+  protected boolean getCurrentConditionState() {
+    // initialized here since this method is invoked from super constructor
+    if (recognizer == null) {
+      recognizer = condition.buildRecognizer();
+    }
+    return recognizer.recognize(client.getScreen()) != null;
+  }
+
+  @Override
+  protected boolean isConditionMatchChanged() {
+    return recognizer.isRecognizedChanged();
+  }
+
+  @Override
+  protected WaitCondition buildCompletedCondition() {
+    return condition.withRecognizedScreen(recognizer.getRecognized());
+  }
+
+}
@@ -1,6 +1,7 @@
 package com.blazemeter.jmeter.rte.protocols.vt420.listeners;
 
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.blazemeter.jmeter.rte.core.wait.IncrementalTextMatcher;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.protocols.vt420.Vt420Client;
 import java.util.concurrent.ScheduledExecutorService;
@@ -9,6 +10,8 @@ import nl.lxtreme.jvt220.terminal.ScreenChangeListener;
 public class ScreenTextListener extends Vt420ConditionWaiter<TextWaitCondition> implements
     ScreenChangeListener {
 
+  private IncrementalTextMatcher textMatcher;
+
   public ScreenTextListener(TextWaitCondition condition,
       Vt420Client client,
       ScheduledExecutorService stableTimeoutExecutor,
@@ -30,6 +33,10 @@ public class ScreenTextListener extends Vt420ConditionWaiter<TextWaitCondition>
 
   @Override
   protected boolean getCurrentConditionState() {
-    return condition.matchesScreen(client.getScreen());
+    // initialized here since this method is invoked from super constructor
+    if (textMatcher == null) {
+      textMatcher = condition.buildIncrementalMatcher();
+    }
+    return textMatcher.matches(client.getScreen());
   }
 }
@@ -216,10 +216,12 @@ public class RTERecorder extends GenericController implements TerminalEmulatorLi
         .findTargetControllerNode(getJmeterTreeModel());
     addTestElementToTestPlan(buildRteConfigElement(), responseAssertions, samplersTargetNode);
     notifyChildren(TestStateListener.class, TestStateListener::testStarted);
+    RTESampler.configureConnectionAdmission();
     String sampleName = buildSampleName(Action.CONNECT);
     resultBuilder = buildSampleResultBuilder(Action.CONNECT, sampleName);
     sampler = buildSampler(Action.CONNECT, null, null, sampleName);
     terminalClient = protocolFactory.apply(getProtocol());
+    resultBuilder.withTrafficSource(terminalClient);
     terminalClient.setDisconnectionHandler(buildDisconnectionHandler());
     TerminalType terminalType = getTerminalType();
     waitConditionsRecorder = new WaitConditionsRecorder(terminalClient,
@@ -337,7 +339,8 @@ public class RTERecorder extends GenericController implements TerminalEmulatorLi
         .withSslType(getSSLType())
         .withAction(action);
     if (action != Action.CONNECT) {
-      ret.withInputInhibitedRequest(terminalClient.isInputInhibited().orElse(false));
+      ret.withInputInhibitedRequest(terminalClient.isInputInhibited().orElse(false))
+          .withTrafficSource(terminalClient);
     }
     return ret;
   }
@@ -46,7 +46,7 @@ public class TextWaitRecorder extends WaitConditionRecorder {
   @Override
   public synchronized void onTerminalStateChange() {
     Screen screen = rteProtocolClient.getScreen();
-    if (screenshots.isEmpty() || !screenshots.getLast().screen.equals(screen)) {
+    if (screenshots.isEmpty() || screenshots.getLast().screen.getFingerprint() != screen.getFingerprint()) {
       screenshots.add(new Screenshot(screen, clock.instant()));
     }
   }
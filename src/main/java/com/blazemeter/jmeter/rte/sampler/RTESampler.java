@@ -7,39 +7,69 @@ import com.blazemeter.jmeter.rte.core.LabelInput;
 import com.blazemeter.jmeter.rte.core.NavigationInput;
 import com.blazemeter.jmeter.rte.core.Position;
 import com.blazemeter.jmeter.rte.core.Protocol;
+import com.blazemeter.jmeter.rte.core.ResponseCaptureMode;
 import com.blazemeter.jmeter.rte.core.RteProtocolClient;
 import com.blazemeter.jmeter.rte.core.RteSampleResultBuilder;
+import com.blazemeter.jmeter.rte.core.SegmentsHeaderMode;
 import com.blazemeter.jmeter.rte.core.ServerDisconnectHandler;
 import com.blazemeter.jmeter.rte.core.TerminalType;
 import com.blazemeter.jmeter.rte.core.exceptions.ConnectionClosedException;
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
 import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
 import com.blazemeter.jmeter.rte.core.listener.RequestListener;
+import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
+import com.blazemeter.jmeter.rte.core.monitor.RteEngineMonitor;
+import com.blazemeter.jmeter.rte.core.pool.ConnectionAdmissionController;
+import com.blazemeter.jmeter.rte.core.pool.RteSessionPool;
+import com.blazemeter.jmeter.rte.core.pool.SessionKey;
+import com.blazemeter.jmeter.rte.core.pool.SessionWarmUp;
+import com.blazemeter.jmeter.rte.core.ssl.SSLContextFactory;
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.store.ScreenStore;
+import com.blazemeter.jmeter.rte.core.timing.PhaseTimer;
+import com.blazemeter.jmeter.rte.core.timing.PhaseTimingListener;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
 import com.blazemeter.jmeter.rte.core.wait.Area;
 import com.blazemeter.jmeter.rte.core.wait.CursorWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.DisconnectWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.ScreenSignature;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.SilentWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.StablePeriodLearner;
+import com.blazemeter.jmeter.rte.core.wait.StableTimeoutScheduler;
 import com.blazemeter.jmeter.rte.core.wait.SyncWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitMode;
 import com.helger.commons.annotation.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.apache.jmeter.engine.event.LoopIterationEvent;
 import org.apache.jmeter.engine.event.LoopIterationListener;
 import org.apache.jmeter.samplers.AbstractSampler;
 import org.apache.jmeter.samplers.Entry;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.testelement.TestElement;
+import org.apache.jmeter.testelement.TestStateListener;
 import org.apache.jmeter.testelement.ThreadListener;
+import org.apache.jmeter.testelement.property.FunctionProperty;
 import org.apache.jmeter.testelement.property.JMeterProperty;
+import org.apache.jmeter.testelement.property.MultiProperty;
+import org.apache.jmeter.testelement.property.PropertyIterator;
 import org.apache.jmeter.testelement.property.TestElementProperty;
 import org.apache.jmeter.threads.JMeterVariables;
 import org.apache.jmeter.util.JMeterUtils;
@@ -47,7 +77,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class RTESampler extends AbstractSampler implements ThreadListener,
-    LoopIterationListener {
+    LoopIterationListener, TestStateListener {
 
   public static final String CONFIG_PORT = "RTEConnectionConfig.port";
   public static final String CONFIG_SERVER = "RTEConnectionConfig.server";
@@ -63,6 +93,7 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
   public static final TerminalType DEFAULT_TERMINAL_TYPE = DEFAULT_PROTOCOL.createProtocolClient()
       .getDefaultTerminalType();
   public static final SSLType DEFAULT_SSL_TYPE = SSLType.NONE;
+  public static final WaitMode DEFAULT_WAIT_MODE = WaitMode.ALL;
 
   @VisibleForTesting
   @SuppressWarnings("WeakerAccess")
@@ -82,6 +113,10 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
   protected static final long DEFAULT_WAIT_TEXT_TIMEOUT_MILLIS = 30000;
   @VisibleForTesting
   protected static final long DEFAULT_WAIT_CURSOR_TIMEOUT_MILLIS = 30000;
+  @VisibleForTesting
+  protected static final long DEFAULT_WAIT_SCREENS_TIMEOUT_MILLIS = 30000;
+  @VisibleForTesting
+  protected static final String DEFAULT_WAIT_SCREENS_VARIABLE = "RTE_SCREEN";
 
   //If users wants to change Stable Timeout value it should be specified in
   // jmeter.properties by adding a line like ths one:
@@ -104,18 +139,73 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
   private static final String WAIT_TEXT_AREA_BOTTOM_PROPERTY = "RTESampler.waitTextAreaBottom";
   private static final String WAIT_TEXT_AREA_RIGHT_PROPERTY = "RTESampler.waitTextAreaRight";
   private static final String WAIT_TEXT_TIMEOUT_PROPERTY = "RTESampler.waitTextTimeout";
+  private static final String WAIT_SCREENS_PROPERTY = "RTESampler.waitScreens";
+  private static final String WAIT_SCREENS_SIGNATURES_PROPERTY = "RTESampler.waitScreensSignatures";
+  private static final String WAIT_SCREENS_VARIABLE_PROPERTY = "RTESampler.waitScreensVariable";
+  private static final String WAIT_SCREENS_TIMEOUT_PROPERTY = "RTESampler.waitScreensTimeout";
   private static final String CONFIG_CHARACTER_TIMEOUT = "RTEConnectionConfig"
       + ".characterTimeoutMillis";
+  private static final String CONFIG_CHARACTER_SEND_WINDOW = "RTEConnectionConfig"
+      + ".characterSendWindow";
   private static final String WAIT_DISCONNECT_PROPERTY = "RTESampler.waitDisconnect";
   private static final String WAIT_DISCONNECT_TIMEOUT_PROPERTY = "RTESampler.waitDisconnectTimeout";
+  private static final String WAIT_MODE_PROPERTY = "RTESampler.waitMode";
+  private static final String SESSION_POOL_PROPERTY = "RTEConnectionConfig.sessionPool";
+  private static final String SESSION_POOL_MAX_TOTAL_PROPERTY =
+      "RTEConnectionConfig.sessionPoolMaxTotal";
+  private static final String SESSION_POOL_MAX_IDLE_PROPERTY =
+      "RTEConnectionConfig.sessionPoolMaxIdle";
+  private static final String SESSION_POOL_MAX_IDLE_TIME_PROPERTY =
+      "RTEConnectionConfig.sessionPoolMaxIdleTimeMillis";
+  private static final String SESSION_POOL_MAX_WAIT_PROPERTY =
+      "RTEConnectionConfig.sessionPoolMaxWaitMillis";
+  private static final String SEGMENTS_HEADER_MODE_PROPERTY =
+      "RTEConnectionConfig.segmentsHeaderMode";
+  private static final String RESPONSE_CAPTURE_PROPERTY = "RTEConnectionConfig.responseCapture";
+  private static final String RESPONSE_CAPTURE_SAMPLE_RATE_PROPERTY =
+      "RTEConnectionConfig.responseCaptureSampleRate";
+  private static final String PHASE_SUB_RESULTS_PROPERTY = "RTEConnectionConfig.phaseSubResults";
+  private static final String PHASE_VARIABLE_PREFIX = "RTE_PHASE_";
+  private static final String SESSION_BYTES_RECEIVED_VARIABLE = "RTE_SESSION_BYTES_RECEIVED";
+  private static final String SESSION_BYTES_SENT_VARIABLE = "RTE_SESSION_BYTES_SENT";
+  private static final String SCREEN_STORE_FILE_PROPERTY = "RTEConnectionConfig.screenStoreFile";
+  private static final String ADAPTIVE_STABLE_PERIOD_PROPERTY =
+      "RTEConnectionConfig.adaptiveStablePeriod";
+  private static final String ADAPTIVE_STABLE_MARGIN_PROPERTY =
+      "RTEConnectionConfig.adaptiveStableMarginMillis";
 
   private static final Logger LOG = LoggerFactory.getLogger(RTESampler.class);
   private static final long DEFAULT_CHARACTER_TIMEOUT_MILLIS = 60000;
   private static final long DEFAULT_DISCONNECT_TIMEOUT_MILLIS = 10000;
-  private static final ThreadLocal<Map<String, RteProtocolClient>> CONNECTIONS = ThreadLocal
+  private static final long DEFAULT_SESSION_POOL_MAX_IDLE_TIME_MILLIS = 300000;
+  private static final long DEFAULT_ADAPTIVE_STABLE_MARGIN_MILLIS = 100;
+  private static final int DEFAULT_RESPONSE_CAPTURE_SAMPLE_RATE = 10;
+  private static final String WARM_UP_PROPERTY = "RTEConnectionConfig.warmUp";
+  private static final String MAX_CONNECTING_PER_SERVER_PROPERTY =
+      "RTEConnectionConfig.maxConnectingPerServer";
+  private static final String MAX_SESSIONS_PER_SERVER_PROPERTY =
+      "RTEConnectionConfig.maxSessionsPerServer";
+  private static final String WARM_UP_CONNECTS_PER_SECOND_PROPERTY =
+      "RTEConnectionConfig.warmUpConnectsPerSecond";
+  private static final ThreadLocal<Map<SessionKey, RteProtocolClient>> CONNECTIONS = ThreadLocal
       .withInitial(HashMap::new);
+  // sessions which warm up has already been attempted for in current thread
+  private static final ThreadLocal<Set<SessionKey>> WARMED_UP_SESSIONS = ThreadLocal
+      .withInitial(HashSet::new);
+  // warmed up sessions not yet used by any sample in current thread
+  private static final ThreadLocal<Set<SessionKey>> PENDING_WARM_SESSIONS = ThreadLocal
+      .withInitial(HashSet::new);
+  private static final AtomicLong SUCCESSFUL_SAMPLES = new AtomicLong();
+  private static RteSessionPool sessionPool;
+  private static SessionWarmUp sessionWarmUp;
+  private static StablePeriodLearner stablePeriodLearner;
+  private static ScreenStore screenStore;
+  private static boolean screenStoreUnavailable;
 
   private final transient Function<Protocol, RteProtocolClient> protocolFactory;
+  private transient ExecutionPlan executionPlan;
+  private transient long propertiesVersion;
+  private transient long executionPlanVersion;
 
   public RTESampler() {
     this(Protocol::createProtocolClient);
@@ -202,6 +292,28 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     JMeterUtils.setProperty(REUSE_CONNECTIONS_PROPERTY, Boolean.toString(doReuse));
   }
 
+  private static boolean isWarmUp() {
+    return JMeterUtils.getPropDefault(WARM_UP_PROPERTY, false);
+  }
+
+  @VisibleForTesting
+  protected void setWarmUp(boolean warmUp) {
+    JMeterUtils.setProperty(WARM_UP_PROPERTY, Boolean.toString(warmUp));
+  }
+
+  private boolean isSessionPoolEnabled() {
+    return JMeterUtils.getPropDefault(SESSION_POOL_PROPERTY, false);
+  }
+
+  @VisibleForTesting
+  protected void setSessionPoolEnabled(boolean enabled) {
+    JMeterUtils.setProperty(SESSION_POOL_PROPERTY, Boolean.toString(enabled));
+  }
+
+  private long getSessionPoolMaxWaitMillis(ExecutionPlan plan) {
+    return JMeterUtils.getPropDefault(SESSION_POOL_MAX_WAIT_PROPERTY, plan.connectionTimeout);
+  }
+
   private SSLType getSSLType() {
     return SSLType.valueOf(getPropertyAsString(CONFIG_SSL_TYPE));
   }
@@ -413,6 +525,43 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     return getLongProperty(WAIT_TEXT_TIMEOUT_PROPERTY, DEFAULT_WAIT_TEXT_TIMEOUT_MILLIS);
   }
 
+  public boolean getWaitScreens() {
+    return getPropertyAsBoolean(WAIT_SCREENS_PROPERTY);
+  }
+
+  public void setWaitScreens(boolean waitScreens) {
+    setProperty(WAIT_SCREENS_PROPERTY, waitScreens);
+  }
+
+  public String getWaitScreensSignatures() {
+    return getPropertyAsString(WAIT_SCREENS_SIGNATURES_PROPERTY);
+  }
+
+  public void setWaitScreensSignatures(String signatures) {
+    setProperty(WAIT_SCREENS_SIGNATURES_PROPERTY, signatures);
+  }
+
+  public String getWaitScreensVariable() {
+    return getPropertyAsString(WAIT_SCREENS_VARIABLE_PROPERTY, DEFAULT_WAIT_SCREENS_VARIABLE);
+  }
+
+  public void setWaitScreensVariable(String variable) {
+    setProperty(WAIT_SCREENS_VARIABLE_PROPERTY, variable);
+  }
+
+  public String getWaitScreensTimeout() {
+    return getPropertyAsString(WAIT_SCREENS_TIMEOUT_PROPERTY,
+        String.valueOf(DEFAULT_WAIT_SCREENS_TIMEOUT_MILLIS));
+  }
+
+  public void setWaitScreensTimeout(String timeout) {
+    setProperty(WAIT_SCREENS_TIMEOUT_PROPERTY, timeout);
+  }
+
+  private long getWaitScreensTimeoutValue() {
+    return getLongProperty(WAIT_SCREENS_TIMEOUT_PROPERTY, DEFAULT_WAIT_SCREENS_TIMEOUT_MILLIS);
+  }
+
   public boolean getWaitDisconnect() {
     return getPropertyAsBoolean(WAIT_DISCONNECT_PROPERTY, false);
   }
@@ -430,6 +579,17 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     setProperty(WAIT_DISCONNECT_TIMEOUT_PROPERTY, timeout);
   }
 
+  public WaitMode getWaitMode() {
+    if (getPropertyAsString(WAIT_MODE_PROPERTY).isEmpty()) {
+      return DEFAULT_WAIT_MODE;
+    }
+    return WaitMode.valueOf(getPropertyAsString(WAIT_MODE_PROPERTY));
+  }
+
+  public void setWaitMode(WaitMode waitMode) {
+    setProperty(WAIT_MODE_PROPERTY, waitMode.name());
+  }
+
   public void setWaitConditions(List<WaitCondition> waitConditions) {
     setWaitSync(false);
     for (WaitCondition waitCondition : waitConditions) {
@@ -451,6 +611,11 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
       setWaitTextAreaBottom(String.valueOf(searchArea.getBottom()));
       setWaitTextAreaRight(String.valueOf(searchArea.getRight()));
       setWaitTextTimeout(String.valueOf(condition.getTimeoutMillis()));
+    } else if (condition instanceof ScreenWaitCondition) {
+      setWaitScreens(true);
+      setWaitScreensSignatures(
+          ScreenSignature.toTable(((ScreenWaitCondition) condition).getSignatures()));
+      setWaitScreensTimeout(String.valueOf(condition.getTimeoutMillis()));
     } else if (condition instanceof CursorWaitCondition) {
       CursorWaitCondition cursorWait = (CursorWaitCondition) condition;
       setWaitCursor(true);
@@ -499,46 +664,76 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
 
   @Override
   public SampleResult sample(Entry entry) {
-    RteSampleResultBuilder resultBuilder = buildSampleResultBuilder();
+    ExecutionPlan plan = getExecutionPlan();
+    if (isWarmUp()) {
+      warmUpSession(plan);
+    }
+    RteSampleResultBuilder resultBuilder = buildSampleResultBuilder(plan);
+    SampleResult result = sample(resultBuilder, plan);
+    storePhaseVariables(resultBuilder.getPhaseTimer());
+    storeSessionTrafficVariables(resultBuilder.getTrafficSource());
+    return result;
+  }
+
+  private SampleResult sample(RteSampleResultBuilder resultBuilder, ExecutionPlan plan) {
     RteProtocolClient client = null;
 
     try {
-      client = getClient();
-      configureWaitForDisconnect(client);
-      if (getAction() == Action.DISCONNECT) {
+      client = CONNECTIONS.get().get(plan.sessionKey);
+      resultBuilder.withTrafficSource(client);
+      PENDING_WARM_SESSIONS.get().remove(plan.sessionKey);
+      configureWaitForDisconnect(client, plan);
+      if (plan.action == Action.DISCONNECT) {
         if (client != null) {
-          disconnect(client);
+          disconnect(client, plan);
         }
         return resultBuilder.withSuccessResponse(null)
             .build();
       }
       if (client == null) {
-        client = buildClient();
-        resultBuilder.withConnectEndNow();
-        if (getAction() == Action.SEND_INPUT) {
-          client.await(Collections
-              .singletonList(new SyncWaitCondition(getConnectionTimeout(), getStableTimeout())));
-        }
+        client = isSessionPoolEnabled() ? borrowClient(resultBuilder, plan)
+            : buildClient(resultBuilder, plan);
+        // reused pooled sessions are not connected by this sample
+        resultBuilder.withTrafficSource(client);
       }
+      client.setPhaseTimer(resultBuilder.getPhaseTimer());
       RequestListener<RteProtocolClient> requestListener = new RequestListener<>(resultBuilder,
           client);
       client.addTerminalStateListener(requestListener);
+      PhaseTimingListener phaseTimingListener = new PhaseTimingListener(client,
+          resultBuilder.getPhaseTimer());
+      client.addTerminalStateListener(phaseTimingListener);
+      TerminalStateListener gapRecorder = null;
 
       try {
-        if (getAction() == Action.SEND_INPUT) {
+        if (plan.action == Action.SEND_INPUT) {
           resultBuilder.withInputInhibitedRequest(client.isInputInhibited().orElse(false))
-              .withAttentionKey(getAttentionKey())
-              .withInputs(getInputs());
-          client.send(getInputs(), getAttentionKey(), getCharacterTimeout());
+              .withAttentionKey(plan.attentionKey)
+              .withInputs(plan.getInputs());
+          client.send(plan.getInputs(), plan.attentionKey, getCharacterTimeout());
         }
-        List<WaitCondition> waiters = getWaitersList();
+        List<WaitCondition> waiters = plan.getWaitConditions();
         if (!waiters.isEmpty()) {
-          client.await(waiters);
+          if (isAdaptiveStablePeriod()) {
+            waiters = plan.getWaitConditions(getStablePeriodLearner()
+                .getStablePeriodMillis(getName(), plan.stableTimeoutMillis));
+            gapRecorder = getStablePeriodLearner().buildGapRecorder(getName());
+            client.addTerminalStateListener(gapRecorder);
+          }
+          clearRecognizedScreenVariable(plan);
+          List<WaitCondition> completed = client.await(waiters, plan.waitMode);
+          resultBuilder.withCompletedWaitCondition(
+              completed.isEmpty() ? null : completed.get(completed.size() - 1));
+          storeRecognizedScreenVariable(completed, plan);
         }
         resultBuilder.withSuccessResponse(client);
       } finally {
         client.resetAlarm();
         requestListener.stop();
+        client.removeTerminalStateListener(phaseTimingListener);
+        if (gapRecorder != null) {
+          client.removeTerminalStateListener(gapRecorder);
+        }
       }
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
@@ -557,12 +752,40 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     return resultBuilder.build();
   }
 
-  private void configureWaitForDisconnect(RteProtocolClient client) {
+  /*
+  Variable is cleared before waiting, so a failed wait does not leave the screen recognized by a
+  previous sample.
+   */
+  private void clearRecognizedScreenVariable(ExecutionPlan plan) {
+    JMeterVariables vars = getThreadContext().getVariables();
+    if (vars != null && plan.screenWaitCondition != null) {
+      vars.put(plan.screenVariable, "");
+    }
+  }
+
+  /*
+  The stored screen is the one the screen condition stabilized on, which is kept empty when only
+  other conditions were met.
+   */
+  private void storeRecognizedScreenVariable(List<WaitCondition> completed, ExecutionPlan plan) {
+    JMeterVariables vars = getThreadContext().getVariables();
+    if (vars == null || plan.screenWaitCondition == null) {
+      return;
+    }
+    completed.stream()
+        .filter(c -> c instanceof ScreenWaitCondition)
+        .map(c -> ((ScreenWaitCondition) c).getRecognizedScreen())
+        .filter(Objects::nonNull)
+        .findFirst()
+        .ifPresent(s -> vars.put(plan.screenVariable, s.getName()));
+  }
+
+  private void configureWaitForDisconnect(RteProtocolClient client, ExecutionPlan plan) {
     if (client == null) {
       return;
     }
-    boolean expectedDisconnection =
-        getWaitersList().stream().anyMatch(l -> l instanceof DisconnectWaitCondition);
+    boolean expectedDisconnection = plan.getWaitConditions().stream()
+        .anyMatch(l -> l instanceof DisconnectWaitCondition);
 
     ServerDisconnectHandler serverDisconnectHandler = new ServerDisconnectHandler(
         expectedDisconnection) {
@@ -585,40 +808,439 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     JMeterUtils.setProperty(CONFIG_CHARACTER_TIMEOUT, "" + timeoutMillis);
   }
 
-  private RteSampleResultBuilder buildSampleResultBuilder() {
+  /**
+   * Gets the number of characters sent in each write by character based protocols before waiting
+   * for the server echo.
+   *
+   * @return the number of characters per write. 1 sends one character at a time, and 0 or less
+   * sends the whole input in one write.
+   */
+  public static int getCharacterSendWindow() {
+    return JMeterUtils.getPropDefault(CONFIG_CHARACTER_SEND_WINDOW, 1);
+  }
+
+  @VisibleForTesting
+  public static void setCharacterSendWindow(int window) {
+    JMeterUtils.setProperty(CONFIG_CHARACTER_SEND_WINDOW, String.valueOf(window));
+  }
+
+  private static SegmentsHeaderMode getSegmentsHeaderMode() {
+    String mode = JMeterUtils.getPropDefault(SEGMENTS_HEADER_MODE_PROPERTY,
+        SegmentsHeaderMode.JSON.name());
+    try {
+      return SegmentsHeaderMode.valueOf(mode.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Invalid segments header mode '{}', using {} instead. Valid values are: {}", mode,
+          SegmentsHeaderMode.JSON, Arrays.toString(SegmentsHeaderMode.values()));
+      return SegmentsHeaderMode.JSON;
+    }
+  }
+
+  @VisibleForTesting
+  protected void setSegmentsHeaderMode(SegmentsHeaderMode mode) {
+    JMeterUtils.setProperty(SEGMENTS_HEADER_MODE_PROPERTY, mode.name());
+  }
+
+  private static ResponseCaptureMode getResponseCaptureMode() {
+    String mode = JMeterUtils.getPropDefault(RESPONSE_CAPTURE_PROPERTY,
+        ResponseCaptureMode.ALWAYS.name());
+    try {
+      return ResponseCaptureMode.valueOf(mode.trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      LOG.warn("Invalid response capture mode '{}', using {} instead. Valid values are: {}", mode,
+          ResponseCaptureMode.ALWAYS, Arrays.toString(ResponseCaptureMode.values()));
+      return ResponseCaptureMode.ALWAYS;
+    }
+  }
+
+  @VisibleForTesting
+  protected void setResponseCaptureMode(ResponseCaptureMode mode) {
+    JMeterUtils.setProperty(RESPONSE_CAPTURE_PROPERTY, mode.name());
+  }
+
+  private static int getResponseCaptureSampleRate() {
+    return Math.max(1, JMeterUtils.getPropDefault(RESPONSE_CAPTURE_SAMPLE_RATE_PROPERTY,
+        DEFAULT_RESPONSE_CAPTURE_SAMPLE_RATE));
+  }
+
+  @VisibleForTesting
+  protected void setResponseCaptureSampleRate(int sampleRate) {
+    JMeterUtils.setProperty(RESPONSE_CAPTURE_SAMPLE_RATE_PROPERTY, String.valueOf(sampleRate));
+  }
+
+  private static boolean isSuccessResponseCaptured(ResponseCaptureMode mode) {
+    switch (mode) {
+      case ALWAYS:
+        return true;
+      case SAMPLED:
+        return SUCCESSFUL_SAMPLES.getAndIncrement() % getResponseCaptureSampleRate()
+            == 0;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isPhaseSubResults() {
+    return JMeterUtils.getPropDefault(PHASE_SUB_RESULTS_PROPERTY, false);
+  }
+
+  @VisibleForTesting
+  protected void setPhaseSubResults(boolean phaseSubResults) {
+    JMeterUtils.setProperty(PHASE_SUB_RESULTS_PROPERTY, Boolean.toString(phaseSubResults));
+  }
+
+  private static boolean isAdaptiveStablePeriod() {
+    return JMeterUtils.getPropDefault(ADAPTIVE_STABLE_PERIOD_PROPERTY, false);
+  }
+
+  @VisibleForTesting
+  protected void setAdaptiveStablePeriod(boolean adaptiveStablePeriod) {
+    JMeterUtils.setProperty(ADAPTIVE_STABLE_PERIOD_PROPERTY,
+        Boolean.toString(adaptiveStablePeriod));
+  }
+
+  private static synchronized StablePeriodLearner getStablePeriodLearner() {
+    if (stablePeriodLearner == null) {
+      stablePeriodLearner = new StablePeriodLearner(JMeterUtils.getPropDefault(
+          ADAPTIVE_STABLE_MARGIN_PROPERTY, DEFAULT_ADAPTIVE_STABLE_MARGIN_MILLIS));
+    }
+    return stablePeriodLearner;
+  }
+
+  private static synchronized void reportStablePeriodLearner() {
+    if (stablePeriodLearner != null) {
+      stablePeriodLearner.logSummary();
+      stablePeriodLearner = null;
+    }
+  }
+
+  /*
+  Variables of phases not included in the sample are removed, to avoid keeping values of previous
+  samples.
+   */
+  private void storePhaseVariables(PhaseTimer phaseTimer) {
+    JMeterVariables vars = getThreadContext().getVariables();
+    if (vars == null) {
+      return;
+    }
+    Map<SamplePhase, Long> durations = phaseTimer.getDurations();
+    for (SamplePhase phase : SamplePhase.values()) {
+      Long duration = durations.get(phase);
+      if (duration != null) {
+        vars.put(PHASE_VARIABLE_PREFIX + phase.name(), String.valueOf(duration));
+      } else {
+        vars.remove(PHASE_VARIABLE_PREFIX + phase.name());
+      }
+    }
+  }
+
+  private void storeSessionTrafficVariables(RteProtocolClient client) {
+    JMeterVariables vars = getThreadContext().getVariables();
+    if (vars == null || client == null) {
+      return;
+    }
+    vars.put(SESSION_BYTES_RECEIVED_VARIABLE, String.valueOf(client.getBytesReceived()));
+    vars.put(SESSION_BYTES_SENT_VARIABLE, String.valueOf(client.getBytesSent()));
+  }
+
+  private RteSampleResultBuilder buildSampleResultBuilder(ExecutionPlan plan) {
+    ResponseCaptureMode responseCaptureMode = getResponseCaptureMode();
     return new RteSampleResultBuilder()
+        .withResponseCapture(() -> isSuccessResponseCaptured(responseCaptureMode),
+            responseCaptureMode != ResponseCaptureMode.NEVER)
+        .withSegmentsHeaderMode(getSegmentsHeaderMode())
+        .withPhaseSubResults(isPhaseSubResults())
         .withLabel(getName())
-        .withServer(getServer())
-        .withPort(getPort())
-        .withProtocol(getProtocol())
-        .withTerminalType(getTerminalType())
-        .withSslType(getSSLType())
-        .withAction(getAction());
+        .withServer(plan.server)
+        .withPort(plan.port)
+        .withProtocol(plan.protocol)
+        .withTerminalType(plan.terminalType)
+        .withSslType(plan.sslType)
+        .withAction(plan.action)
+        .withScreenStore(getScreenStore());
+  }
+
+  /*
+  Sampler configuration is compiled in an execution plan which is reused by following samples while
+  properties keep the same values, avoiding resolving terminal type, inputs and wait conditions on
+  each sample. Properties containing functions or variables may change in every sample, so plans
+  are not reused in such case.
+
+  Properties values are only compared when properties have been changed since the plan was
+  compiled, which happens in each sample when a config element is merged into the sampler.
+   */
+  private ExecutionPlan getExecutionPlan() {
+    Inputs inputsElement = getInputsTestElement();
+    long stableTimeoutMillis = getStableTimeout();
+    ExecutionPlan previous = executionPlan;
+    if (previous != null && previous.isCompiledFrom(inputsElement, stableTimeoutMillis)
+        && (executionPlanVersion == propertiesVersion
+        || previous.hasPropertyValues(propertyIterator()))) {
+      executionPlanVersion = propertiesVersion;
+      return previous;
+    }
+    List<String> propertyValues = new ArrayList<>();
+    boolean dynamic = collectPropertyValues(propertyIterator(), propertyValues);
+    ExecutionPlan plan = new ExecutionPlan(this, propertyValues, inputsElement,
+        stableTimeoutMillis, previous);
+    executionPlan = dynamic ? null : plan;
+    executionPlanVersion = propertiesVersion;
+    return plan;
+  }
+
+  @Override
+  public void setProperty(JMeterProperty property) {
+    super.setProperty(property);
+    propertiesVersion++;
+  }
+
+  @Override
+  public void removeProperty(String key) {
+    super.removeProperty(key);
+    propertiesVersion++;
   }
 
-  private RteProtocolClient getClient() {
-    String clientId = buildConnectionId();
-    Map<String, RteProtocolClient> clients = CONNECTIONS.get();
-    return clients.get(clientId);
+  @Override
+  public void clear() {
+    super.clear();
+    propertiesVersion++;
+  }
+
+  @Override
+  public void addTestElement(TestElement element) {
+    super.addTestElement(element);
+    propertiesVersion++;
   }
 
-  private String buildConnectionId() {
-    return getServer() + ":" + getPort();
+  @Override
+  public void recoverRunningVersion() {
+    super.recoverRunningVersion();
+    propertiesVersion++;
   }
 
-  private void disconnect(RteProtocolClient client) throws RteIOException {
-    CONNECTIONS.get().remove(buildConnectionId());
+  /*
+  Nested properties (like inputs) values are not collected, since they are compared by the identity
+  of the test element containing them, but they are checked for functions.
+   */
+  private static boolean collectPropertyValues(PropertyIterator properties,
+      List<String> propertyValues) {
+    boolean dynamic = false;
+    while (properties.hasNext()) {
+      JMeterProperty property = properties.next();
+      if (property instanceof FunctionProperty) {
+        dynamic = true;
+      } else if (property instanceof MultiProperty) {
+        dynamic |= hasFunctions(((MultiProperty) property).iterator());
+      } else {
+        propertyValues.add(property.getName());
+        propertyValues.add(property.getStringValue());
+      }
+    }
+    return dynamic;
+  }
+
+  private static boolean hasFunctions(PropertyIterator properties) {
+    while (properties.hasNext()) {
+      JMeterProperty property = properties.next();
+      if (property instanceof FunctionProperty || property instanceof MultiProperty
+          && hasFunctions(((MultiProperty) property).iterator())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void disconnect(RteProtocolClient client, ExecutionPlan plan) throws RteIOException {
+    CONNECTIONS.get().remove(plan.sessionKey);
+    if (isSessionPoolEnabled()) {
+      getSessionPool().invalidate(plan.sessionKey);
+    }
     client.disconnect();
   }
 
-  private RteProtocolClient buildClient()
+  private RteProtocolClient buildClient(RteSampleResultBuilder resultBuilder, ExecutionPlan plan)
       throws RteIOException, InterruptedException, TimeoutException {
-    RteProtocolClient client = protocolFactory.apply(getProtocol());
-    client.connect(getServer(), getPort(), getSSLType(), getTerminalType(), getConnectionTimeout());
-    CONNECTIONS.get().put(buildConnectionId(), client);
+    RteProtocolClient client = connectClient(resultBuilder, plan);
+    CONNECTIONS.get().put(plan.sessionKey, client);
+    awaitInitialSync(client, plan);
+    return client;
+  }
+
+  private RteProtocolClient connectClient(RteSampleResultBuilder resultBuilder,
+      ExecutionPlan plan) throws RteIOException, InterruptedException, TimeoutException {
+    RteProtocolClient client = protocolFactory.apply(plan.protocol);
+    resultBuilder.withTrafficSource(client);
+    client.setPhaseTimer(resultBuilder.getPhaseTimer());
+    /*
+     screens and waits of the initial sync are not part of the response of samples sending input,
+     and since only the first mark of each phase is kept, the timer is detached after connecting to
+     mark response phases only after the input is sent.
+     */
+    boolean initialSync = plan.action == Action.SEND_INPUT;
+    PhaseTimingListener phaseTimingListener = initialSync ? null
+        : new PhaseTimingListener(client, resultBuilder.getPhaseTimer());
+    if (phaseTimingListener != null) {
+      client.addTerminalStateListener(phaseTimingListener);
+    }
+    try {
+      client.connect(plan.server, plan.port, plan.sslType, plan.terminalType,
+          plan.connectionTimeout);
+    } finally {
+      if (phaseTimingListener != null) {
+        client.removeTerminalStateListener(phaseTimingListener);
+      }
+      if (initialSync) {
+        client.setPhaseTimer(null);
+      }
+    }
+    resultBuilder.withConnectEndNow();
     return client;
   }
 
+  private void awaitInitialSync(RteProtocolClient client, ExecutionPlan plan)
+      throws RteIOException, InterruptedException, TimeoutException {
+    if (plan.action == Action.SEND_INPUT) {
+      client.await(Collections
+          .singletonList(new SyncWaitCondition(plan.connectionTimeout, getStableTimeout())));
+    }
+  }
+
+  private RteProtocolClient borrowClient(RteSampleResultBuilder resultBuilder, ExecutionPlan plan)
+      throws RteIOException, InterruptedException, TimeoutException {
+    SessionKey key = plan.sessionKey;
+    RteProtocolClient client = getSessionPool().borrow(key, getSessionPoolMaxWaitMillis(plan),
+        () -> {
+          RteProtocolClient created = connectClient(resultBuilder, plan);
+          try {
+            awaitInitialSync(created, plan);
+            return created;
+          } catch (RteIOException | InterruptedException | TimeoutException
+              | RuntimeException e) {
+            closeConnection(created);
+            throw e;
+          }
+        });
+    CONNECTIONS.get().put(key, client);
+    return client;
+  }
+
+  /*
+  Config elements are only applied to samplers right before sampling, so when the connection is not
+  configured in the sampler itself the session can't be warmed up when the thread starts, and it is
+  warmed up right before the first sample instead, still out of the sample time.
+   */
+  private void warmUpSession(ExecutionPlan plan) {
+    if (plan.server.isEmpty() || plan.action == Action.DISCONNECT) {
+      return;
+    }
+    SessionKey key = plan.sessionKey;
+    if (!WARMED_UP_SESSIONS.get().add(key) || CONNECTIONS.get().containsKey(key)) {
+      return;
+    }
+    try {
+      getSessionWarmUp().warmUp(plan.server, () -> isSessionPoolEnabled()
+          ? borrowClient(buildSampleResultBuilder(plan), plan)
+          : buildClient(buildSampleResultBuilder(plan), plan));
+      PENDING_WARM_SESSIONS.get().add(key);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.warn("Warm up of session to {}:{} has been interrupted", plan.server, plan.port);
+    } catch (RteIOException | TimeoutException | RuntimeException e) {
+      LOG.warn("Could not warm up session to {}:{}, first sample will establish it", plan.server,
+          plan.port, e);
+    }
+  }
+
+  private static synchronized SessionWarmUp getSessionWarmUp() {
+    if (sessionWarmUp == null) {
+      sessionWarmUp = new SessionWarmUp(
+          JMeterUtils.getPropDefault(WARM_UP_CONNECTS_PER_SECOND_PROPERTY, 0));
+    }
+    return sessionWarmUp;
+  }
+
+  private static synchronized void closeSessionWarmUp() {
+    if (sessionWarmUp != null) {
+      LOG.info("RTE session warm up stats: {}", sessionWarmUp.getStatsSummary());
+      sessionWarmUp = null;
+    }
+  }
+
+  /**
+   * Configures the engine wide connection admission controller with the limits specified in JMeter
+   * properties.
+   *
+   * <p>This is used both by samplers and the recorder, since both share the same controller.
+   */
+  public static void configureConnectionAdmission() {
+    ConnectionAdmissionController.configure(
+        JMeterUtils.getPropDefault(MAX_CONNECTING_PER_SERVER_PROPERTY, 0),
+        JMeterUtils.getPropDefault(MAX_SESSIONS_PER_SERVER_PROPERTY, 0));
+  }
+
+  private static synchronized void closeConnectionAdmission() {
+    ConnectionAdmissionController.getInstance().logStats();
+    ConnectionAdmissionController.configure(0, 0);
+  }
+
+  /**
+   * Gets the file where screens of sample results are stored.
+   *
+   * @return the file path, or an empty string when screens are included in sample results.
+   */
+  public static String getScreenStoreFile() {
+    return JMeterUtils.getPropDefault(SCREEN_STORE_FILE_PROPERTY, "");
+  }
+
+  private static ScreenStore getScreenStore() {
+    String file = getScreenStoreFile();
+    return file.isEmpty() ? null : getScreenStore(file);
+  }
+
+  private static synchronized ScreenStore getScreenStore(String file) {
+    if (screenStore == null && !screenStoreUnavailable) {
+      try {
+        screenStore = new ScreenStore(new File(file));
+      } catch (IOException e) {
+        LOG.error("Could not open screen store {}, screens will be included in sample results",
+            file, e);
+        screenStoreUnavailable = true;
+      }
+    }
+    return screenStore;
+  }
+
+  private static synchronized void closeScreenStore() {
+    if (screenStore != null) {
+      LOG.info("RTE screen store stats: {}", screenStore.getStatsSummary());
+      try {
+        screenStore.close();
+      } catch (IOException e) {
+        LOG.warn("Could not close screen store {}", screenStore.getFile(), e);
+      }
+      screenStore = null;
+    }
+    screenStoreUnavailable = false;
+  }
+
+  private static synchronized RteSessionPool getSessionPool() {
+    if (sessionPool == null) {
+      sessionPool = new RteSessionPool(
+          JMeterUtils.getPropDefault(SESSION_POOL_MAX_TOTAL_PROPERTY, 0),
+          JMeterUtils.getPropDefault(SESSION_POOL_MAX_IDLE_PROPERTY, 0),
+          JMeterUtils.getPropDefault(SESSION_POOL_MAX_IDLE_TIME_PROPERTY,
+              DEFAULT_SESSION_POOL_MAX_IDLE_TIME_MILLIS));
+    }
+    return sessionPool;
+  }
+
+  private static synchronized void closeSessionPool() {
+    if (sessionPool != null) {
+      sessionPool.close();
+      sessionPool = null;
+    }
+  }
+
   private List<Input> getInputs() {
     List<Input> inputs = new ArrayList<>();
     for (JMeterProperty p : getInputsTestElement()) {
@@ -640,19 +1262,23 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     return (Inputs) getProperty(Inputs.INPUTS_PROPERTY).getObjectValue();
   }
 
-  private List<WaitCondition> getWaitersList() {
+  private List<WaitCondition> getWaitersList(long stableTimeoutMillis) {
     List<WaitCondition> waiters = new ArrayList<>();
     if (getWaitSync()) {
-      waiters.add(new SyncWaitCondition(getWaitSyncTimeoutValue(), getStableTimeout()));
+      waiters.add(new SyncWaitCondition(getWaitSyncTimeoutValue(), stableTimeoutMillis));
     }
     if (getWaitCursor()) {
-      waiters.add(buildCursorWaitCondition());
+      waiters.add(buildCursorWaitCondition(stableTimeoutMillis));
     }
     if (getWaitSilent()) {
       waiters.add(new SilentWaitCondition(getWaitSilentTimeoutValue(), getWaitSilentTimeValue()));
     }
     if (getWaitText()) {
-      waiters.add(buildTextWaitCondition());
+      waiters.add(buildTextWaitCondition(stableTimeoutMillis));
+    }
+    if (getWaitScreens()) {
+      waiters.add(new ScreenWaitCondition(ScreenSignature.fromTable(getWaitScreensSignatures()),
+          getWaitScreensTimeoutValue(), stableTimeoutMillis));
     }
     if (getWaitDisconnect()) {
       waiters.add(new DisconnectWaitCondition(Long.parseLong(getWaitDisconnectTimeout())));
@@ -661,47 +1287,115 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     return waiters;
   }
 
-  private CursorWaitCondition buildCursorWaitCondition() {
+  private CursorWaitCondition buildCursorWaitCondition(long stableTimeoutMillis) {
     return new CursorWaitCondition(
         new Position(getWaitCursorRowValue(), getWaitCursorColumnValue()),
-        getWaitCursorTimeoutValue(), getStableTimeout());
+        getWaitCursorTimeoutValue(), stableTimeoutMillis);
   }
 
-  private TextWaitCondition buildTextWaitCondition() {
+  private TextWaitCondition buildTextWaitCondition(long stableTimeoutMillis) {
     return new TextWaitCondition(
         JMeterUtils.getPattern(getWaitTextRegex()),
         JMeterUtils.getMatcher(),
         Area.fromTopLeftBottomRight(getWaitTextAreaTopValue(), getWaitTextAreaLeftValue(),
             getWaitTextAreaBottomValue(), getWaitTextAreaRightValue()),
         getWaitTextTimeoutValue(),
-        getStableTimeout());
+        stableTimeoutMillis);
   }
 
   @Override
   public void threadStarted() {
+    if (isWarmUp() && !getServer().isEmpty() && !getPropertyAsString(CONFIG_PROTOCOL).isEmpty()) {
+      warmUpSession(getExecutionPlan());
+    }
   }
 
   @Override
   public void threadFinished() {
-    closeConnections();
+    if (isSessionPoolEnabled()) {
+      releaseConnections();
+    } else {
+      closeConnections();
+    }
+    WARMED_UP_SESSIONS.get().clear();
+    PENDING_WARM_SESSIONS.get().clear();
   }
 
   private void closeConnections() {
-    CONNECTIONS.get().values().forEach(c -> {
-      try {
-        c.disconnect();
-      } catch (Exception e) {
-        LOG.error("Problem while closing RTE connection", e);
-      }
-    });
+    CONNECTIONS.get().values().forEach(this::closeConnection);
+    CONNECTIONS.get().clear();
+  }
+
+  private void closeConnection(RteProtocolClient client) {
+    try {
+      client.disconnect();
+    } catch (Exception e) {
+      LOG.error("Problem while closing RTE connection", e);
+    }
+  }
+
+  private void releaseConnections() {
+    RteSessionPool pool = getSessionPool();
+    CONNECTIONS.get().forEach(pool::release);
     CONNECTIONS.get().clear();
   }
 
   @Override
   public void iterationStart(LoopIterationEvent loopIterationEvent) {
-    if (!isReuseConnections() && isFirstRteSamplerInLoop()) {
-      closeConnections();
+    if (isSessionPoolEnabled()) {
+      if (isFirstRteSamplerInLoop()) {
+        keepingPendingWarmSessions(this::releaseConnections);
+      }
+    } else if (!isReuseConnections() && isFirstRteSamplerInLoop()) {
+      keepingPendingWarmSessions(this::closeConnections);
+    }
+  }
+
+  /*
+  Sessions warmed up when the thread started have not been used by any sample yet, so they are kept
+  when connections of the previous iteration are closed or released.
+   */
+  private void keepingPendingWarmSessions(Runnable connectionsEnd) {
+    Map<SessionKey, RteProtocolClient> connections = CONNECTIONS.get();
+    Map<SessionKey, RteProtocolClient> warmSessions = new HashMap<>();
+    for (SessionKey key : PENDING_WARM_SESSIONS.get()) {
+      RteProtocolClient client = connections.remove(key);
+      if (client != null) {
+        warmSessions.put(key, client);
+      }
     }
+    connectionsEnd.run();
+    connections.putAll(warmSessions);
+  }
+
+  @Override
+  public void testStarted() {
+    SUCCESSFUL_SAMPLES.set(0);
+    StableTimeoutScheduler.getInstance();
+    configureConnectionAdmission();
+    RteEngineMonitor.register();
+  }
+
+  @Override
+  public void testStarted(String host) {
+    testStarted();
+  }
+
+  @Override
+  public void testEnded() {
+    closeSessionPool();
+    closeSessionWarmUp();
+    closeScreenStore();
+    closeConnectionAdmission();
+    reportStablePeriodLearner();
+    SSLContextFactory.logAndResetStats();
+    StableTimeoutScheduler.shutdownInstance();
+    RteEngineMonitor.unregister();
+  }
+
+  @Override
+  public void testEnded(String host) {
+    testEnded();
   }
 
   private boolean isFirstRteSamplerInLoop() {
@@ -715,4 +1409,141 @@ public class RTESampler extends AbstractSampler implements ThreadListener,
     }
     return false;
   }
+
+  /*
+  Compiled sampler configuration, which also keeps the values of the properties it was compiled
+  from to check if it can be reused.
+   */
+  private static final class ExecutionPlan {
+
+    private final List<String> propertyValues;
+    private final Inputs inputsElement;
+    private final long stableTimeoutMillis;
+    private final Protocol protocol;
+    private final String server;
+    private final int port;
+    private final String terminalTypeId;
+    private final TerminalType terminalType;
+    private final SSLType sslType;
+    private final long connectionTimeout;
+    private final Action action;
+    private final AttentionKey attentionKey;
+    private final List<Input> inputs;
+    private final WaitMode waitMode;
+    private final List<WaitCondition> waitConditions;
+    private final RuntimeException compilationError;
+    private final SessionKey sessionKey;
+    private final ScreenWaitCondition screenWaitCondition;
+    private final String screenVariable;
+    private List<WaitCondition> learnedWaitConditions;
+    private long learnedStableTimeoutMillis;
+
+    private ExecutionPlan(RTESampler sampler, List<String> propertyValues, Inputs inputsElement,
+        long stableTimeoutMillis, ExecutionPlan previous) {
+      this.propertyValues = propertyValues;
+      this.inputsElement = inputsElement;
+      this.stableTimeoutMillis = stableTimeoutMillis;
+      protocol = sampler.getProtocol();
+      server = sampler.getServer();
+      port = sampler.getPort();
+      terminalTypeId = sampler.getPropertyAsString(CONFIG_TERMINAL_TYPE);
+      // resolving terminal type requires creating a protocol client, so we avoid it when possible
+      terminalType = previous != null && previous.protocol == protocol
+          && previous.terminalTypeId.equals(terminalTypeId) ? previous.terminalType
+          : sampler.getTerminalType();
+      sslType = sampler.getSSLType();
+      connectionTimeout = sampler.getConnectionTimeout();
+      action = sampler.getAction();
+      attentionKey = sampler.getAttentionKey();
+      waitMode = sampler.getWaitMode();
+      /*
+       invalid inputs or wait conditions (like a non numeric row or a wrong regex) are reported as a
+       sample failure when they are used, instead of failing when the plan is compiled.
+       */
+      List<Input> planInputs = null;
+      List<WaitCondition> conditions = null;
+      RuntimeException error = null;
+      try {
+        planInputs = action == Action.SEND_INPUT
+            ? Collections.unmodifiableList(sampler.getInputs()) : Collections.emptyList();
+        conditions = Collections.unmodifiableList(sampler.getWaitersList(stableTimeoutMillis));
+      } catch (RuntimeException e) {
+        error = e;
+      }
+      inputs = planInputs;
+      waitConditions = conditions;
+      compilationError = error;
+      sessionKey = new SessionKey(server, port, protocol, terminalType, sslType);
+      screenWaitCondition = conditions == null ? null : conditions.stream()
+          .filter(c -> c instanceof ScreenWaitCondition)
+          .map(c -> (ScreenWaitCondition) c)
+          .findFirst()
+          .orElse(null);
+      screenVariable = sampler.getWaitScreensVariable();
+    }
+
+    private List<Input> getInputs() {
+      checkCompilation();
+      return inputs;
+    }
+
+    private void checkCompilation() {
+      if (compilationError != null) {
+        throw compilationError;
+      }
+    }
+
+    private List<WaitCondition> getWaitConditions() {
+      checkCompilation();
+      return waitConditions;
+    }
+
+    /*
+    Conditions with the stable period learned for the sample, which are kept while the learned
+    period does not change.
+     */
+    private List<WaitCondition> getWaitConditions(long stableTimeoutMillis) {
+      List<WaitCondition> conditions = getWaitConditions();
+      if (stableTimeoutMillis == this.stableTimeoutMillis) {
+        return conditions;
+      }
+      if (learnedWaitConditions == null || learnedStableTimeoutMillis != stableTimeoutMillis) {
+        learnedWaitConditions = conditions.stream()
+            .map(c -> c.withStableTimeout(stableTimeoutMillis))
+            .collect(Collectors.toList());
+        learnedStableTimeoutMillis = stableTimeoutMillis;
+      }
+      return learnedWaitConditions;
+    }
+
+    private boolean isCompiledFrom(Inputs inputsElement, long stableTimeoutMillis) {
+      return this.inputsElement == inputsElement && this.stableTimeoutMillis == stableTimeoutMillis;
+    }
+
+    /*
+    Properties are compared in place, to avoid collecting their values when they did not change.
+     */
+    private boolean hasPropertyValues(PropertyIterator properties) {
+      int index = 0;
+      while (properties.hasNext()) {
+        JMeterProperty property = properties.next();
+        if (property instanceof FunctionProperty) {
+          return false;
+        } else if (property instanceof MultiProperty) {
+          if (hasFunctions(((MultiProperty) property).iterator())) {
+            return false;
+          }
+        } else if (index + 1 >= propertyValues.size()
+            || !propertyValues.get(index).equals(property.getName())
+            || !propertyValues.get(index + 1).equals(property.getStringValue())) {
+          return false;
+        } else {
+          index += 2;
+        }
+      }
+      return index == propertyValues.size();
+    }
+
+  }
+
 }
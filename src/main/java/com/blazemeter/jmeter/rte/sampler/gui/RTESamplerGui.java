@@ -49,6 +49,7 @@ public class RTESamplerGui extends AbstractSamplerGui {
       }
       rteSamplerPanel.setAttentionKey(sampler.getAttentionKey());
       rteSamplerPanel.setAction(sampler.getAction());
+      rteSamplerPanel.setWaitMode(sampler.getWaitMode());
       rteSamplerPanel.setWaitSync(sampler.getWaitSync());
       rteSamplerPanel.setWaitSyncTimeout(sampler.getWaitSyncTimeout());
       rteSamplerPanel.setWaitCursor(sampler.getWaitCursor());
@@ -65,6 +66,10 @@ public class RTESamplerGui extends AbstractSamplerGui {
       rteSamplerPanel.setWaitTextAreaBottom(sampler.getWaitTextAreaBottom());
       rteSamplerPanel.setWaitTextAreaRight(sampler.getWaitTextAreaRight());
       rteSamplerPanel.setWaitTextTimeout(sampler.getWaitTextTimeout());
+      rteSamplerPanel.setWaitScreens(sampler.getWaitScreens());
+      rteSamplerPanel.setWaitScreensSignatures(sampler.getWaitScreensSignatures());
+      rteSamplerPanel.setWaitScreensVariable(sampler.getWaitScreensVariable());
+      rteSamplerPanel.setWaitScreensTimeout(sampler.getWaitScreensTimeout());
       rteSamplerPanel.setWaitDisconnect(sampler.getWaitDisconnect());
       rteSamplerPanel.setWaitDisconnectTimeout(sampler.getWaitDisconnectTimeout());
     }
@@ -88,6 +93,7 @@ public class RTESamplerGui extends AbstractSamplerGui {
       }
       sampler.setAttentionKey(rteSamplerPanel.getAttentionKey());
       sampler.setAction(rteSamplerPanel.getAction());
+      sampler.setWaitMode(rteSamplerPanel.getWaitMode());
       sampler.setWaitSync(rteSamplerPanel.getWaitSync());
       sampler.setWaitSyncTimeout(rteSamplerPanel.getWaitSyncTimeout());
       sampler.setWaitCursor(rteSamplerPanel.getWaitCursor());
@@ -104,6 +110,10 @@ public class RTESamplerGui extends AbstractSamplerGui {
       sampler.setWaitTextAreaLeft(rteSamplerPanel.getWaitTextAreaLeft());
       sampler.setWaitTextAreaBottom(rteSamplerPanel.getWaitTextAreaBottom());
       sampler.setWaitTextAreaRight(rteSamplerPanel.getWaitTextAreaRight());
+      sampler.setWaitScreens(rteSamplerPanel.getWaitScreens());
+      sampler.setWaitScreensSignatures(rteSamplerPanel.getWaitScreensSignatures());
+      sampler.setWaitScreensVariable(rteSamplerPanel.getWaitScreensVariable());
+      sampler.setWaitScreensTimeout(rteSamplerPanel.getWaitScreensTimeout());
       sampler.setWaitDisconnect(rteSamplerPanel.getWaitDisconnect());
       sampler.setWaitDisconnectTimeout(rteSamplerPanel.getWaitDisconnectTimeout());
     }
@@ -1,6 +1,7 @@
 package com.blazemeter.jmeter.rte.sampler.gui;
 
 import com.blazemeter.jmeter.rte.core.AttentionKey;
+import com.blazemeter.jmeter.rte.core.wait.WaitMode;
 import com.blazemeter.jmeter.rte.sampler.Action;
 import com.blazemeter.jmeter.rte.sampler.RTESampler;
 import java.awt.FlowLayout;
@@ -18,6 +19,8 @@ import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.LayoutStyle.ComponentPlacement;
 
@@ -69,11 +72,22 @@ public class RTESamplerPanel extends JPanel {
       .createComponent("waitTextAreaBottom", new JTextField());
   private final JTextField waitTextAreaRight = SwingUtils
       .createComponent("waitTextAreaRight", new JTextField());
+  private JPanel waitScreensPanel;
+  private final JCheckBox waitScreens = SwingUtils
+      .createComponent("waitScreens", new JCheckBox("Screens?"));
+  private final JTextArea waitScreensSignatures = SwingUtils
+      .createComponent("waitScreensSignatures", new JTextArea(4, 40));
+  private final JTextField waitScreensVariable = SwingUtils
+      .createComponent("waitScreensVariable", new JTextField());
+  private final JTextField waitScreensTimeout = SwingUtils
+      .createComponent("waitScreensTimeout", new JTextField());
   private final JCheckBox waitDisconnect = SwingUtils.createComponent("waitDisconnect",
       new JCheckBox("Disconnect?"));
   private final JTextField waitDisconnectTimeout = SwingUtils.createComponent(
       "waitDisconnectTimeout", new JTextField());
   private JPanel waitDisconnectPanel;
+  private final ButtonGroup waitModesGroup = new ButtonGroup();
+  private final Map<WaitMode, JRadioButton> waitModes = new EnumMap<>(WaitMode.class);
 
   public RTESamplerPanel() {
     GroupLayout layout = new GroupLayout(this);
@@ -205,8 +219,10 @@ public class RTESamplerPanel extends JPanel {
     waitCursorPanel = buildWaitCursorPanel();
     waitSilentPanel = buildWaitSilentPanel();
     waitTextPanel = buildWaitTextPanel();
+    waitScreensPanel = buildWaitScreensPanel();
     waitDisconnectPanel = buildSimpleWaitPanel("waitDisconnectPanel", waitDisconnect,
         waitDisconnectTimeout);
+    JPanel waitModePanel = buildWaitModePanel();
 
     JLabel warningLabel = SwingUtils
         .createComponent("warningLabel", new JLabel("Warning: if Timeout value " +
@@ -216,23 +232,43 @@ public class RTESamplerPanel extends JPanel {
     warningLabel.setFont(new Font(null, Font.ITALIC, 11));
 
     layout.setHorizontalGroup(layout.createParallelGroup()
+        .addComponent(waitModePanel)
         .addComponent(waitSyncPanel)
         .addComponent(waitCursorPanel)
         .addComponent(waitSilentPanel)
         .addComponent(waitTextPanel)
+        .addComponent(waitScreensPanel)
         .addComponent(waitDisconnectPanel)
         .addComponent(warningLabel));
     layout.setVerticalGroup(layout.createSequentialGroup()
+        .addComponent(waitModePanel)
         .addComponent(waitSyncPanel)
         .addComponent(waitCursorPanel)
         .addComponent(waitSilentPanel)
         .addComponent(waitTextPanel)
+        .addComponent(waitScreensPanel)
         .addComponent(waitDisconnectPanel)
         .addComponent(warningLabel));
 
     return panel;
   }
 
+  private JPanel buildWaitModePanel() {
+    JPanel panel = SwingUtils.createComponent("waitModePanel", new JPanel());
+    panel.setLayout(new FlowLayout(FlowLayout.LEFT));
+    panel.add(SwingUtils.createComponent("waitModeLabel", new JLabel("Wait mode: ")));
+
+    Arrays.stream(WaitMode.values()).forEach(m -> {
+      JRadioButton r = SwingUtils.createComponent(m.toString(), new JRadioButton(m.getLabel()));
+      r.setActionCommand(m.name());
+      panel.add(r);
+      waitModes.put(m, r);
+      waitModesGroup.add(r);
+    });
+
+    return panel;
+  }
+
   private JPanel buildSimpleWaitPanel(String panelName, JCheckBox waitCheck,
       JTextField waitTimeout) {
     JPanel panel = SwingUtils.createComponent(panelName, new JPanel());
@@ -387,6 +423,50 @@ public class RTESamplerPanel extends JPanel {
     return panel;
   }
 
+  private JPanel buildWaitScreensPanel() {
+    JPanel panel = SwingUtils.createComponent("waitScreensPanel", new JPanel());
+    GroupLayout layout = new GroupLayout(panel);
+    panel.setLayout(layout);
+
+    waitScreens.addItemListener(e -> {
+      updateWait(waitScreens, panel, e.getStateChange() == ItemEvent.SELECTED);
+      validate();
+      repaint();
+    });
+
+    JLabel variableLabel = SwingUtils.createComponent("variableLabel", new JLabel("Variable: "));
+    JLabel signaturesLabel = SwingUtils.createComponent("signaturesLabel",
+        new JLabel("Signatures (name|text|top,left,bottom,right): "));
+    JScrollPane signaturesScroll = SwingUtils.createComponent("signaturesScroll",
+        new JScrollPane(waitScreensSignatures));
+    JPanel labeledTimeoutPanel = buildLabeledTimeoutPanel(waitScreensTimeout);
+    layout.setHorizontalGroup(layout.createSequentialGroup()
+        .addComponent(waitScreens)
+        .addPreferredGap(ComponentPlacement.UNRELATED)
+        .addGroup(layout.createParallelGroup()
+            .addGroup(layout.createSequentialGroup()
+                .addComponent(variableLabel)
+                .addPreferredGap(ComponentPlacement.RELATED)
+                .addComponent(waitScreensVariable, GroupLayout.PREFERRED_SIZE, 200,
+                    GroupLayout.PREFERRED_SIZE)
+                .addPreferredGap(ComponentPlacement.UNRELATED)
+                .addComponent(labeledTimeoutPanel))
+            .addComponent(signaturesLabel)
+            .addComponent(signaturesScroll))
+    );
+    layout.setVerticalGroup(layout.createSequentialGroup()
+        .addGroup(layout.createParallelGroup(Alignment.BASELINE)
+            .addComponent(waitScreens)
+            .addComponent(variableLabel)
+            .addComponent(waitScreensVariable)
+            .addComponent(labeledTimeoutPanel))
+        .addPreferredGap(ComponentPlacement.RELATED)
+        .addComponent(signaturesLabel)
+        .addComponent(signaturesScroll));
+
+    return panel;
+  }
+
   private JPanel buildSearchAreaPanel() {
     JPanel panel = SwingUtils.createComponent("searchAreaPanel", new JPanel());
     panel.setBorder(BorderFactory.createTitledBorder("Search area: "));
@@ -473,6 +553,19 @@ public class RTESamplerPanel extends JPanel {
     }
   }
 
+  public WaitMode getWaitMode() {
+    String waitMode = waitModesGroup.getSelection().getActionCommand();
+    return WaitMode.valueOf(waitMode);
+  }
+
+  public void setWaitMode(WaitMode waitMode) {
+    if (waitModes.containsKey(waitMode)) {
+      waitModes.get(waitMode).setSelected(true);
+    } else {
+      waitModes.get(RTESampler.DEFAULT_WAIT_MODE).setSelected(true);
+    }
+  }
+
   public boolean getWaitSync() {
     return this.waitSync.isSelected();
   }
@@ -605,6 +698,39 @@ public class RTESamplerPanel extends JPanel {
     this.waitTextTimeout.setText(waitTextTimeout);
   }
 
+  public boolean getWaitScreens() {
+    return this.waitScreens.isSelected();
+  }
+
+  public void setWaitScreens(boolean waitScreens) {
+    this.waitScreens.setSelected(waitScreens);
+    updateWait(this.waitScreens, waitScreensPanel, waitScreens);
+  }
+
+  public String getWaitScreensSignatures() {
+    return this.waitScreensSignatures.getText();
+  }
+
+  public void setWaitScreensSignatures(String signatures) {
+    this.waitScreensSignatures.setText(signatures);
+  }
+
+  public String getWaitScreensVariable() {
+    return this.waitScreensVariable.getText();
+  }
+
+  public void setWaitScreensVariable(String variable) {
+    this.waitScreensVariable.setText(variable);
+  }
+
+  public String getWaitScreensTimeout() {
+    return this.waitScreensTimeout.getText();
+  }
+
+  public void setWaitScreensTimeout(String waitScreensTimeout) {
+    this.waitScreensTimeout.setText(waitScreensTimeout);
+  }
+
   public boolean getWaitDisconnect() {
     return this.waitDisconnect.isSelected();
   }
@@ -0,0 +1,57 @@
+package com.blazemeter.jmeter.rte.sampler.gui;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.store.ScreenStoreReader;
+import com.blazemeter.jmeter.rte.sampler.RTESampler;
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.visualizers.ResultRenderer;
+import org.apache.jmeter.visualizers.SamplerResultTab;
+import org.apache.jmeter.visualizers.ViewResultsFullVisualizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * View Results Tree renderer which shows screens of sample results, resolving them from the
+ * screen store when sample results only contain a reference to them.
+ */
+public class RenderAsRteScreen extends SamplerResultTab implements ResultRenderer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RenderAsRteScreen.class);
+
+  private ScreenStoreReader reader;
+
+  @Override
+  public void renderResult(SampleResult sampleResult) {
+    String response = ViewResultsFullVisualizer.getResponseAsString(sampleResult);
+    showTextResponse(ScreenStoreReader.isScreenReference(response) ? resolveScreenText(response)
+        : response);
+  }
+
+  private String resolveScreenText(String reference) {
+    String file = RTESampler.getScreenStoreFile();
+    if (file.isEmpty()) {
+      return reference + "\n\nSet RTEConnectionConfig.screenStoreFile property to the screen "
+          + "store file to show the screen.";
+    }
+    if (reader == null || !reader.getFile().equals(new File(file))) {
+      reader = new ScreenStoreReader(new File(file));
+    }
+    try {
+      Optional<Screen> screen = reader.getScreen(reference);
+      return screen.map(Screen::getText)
+          .orElse(reference + "\n\nScreen not found in " + file);
+    } catch (IOException e) {
+      LOG.warn("Could not read screen store {}", file, e);
+      return reference + "\n\nCould not read screen store " + file + ": " + e.getMessage();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "RTE Screen";
+  }
+
+}
@@ -0,0 +1,90 @@
+package com.blazemeter.jmeter.rte.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Dimension;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FieldIndexTest {
+
+  private static final int SCREEN_WIDTH = 20;
+  private static final Position NAME_FIELD_POSITION = new Position(1, 7);
+  private static final Position PASSWORD_FIELD_POSITION = new Position(2, 16);
+
+  private FieldIndex fieldIndex;
+
+  @Before
+  public void setup() {
+    Screen screen = new Screen(new Dimension(SCREEN_WIDTH, 3));
+    addSegment(screen, 0, "Name: ");
+    addField(screen, 6, "John\u0000\u0000\u0000\u0000\u0000\u0000");
+    addSegment(screen, 16, "    ");
+    addSegment(screen, SCREEN_WIDTH, "Menu  Password:");
+    addField(screen, SCREEN_WIDTH + 15, "\u0000\u0000\u0000\u0000\u0000");
+    addSegment(screen, SCREEN_WIDTH * 2, "Press Enter");
+    fieldIndex = new FieldIndex(screen.toImmutable());
+  }
+
+  private void addSegment(Screen screen, int linealPosition, String text) {
+    screen.addSegment(new Segment.SegmentBuilder()
+        .withLinealPosition(linealPosition)
+        .withText(text));
+  }
+
+  private void addField(Screen screen, int linealPosition, String text) {
+    screen.addSegment(new Segment.SegmentBuilder()
+        .withLinealPosition(linealPosition)
+        .withText(text)
+        .withEditable());
+  }
+
+  @Test
+  public void shouldGetFieldsCountWhenBuilt() {
+    assertThat(fieldIndex.getFieldsCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldFindFieldWhenLabelIsSegmentText() {
+    assertThat(fieldIndex.findFieldByLabel("Name:")).isEqualTo(Optional.of(NAME_FIELD_POSITION));
+  }
+
+  @Test
+  public void shouldFindFieldWhenLabelIsAtEndOfSegmentText() {
+    assertThat(fieldIndex.findFieldByLabel("Password:"))
+        .isEqualTo(Optional.of(PASSWORD_FIELD_POSITION));
+  }
+
+  @Test
+  public void shouldFindFieldWhenLabelIsInsideSegmentText() {
+    assertThat(fieldIndex.findFieldByLabel("Menu")).isEqualTo(Optional.of(PASSWORD_FIELD_POSITION));
+  }
+
+  @Test
+  public void shouldNotFindFieldWhenLabelNotInScreen() {
+    assertThat(fieldIndex.findFieldByLabel("User:")).isEmpty();
+  }
+
+  @Test
+  public void shouldNotFindFieldWhenLabelIsFieldText() {
+    assertThat(fieldIndex.findFieldByLabel("John")).isEmpty();
+  }
+
+  @Test
+  public void shouldFindFieldStartWhenPositionInsideField() {
+    assertThat(fieldIndex.findFieldAt(new Position(1, 10)))
+        .isEqualTo(Optional.of(NAME_FIELD_POSITION));
+  }
+
+  @Test
+  public void shouldNotFindFieldWhenPositionOutsideFields() {
+    assertThat(fieldIndex.findFieldAt(new Position(1, 2))).isEmpty();
+  }
+
+  @Test
+  public void shouldNotFindFieldWhenPositionOutsideScreen() {
+    assertThat(fieldIndex.findFieldAt(new Position(4, 1))).isEmpty();
+  }
+
+}
@@ -1,15 +1,22 @@
 package com.blazemeter.jmeter.rte.core;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
 import com.blazemeter.jmeter.rte.sampler.Action;
 import java.awt.Dimension;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.jmeter.samplers.SampleResult;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -35,10 +42,13 @@ public class RteSampleResultBuilderTest {
       "Action: CONNECT\n";
   private static final String SCREEN_TEXT = "Testing screen text";
   private static final Screen SCREEN = buildScreen();
+  private static final String SCREEN_FINGERPRINT_HEADER =
+      "Screen-fingerprint: " + String.format("%016x", SCREEN.getFingerprint());
   private static final List<Input> CUSTOM_INPUTS = Collections
       .singletonList(new CoordInput(new Position(3, 2), "input"));
-  private static final String SEGMENT_HEADER = "Segments: [{\n  \"range\" : \"[(1,1)-(1,20)]\",\n"
-      + "  \"editable\" : true,\n  \"color\" : \"#00ff00\"\n}]";
+  private static final String SEGMENT_HEADER =
+      "Segments: [{\"range\":\"[(1,1)-(1,20)]\",\"editable\":true,\"color\":\"#00ff00\"}]";
+  private static final String RLE_SEGMENT_HEADER = "Segments: rle 1x30 0+19e#00ff00";
   private static final String DEPRECATED_HEADERS = "Deprecated-headers: Field-positions";
   private static final String LINE_BREAK = "\n";
 
@@ -111,8 +121,8 @@ public class RteSampleResultBuilderTest {
         .withSuccessResponse(client);
 
     assertThat(resultBuilder.build().getResponseHeaders()).isEqualTo(String.join(LINE_BREAK,
-        DEPRECATED_HEADERS, SOUNDED_ALARM, CURSOR_POSITION_HEADER, SEGMENT_HEADER, INPUT_INHIBITED,
-        FIELD_POSITION));
+        DEPRECATED_HEADERS, SOUNDED_ALARM, CURSOR_POSITION_HEADER, SCREEN_FINGERPRINT_HEADER,
+        SEGMENT_HEADER, INPUT_INHIBITED, FIELD_POSITION));
   }
 
   @Test
@@ -130,8 +140,8 @@ public class RteSampleResultBuilderTest {
         .withSuccessResponse(client);
 
     assertThat(resultBuilder.build().getResponseHeaders()).isEqualTo(String.join(LINE_BREAK,
-        DEPRECATED_HEADERS, NOT_SOUNDED_ALARM, CURSOR_POSITION_HEADER, SEGMENT_HEADER,
-        INPUT_INHIBITED,
+        DEPRECATED_HEADERS, NOT_SOUNDED_ALARM, CURSOR_POSITION_HEADER, SCREEN_FINGERPRINT_HEADER,
+        SEGMENT_HEADER, INPUT_INHIBITED,
         FIELD_POSITION));
   }
 
@@ -172,6 +182,135 @@ public class RteSampleResultBuilderTest {
     assertThat(resultBuilder.build().getResponseHeaders())
         .isEqualTo(
             String.join(LINE_BREAK, DEPRECATED_HEADERS, SOUNDED_ALARM, CURSOR_POSITION_HEADER,
-                SEGMENT_HEADER, INPUT_INHIBITED, FIELD_POSITION));
+                SCREEN_FINGERPRINT_HEADER, SEGMENT_HEADER, INPUT_INHIBITED, FIELD_POSITION));
+  }
+
+  @Test
+  public void shouldGetRunLengthEncodedSegmentsHeaderWhenRleSegmentsHeaderMode() {
+    RteSampleResultBuilder resultBuilder = new RteSampleResultBuilder(new Position(1, 1),
+        buildScreen(), null, new TerminalType("IBM-3179-2", new Dimension(24, 80)))
+        .withSegmentsHeaderMode(SegmentsHeaderMode.RLE);
+    resultBuilder.withSuccessResponse(client);
+
+    assertThat(resultBuilder.build().getResponseHeaders())
+        .isEqualTo(
+            String.join(LINE_BREAK, DEPRECATED_HEADERS, SOUNDED_ALARM, CURSOR_POSITION_HEADER,
+                SCREEN_FINGERPRINT_HEADER, RLE_SEGMENT_HEADER, INPUT_INHIBITED, FIELD_POSITION));
+  }
+
+  @Test
+  public void shouldGetHeadersWithoutSegmentsWhenNoneSegmentsHeaderMode() {
+    RteSampleResultBuilder resultBuilder = new RteSampleResultBuilder(new Position(1, 1),
+        buildScreen(), null, new TerminalType("IBM-3179-2", new Dimension(24, 80)))
+        .withSegmentsHeaderMode(SegmentsHeaderMode.NONE);
+    resultBuilder.withSuccessResponse(client);
+
+    assertThat(resultBuilder.build().getResponseHeaders())
+        .isEqualTo(
+            String.join(LINE_BREAK, DEPRECATED_HEADERS, SOUNDED_ALARM, CURSOR_POSITION_HEADER,
+                SCREEN_FINGERPRINT_HEADER, INPUT_INHIBITED, FIELD_POSITION));
+  }
+
+  @Test
+  public void shouldGetScreenSegmentsWhenFromHeadersWithRunLengthEncodedSegments()
+      throws Exception {
+    RteSampleResultBuilder resultBuilder = new RteSampleResultBuilder(new Position(1, 1),
+        buildScreen(), null, new TerminalType("IBM-3179-2", new Dimension(24, 80)))
+        .withSegmentsHeaderMode(SegmentsHeaderMode.RLE);
+    resultBuilder.withSuccessResponse(client);
+
+    assertThat(Segment.fromHeaders(resultBuilder.build().getResponseHeaders()))
+        .isEqualTo(Segment.fromHeaders(SEGMENT_HEADER));
+  }
+
+  @Test
+  public void shouldGetPhaseTimingsHeaderWhenPhasesMarked() {
+    RteSampleResultBuilder resultBuilder = buildBasicResultBuilder();
+    resultBuilder.getPhaseTimer().mark(SamplePhase.SEND);
+    resultBuilder.getPhaseTimer().mark(SamplePhase.STABLE);
+    resultBuilder.withSuccessResponse(client);
+
+    assertThat(resultBuilder.build().getResponseHeaders())
+        .containsPattern("\\nPhase-timings: send=\\d+, stable=\\d+$");
+  }
+
+  @Test
+  public void shouldGetPhaseSubResultsWhenPhaseSubResultsEnabled() {
+    RteSampleResultBuilder resultBuilder = buildBasicResultBuilder()
+        .withLabel("login")
+        .withPhaseSubResults(true);
+    resultBuilder.getPhaseTimer().mark(SamplePhase.CONNECT);
+    resultBuilder.withSuccessResponse(client);
+
+    assertThat(Stream.of(resultBuilder.build().getSubResults())
+        .map(SampleResult::getSampleLabel))
+        .containsExactly("login-connect");
+  }
+
+  @Test
+  public void shouldGetNoSubResultsWhenPhaseSubResultsDisabled() {
+    RteSampleResultBuilder resultBuilder = buildBasicResultBuilder();
+    resultBuilder.getPhaseTimer().mark(SamplePhase.CONNECT);
+    resultBuilder.withSuccessResponse(client);
+
+    assertThat(resultBuilder.build().getSubResults()).isEmpty();
   }
+
+  @Test
+  public void shouldGetBytesTransferredDuringSampleWhenTrafficSourceSet() {
+    when(client.getBytesReceived()).thenReturn(100L, 350L);
+    when(client.getBytesSent()).thenReturn(20L, 45L);
+    RteSampleResultBuilder resultBuilder = buildBasicResultBuilder()
+        .withTrafficSource(client);
+    resultBuilder.withSuccessResponse(client);
+
+    SampleResult result = resultBuilder.build();
+    assertThat(new long[]{result.getBytesAsLong(), result.getSentBytes()})
+        .containsExactly(250, 25);
+  }
+
+  @Test
+  public void shouldNotGetScreenFromClientWhenSuccessResponseNotCaptured() {
+    buildBasicResultBuilder()
+        .withResponseCapture(() -> false, true)
+        .withSuccessResponse(client)
+        .build();
+    verify(client, never()).getScreen();
+  }
+
+  @Test
+  public void shouldGetEmptyResponseDataWhenSuccessResponseNotCaptured() {
+    RteSampleResultBuilder resultBuilder = buildBasicResultBuilder()
+        .withResponseCapture(() -> false, true)
+        .withSuccessResponse(client);
+    assertThat(resultBuilder.build().getResponseDataAsString()).isEqualTo("");
+  }
+
+  @Test
+  public void shouldGetScreenTextWhenTimeoutFailureAndOnlyFailuresCaptured() {
+    RteSampleResultBuilder resultBuilder = buildBasicResultBuilder()
+        .withResponseCapture(() -> false, true)
+        .withTimeoutFailure(new TimeoutException(), client);
+    assertThat(resultBuilder.build().getResponseDataAsString())
+        .isEqualTo(StringUtils.rightPad(SCREEN_TEXT, SCREEN.getSize().width) + "\n");
+  }
+
+  @Test
+  public void shouldNotEvaluateSuccessResponseCaptureWhenTimeoutFailure() {
+    AtomicInteger evaluations = new AtomicInteger();
+    buildBasicResultBuilder()
+        .withResponseCapture(() -> evaluations.incrementAndGet() > 0, true)
+        .withTimeoutFailure(new TimeoutException(), client)
+        .build();
+    assertThat(evaluations.get()).isZero();
+  }
+
+  @Test
+  public void shouldGetEmptyResponseDataWhenFailureNotCaptured() {
+    RteSampleResultBuilder resultBuilder = buildBasicResultBuilder()
+        .withResponseCapture(() -> false, false)
+        .withFailure(new IllegalStateException());
+    assertThat(resultBuilder.build().getResponseDataAsString()).isEqualTo("");
+  }
+
 }
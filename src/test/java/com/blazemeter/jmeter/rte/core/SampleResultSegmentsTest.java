@@ -0,0 +1,40 @@
+package com.blazemeter.jmeter.rte.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.jmeter.samplers.SampleResult;
+import org.junit.Test;
+
+public class SampleResultSegmentsTest {
+
+  private static final String RESPONSE_HEADERS = "Input-inhibited: true\n"
+      + "Segments: [{\"range\":\"[(2,25)-(2,30)]\",\"editable\":true,\"color\":\"#ff0001\"}]\n"
+      + "Field-positions: [(2,25)-(2,30)]";
+
+  @Test
+  public void shouldGetSameSegmentsWhenGetTwiceForSameResult() throws Exception {
+    SampleResult result = buildResult(RESPONSE_HEADERS);
+    assertThat(SampleResultSegments.get(result)).isSameAs(SampleResultSegments.get(result));
+  }
+
+  private SampleResult buildResult(String responseHeaders) {
+    SampleResult ret = new SampleResult();
+    ret.setResponseHeaders(responseHeaders);
+    return ret;
+  }
+
+  @Test
+  public void shouldGetParsedSegmentsWhenGetForResultWithSegmentsHeader() throws Exception {
+    assertThat(SampleResultSegments.get(buildResult(RESPONSE_HEADERS)))
+        .isEqualTo(Segment.fromHeaders(RESPONSE_HEADERS));
+  }
+
+  @Test
+  public void shouldGetNewSegmentsWhenGetForResultWithChangedHeaders() throws Exception {
+    SampleResult result = buildResult(RESPONSE_HEADERS);
+    SampleResultSegments.get(result);
+    result.setResponseHeaders("Input-inhibited: true");
+    assertThat(SampleResultSegments.get(result)).isEmpty();
+  }
+
+}
@@ -209,4 +209,90 @@ public class ScreenTest {
         .areIdentical();
   }
 
+  @Test
+  public void shouldGetEqualScreenWhenToImmutable() {
+    Screen screen = buildScreen();
+    addSegment(screen, 0, S1_LITERAL);
+    assertThat(screen.toImmutable()).isEqualTo(screen);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void shouldThrowUnsupportedOperationExceptionWhenAddSegmentToImmutableScreen() {
+    addSegment(buildScreen().toImmutable(), 0, S1_LITERAL);
+  }
+
+  @Test
+  public void shouldGetUpdatedTextWhenAddSegmentAfterGetText() {
+    Screen screen = buildScreen();
+    addSegment(screen, 0, S1_LITERAL);
+    screen.getText();
+    addSegment(screen, SCREEN_WIDTH, S2_LITERAL);
+    assertThat(screen.getText())
+        .isEqualTo(S1_LITERAL + "   \n" + S2_LITERAL + "   \n");
+  }
+
+  @Test
+  public void shouldGetTextContinuingAtScreenStartWhenGetTextWithCircularSegment() {
+    Screen screen = buildScreen();
+    addSegment(screen, SCREEN_WIDTH * SCREEN_HEIGHT - 1, S1_LITERAL);
+    assertThat(screen.getText()).isEqualTo("1    \n    S\n");
+  }
+
+  @Test
+  public void shouldGetRowRangeTextWhenGetTextWithRowAndColumns() {
+    Screen screen = buildScreen();
+    addSegment(screen, SCREEN_WIDTH, S1_LITERAL + ":" + F1_LITERAL);
+    assertThat(screen.getText(2, 2, 4)).isEqualTo("1:F");
+  }
+
+  @Test
+  public void shouldGetEditableWhenIsEditableWithFieldPosition() {
+    Screen screen = buildScreen();
+    addSegment(screen, 0, S1_LITERAL);
+    addField(screen, S1_LITERAL.length(), F1_LITERAL);
+    assertThat(screen.isEditable(new Position(1, S1_LITERAL.length() + 1))).isTrue();
+  }
+
+  @Test
+  public void shouldGetNotEditableWhenIsEditableWithSegmentPosition() {
+    Screen screen = buildScreen();
+    addSegment(screen, 0, S1_LITERAL);
+    addField(screen, S1_LITERAL.length(), F1_LITERAL);
+    assertThat(screen.isEditable(new Position(1, 1))).isFalse();
+  }
+
+  @Test
+  public void shouldGetSegmentColorWhenGetColorWithFieldPosition() {
+    Screen screen = buildScreen();
+    addField(screen, 0, F1_LITERAL);
+    assertThat(screen.getColor(new Position(1, 2))).isEqualTo(Color.BLACK);
+  }
+
+  @Test
+  public void shouldGetNullWhenGetColorWithPositionWithoutSegment() {
+    Screen screen = buildScreen();
+    addField(screen, 0, F1_LITERAL);
+    assertThat(screen.getColor(new Position(2, 1))).isNull();
+  }
+
+  @Test
+  public void shouldGetSameFingerprintWhenScreensAreEqual() {
+    Screen screen = buildScreen();
+    addSegment(screen, 0, S1_LITERAL);
+    addField(screen, S1_LITERAL.length(), F1_LITERAL);
+    Screen other = buildScreen();
+    addSegment(other, 0, S1_LITERAL);
+    addField(other, S1_LITERAL.length(), F1_LITERAL);
+    assertThat(screen.getFingerprint()).isEqualTo(other.getFingerprint());
+  }
+
+  @Test
+  public void shouldGetDifferentFingerprintWhenScreensOnlyDifferInAttributes() {
+    Screen screen = buildScreen();
+    addSegment(screen, 0, S1_LITERAL);
+    Screen other = buildScreen();
+    addField(other, 0, S1_LITERAL);
+    assertThat(screen.getFingerprint()).isNotEqualTo(other.getFingerprint());
+  }
+
 }
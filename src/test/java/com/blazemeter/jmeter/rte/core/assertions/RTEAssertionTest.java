@@ -47,9 +47,13 @@ public class RTEAssertionTest {
   }
 
   private static SampleResult getCustomizedResult() {
+    return getCustomizedResult(RESPONSE_HEADERS);
+  }
+
+  private static SampleResult getCustomizedResult(String responseHeaders) {
     TerminalType terminalType = new TerminalType("IBM-3179-2", new Dimension(80, 24));
     RteSampleResultBuilder ret = new RteSampleResultBuilder(null, null,
-        RESPONSE_HEADERS, terminalType)
+        responseHeaders, terminalType)
         .withLabel("bzm-Connect")
         .withServer("localhost")
         .withPort(2526)
@@ -94,4 +98,27 @@ public class RTEAssertionTest {
             + " in the position (4,27)");
   }
 
+  @Test
+  public void shouldReturnSuccessWhenExpectedColorMatchesRunLengthEncodedColoredSegment() {
+    rteAssertion.setRow("4");
+    rteAssertion.setColumn("27");
+    rteAssertion.setColor("#FF0002");
+
+    assertThat(rteAssertion.getResult(getCustomizedResult("Input-inhibited: true\n"
+        + "Segments: rle 24x80 104+5e#00ff00 264+5e#ff0002\n"
+        + "Field-positions: [(2,25)-(2,30)], [(4,25)-(4,30)]")).isFailure()).isFalse();
+  }
+
+  @Test
+  public void shouldReturnFailureWhenNoSegmentsInHeaders() {
+    rteAssertion.setRow("4");
+    rteAssertion.setColumn("27");
+    rteAssertion.setColor("#FF0002");
+
+    assertThat(rteAssertion.getResult(getCustomizedResult("Input-inhibited: true\n"
+        + "Field-positions: [(2,25)-(2,30)], [(4,25)-(4,30)]")).getFailureMessage())
+        .isEqualTo("No segments found in response headers. Check that segments header mode is "
+            + "not set to NONE");
+  }
+
 }
@@ -0,0 +1,102 @@
+package com.blazemeter.jmeter.rte.core.monitor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import javax.management.ObjectName;
+import org.junit.Test;
+
+public class RteEngineMonitorTest {
+
+  private static final String SESSION = "TN5250 server:23";
+  private static final String WAIT_TYPE = "SyncWaitCondition";
+
+  private final RteEngineMonitor monitor = new RteEngineMonitor();
+
+  @Test
+  public void shouldGetActiveSessionsWhenSessionsOpened() {
+    monitor.sessionOpened(SESSION);
+    monitor.sessionOpened(SESSION);
+    monitor.sessionOpened("TN3270 server:23");
+    monitor.sessionClosed("TN3270 server:23");
+    assertThat(monitor.getActiveSessions())
+        .isEqualTo(Collections.singletonMap(SESSION, 2));
+  }
+
+  @Test
+  public void shouldCountConnectsAndDisconnects() {
+    monitor.sessionOpened(SESSION);
+    monitor.sessionOpened(SESSION);
+    monitor.sessionClosed(SESSION);
+    assertThat(new long[]{monitor.getConnectsCount(), monitor.getDisconnectsCount()})
+        .containsExactly(2, 1);
+  }
+
+  @Test
+  public void shouldGetPendingWaitsWhenWaitsNotEnded() {
+    monitor.waitStarted(WAIT_TYPE);
+    monitor.waitStarted(WAIT_TYPE);
+    monitor.waitEnded(WAIT_TYPE);
+    assertThat(monitor.getPendingWaits())
+        .isEqualTo(Collections.singletonMap(WAIT_TYPE, 1));
+  }
+
+  @Test
+  public void shouldGetNoPendingErrorsWhenPendingErrorsReported() {
+    monitor.errorPending();
+    monitor.errorReported();
+    assertThat(monitor.getPendingErrors()).isEqualTo(0);
+  }
+
+  @Test
+  public void shouldExposeActiveSessionsThroughJmxWhenRegistered() throws Exception {
+    RteEngineMonitor.register();
+    try {
+      // other tests may open sessions in the engine wide monitor
+      int activeSessions = RteEngineMonitor.getInstance().getActiveSessionsCount();
+      RteEngineMonitor.getInstance().sessionOpened(SESSION);
+      assertThat(ManagementFactory.getPlatformMBeanServer()
+          .getAttribute(new ObjectName(RteEngineMonitor.OBJECT_NAME), "ActiveSessionsCount"))
+          .isEqualTo(activeSessions + 1);
+    } finally {
+      RteEngineMonitor.getInstance().sessionClosed(SESSION);
+      RteEngineMonitor.unregister();
+    }
+  }
+
+  @Test
+  public void shouldResetCountersWhenRegistered() {
+    RteEngineMonitor engineMonitor = RteEngineMonitor.getInstance();
+    engineMonitor.sessionOpened(SESSION);
+    engineMonitor.waitStarted(WAIT_TYPE);
+    engineMonitor.errorPending();
+    engineMonitor.addBytesReceived(10);
+    RteEngineMonitor.register();
+    try {
+      assertThat(new long[]{engineMonitor.getActiveSessionsCount(),
+          engineMonitor.getConnectsCount(), engineMonitor.getPendingWaits().size(),
+          engineMonitor.getPendingErrors(), engineMonitor.getBytesReceived()})
+          .containsExactly(0, 0, 0, 0, 0);
+    } finally {
+      RteEngineMonitor.unregister();
+    }
+  }
+
+  @Test
+  public void shouldGetNoPendingErrorsWhenHandlerWithPendingErrorDiscarded() {
+    RteEngineMonitor.register();
+    try {
+      ExceptionHandler handler = new ExceptionHandler("server");
+      handler.setPendingError(new IOException());
+      handler.discard();
+      handler.setPendingError(new IOException());
+      assertThat(RteEngineMonitor.getInstance().getPendingErrors()).isEqualTo(0);
+    } finally {
+      RteEngineMonitor.unregister();
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+package com.blazemeter.jmeter.rte.core.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.pool.ConnectionAdmissionController.Admission;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.After;
+import org.junit.Test;
+
+public class ConnectionAdmissionControllerTest {
+
+  private static final String SERVER = "server";
+  private static final long TIMEOUT_MILLIS = 100;
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @After
+  public void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldAdmitConnectionsWhenNoLimits() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(0, 0);
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+    assertThat(controller.getAdmittedCount()).isEqualTo(2);
+  }
+
+  @Test(expected = TimeoutException.class)
+  public void shouldThrowTimeoutExceptionWhenAdmitAndMaxConnectingReached() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(1, 0);
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+  }
+
+  @Test
+  public void shouldAdmitConnectionWhenConnectEndedAndMaxConnectingReached() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(1, 0);
+    controller.admit(SERVER, TIMEOUT_MILLIS).connectEnded();
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+    assertThat(controller.getAdmittedCount()).isEqualTo(2);
+  }
+
+  @Test(expected = TimeoutException.class)
+  public void shouldThrowTimeoutExceptionWhenAdmitAndMaxSessionsReached() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(0, 1);
+    controller.admit(SERVER, TIMEOUT_MILLIS).connectEnded();
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+  }
+
+  @Test
+  public void shouldAdmitConnectionWhenAdmissionClosedAndMaxSessionsReached() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(0, 1);
+    controller.admit(SERVER, TIMEOUT_MILLIS).close();
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+    assertThat(controller.getSessionsCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldAdmitConnectionWhenMaxSessionsReachedForOtherServer() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(0, 1);
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+    controller.admit("otherServer", TIMEOUT_MILLIS);
+    assertThat(controller.getSessionsCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldAdmitQueuedConnectionWhenAdmissionClosedWhileWaiting() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(0, 1);
+    Admission admission = controller.admit(SERVER, TIMEOUT_MILLIS);
+    Future<Admission> queued = executor.submit(() -> controller.admit(SERVER, 10000));
+    awaitQueueDepth(controller, 1);
+    admission.close();
+    assertThat(queued.get(TIMEOUT_MILLIS * 10, TimeUnit.MILLISECONDS)).isNotNull();
+  }
+
+  private void awaitQueueDepth(ConnectionAdmissionController controller, int depth)
+      throws InterruptedException {
+    while (controller.getQueueDepth() != depth) {
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void shouldCountTimeoutWhenAdmitAndMaxSessionsReached() throws Exception {
+    ConnectionAdmissionController controller = new ConnectionAdmissionController(0, 1);
+    controller.admit(SERVER, TIMEOUT_MILLIS);
+    try {
+      controller.admit(SERVER, TIMEOUT_MILLIS);
+    } catch (TimeoutException e) {
+      // expected
+    }
+    assertThat(controller.getTimeoutCount()).isEqualTo(1);
+  }
+
+}
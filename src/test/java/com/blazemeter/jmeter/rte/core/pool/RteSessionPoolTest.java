@@ -0,0 +1,137 @@
+package com.blazemeter.jmeter.rte.core.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.blazemeter.jmeter.rte.core.Protocol;
+import com.blazemeter.jmeter.rte.core.RteProtocolClient;
+import com.blazemeter.jmeter.rte.core.TerminalType;
+import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import java.awt.Dimension;
+import java.util.concurrent.TimeoutException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RteSessionPoolTest {
+
+  private static final SessionKey KEY = new SessionKey("server", 23, Protocol.TN5250,
+      new TerminalType("IBM-3179-2", new Dimension(80, 24)), SSLType.NONE);
+  private static final long MAX_WAIT_MILLIS = 100;
+
+  @Mock
+  private RteProtocolClient client;
+  @Mock
+  private RteProtocolClient otherClient;
+
+  @Test
+  public void shouldCreateSessionWhenBorrowFromEmptyPool() throws Exception {
+    RteSessionPool pool = new RteSessionPool(0, 0, 0);
+    assertThat(pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client)).isSameAs(client);
+  }
+
+  @Test
+  public void shouldReuseReleasedSessionWhenBorrowAfterRelease() throws Exception {
+    RteSessionPool pool = new RteSessionPool(0, 0, 0);
+    pool.release(KEY, pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client));
+    assertThat(pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient)).isSameAs(client);
+  }
+
+  @Test
+  public void shouldNotReuseSessionWhenBorrowWithDifferentKey() throws Exception {
+    RteSessionPool pool = new RteSessionPool(0, 0, 0);
+    pool.release(KEY, pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client));
+    SessionKey otherKey = new SessionKey("server", 23, Protocol.TN5250,
+        new TerminalType("IBM-3179-2", new Dimension(80, 24)), SSLType.TLS);
+    assertThat(pool.borrow(otherKey, MAX_WAIT_MILLIS, () -> otherClient)).isSameAs(otherClient);
+  }
+
+  @Test(expected = TimeoutException.class)
+  public void shouldThrowTimeoutExceptionWhenBorrowAndMaxTotalReached() throws Exception {
+    RteSessionPool pool = new RteSessionPool(1, 0, 0);
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client);
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient);
+  }
+
+  @Test
+  public void shouldCountWaitTimeoutWhenBorrowAndMaxTotalReached() throws Exception {
+    RteSessionPool pool = new RteSessionPool(1, 0, 0);
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client);
+    try {
+      pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient);
+    } catch (TimeoutException e) {
+      // expected
+    }
+    assertThat(pool.getWaitTimeoutCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldCreateSessionWhenBorrowAfterInvalidateAndMaxTotalReached() throws Exception {
+    RteSessionPool pool = new RteSessionPool(1, 0, 0);
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client);
+    pool.invalidate(KEY);
+    assertThat(pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient)).isSameAs(otherClient);
+  }
+
+  @Test
+  public void shouldDisconnectSessionWhenReleaseAndMaxIdleReached() throws Exception {
+    RteSessionPool pool = new RteSessionPool(0, 1, 0);
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client);
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient);
+    pool.release(KEY, client);
+    pool.release(KEY, otherClient);
+    verify(client, never()).disconnect();
+    verify(otherClient).disconnect();
+  }
+
+  @Test
+  public void shouldEvictIdleSessionWhenBorrowAfterMaxIdleTime() throws Exception {
+    RteSessionPool pool = new RteSessionPool(0, 0, 1);
+    pool.release(KEY, pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client));
+    Thread.sleep(10);
+    assertThat(pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient)).isSameAs(otherClient);
+    verify(client).disconnect();
+  }
+
+  @Test
+  public void shouldCreateSessionWhenBorrowAndIdleSessionIsBroken() throws Exception {
+    RteSessionPool pool = new RteSessionPool(1, 0, 0);
+    pool.release(KEY, pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client));
+    when(client.isSessionBroken()).thenReturn(true);
+    assertThat(pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient)).isSameAs(otherClient);
+    verify(client).disconnect();
+  }
+
+  @Test
+  public void shouldDisconnectSessionWhenReleaseBrokenSession() throws Exception {
+    RteSessionPool pool = new RteSessionPool(1, 0, 0);
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client);
+    when(client.isSessionBroken()).thenReturn(true);
+    pool.release(KEY, client);
+    verify(client).disconnect();
+    assertThat(pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient)).isSameAs(otherClient);
+  }
+
+  @Test
+  public void shouldDisconnectIdleSessionsWhenClose() throws Exception {
+    RteSessionPool pool = new RteSessionPool(0, 0, 0);
+    pool.release(KEY, pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client));
+    pool.close();
+    verify(client).disconnect();
+  }
+
+  @Test
+  public void shouldGetPoolStatsWhenSessionsBorrowedAndReleased() throws Exception {
+    RteSessionPool pool = new RteSessionPool(0, 0, 0);
+    pool.release(KEY, pool.borrow(KEY, MAX_WAIT_MILLIS, () -> client));
+    pool.borrow(KEY, MAX_WAIT_MILLIS, () -> otherClient);
+    assertThat(pool.getStatsSummary())
+        .isEqualTo("borrowed=2, created=1, evicted=0, waitTimeouts=0, avgWaitMillis=0, "
+            + "maxWaitMillis=0, idle=0, total=1");
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.blazemeter.jmeter.rte.core.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.RteProtocolClient;
+import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SessionWarmUpTest {
+
+  private static final String SERVER = "server";
+  private static final int CONNECTS_PER_SECOND = 10;
+
+  @Mock
+  private RteProtocolClient client;
+
+  @Test
+  public void shouldGetCreatedSessionWhenWarmUp() throws Exception {
+    assertThat(new SessionWarmUp(0).warmUp(SERVER, () -> client)).isSameAs(client);
+  }
+
+  @Test
+  public void shouldSpaceConnectionsWhenWarmUpSameServer() throws Exception {
+    SessionWarmUp warmUp = new SessionWarmUp(CONNECTS_PER_SECOND);
+    long start = System.nanoTime();
+    for (int i = 0; i < 3; i++) {
+      warmUp.warmUp(SERVER, () -> client);
+    }
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+        .isGreaterThanOrEqualTo(2 * 1000 / CONNECTS_PER_SECOND);
+  }
+
+  @Test
+  public void shouldNotSpaceConnectionsWhenWarmUpDifferentServers() throws Exception {
+    SessionWarmUp warmUp = new SessionWarmUp(CONNECTS_PER_SECOND);
+    long start = System.nanoTime();
+    warmUp.warmUp(SERVER, () -> client);
+    warmUp.warmUp("otherServer", () -> client);
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+        .isLessThan(1000 / CONNECTS_PER_SECOND);
+  }
+
+  @Test
+  public void shouldCountFailureWhenSessionCreationFails() throws Exception {
+    SessionWarmUp warmUp = new SessionWarmUp(0);
+    try {
+      warmUp.warmUp(SERVER, () -> {
+        throw new RteIOException(null, SERVER);
+      });
+    } catch (RteIOException e) {
+      // expected
+    }
+    assertThat(warmUp.getFailedCount()).isEqualTo(1);
+  }
+
+}
@@ -0,0 +1,66 @@
+package com.blazemeter.jmeter.rte.core.ssl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import javax.net.ssl.SSLContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SSLContextFactoryTest {
+
+  private static final String KEY_STORE_PROPERTY = "javax.net.ssl.keyStore";
+  private static final String KEY_STORE_PASSWORD_PROPERTY = "javax.net.ssl.keyStorePassword";
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File keyStore;
+
+  @Before
+  public void setup() {
+    SSLContextFactory.clearCache();
+    keyStore = new File(getClass().getResource("/.keystore").getFile());
+    SSLContextFactory.setKeyStore(keyStore.getPath());
+    SSLContextFactory.setKeyStorePassword("changeit");
+  }
+
+  @After
+  public void teardown() {
+    System.clearProperty(KEY_STORE_PROPERTY);
+    System.clearProperty(KEY_STORE_PASSWORD_PROPERTY);
+    SSLContextFactory.clearCache();
+  }
+
+  @Test
+  public void shouldGetSameContextWhenGetContextTwiceWithSameType()
+      throws GeneralSecurityException, IOException {
+    assertThat(SSLContextFactory.getSSLContext(SSLType.TLS))
+        .isSameAs(SSLContextFactory.getSSLContext(SSLType.TLS));
+  }
+
+  @Test
+  public void shouldGetDifferentContextWhenGetContextWithDifferentType()
+      throws GeneralSecurityException, IOException {
+    assertThat(SSLContextFactory.getSSLContext(SSLType.TLS))
+        .isNotSameAs(SSLContextFactory.getSSLContext(SSLType.SSLV3));
+  }
+
+  @Test
+  public void shouldGetNewContextWhenKeyStoreChanges()
+      throws GeneralSecurityException, IOException {
+    SSLContext context = SSLContextFactory.getSSLContext(SSLType.TLS);
+    File otherKeyStore = tempFolder.newFile();
+    Files.copy(keyStore.toPath(), otherKeyStore.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    SSLContextFactory.setKeyStore(otherKeyStore.getPath());
+    assertThat(SSLContextFactory.getSSLContext(SSLType.TLS)).isNotSameAs(context);
+  }
+
+}
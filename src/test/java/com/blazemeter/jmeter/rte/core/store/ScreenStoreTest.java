@@ -0,0 +1,105 @@
+package com.blazemeter.jmeter.rte.core.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.Screen;
+import com.blazemeter.jmeter.rte.core.Segment;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ScreenStoreTest {
+
+  private static final Dimension SCREEN_SIZE = new Dimension(10, 2);
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setup() throws IOException {
+    file = new File(tempFolder.getRoot(), "screens.bin");
+  }
+
+  private static Screen buildScreen(String name) {
+    Screen ret = new Screen(SCREEN_SIZE);
+    ret.addSegment(new Segment.SegmentBuilder()
+        .withLinealPosition(0)
+        .withText(name + "     ")
+        .withColor(Color.WHITE));
+    ret.addSegment(new Segment.SegmentBuilder()
+        .withLinealPosition(10)
+        .withText("\u0000\u0000\u0000\u0000\u0000")
+        .withEditable()
+        .withSecret()
+        .withColor(Color.BLACK));
+    return ret;
+  }
+
+  @Test
+  public void shouldGetSameReferenceWhenStoringSameScreenTwice() throws IOException {
+    try (ScreenStore store = new ScreenStore(file)) {
+      assertThat(store.store(buildScreen("LOGIN"))).isEqualTo(store.store(buildScreen("LOGIN")));
+    }
+  }
+
+  @Test
+  public void shouldWriteScreenOnceWhenStoringSameScreenTwice() throws IOException {
+    try (ScreenStore store = new ScreenStore(file)) {
+      store.store(buildScreen("LOGIN"));
+      long length = file.length();
+      store.store(buildScreen("LOGIN"));
+      assertThat(file.length()).isEqualTo(length);
+    }
+  }
+
+  @Test
+  public void shouldGetStoredScreenWhenResolvingReference() throws IOException {
+    String reference;
+    try (ScreenStore store = new ScreenStore(file)) {
+      store.store(buildScreen("LOGIN"));
+      reference = store.store(buildScreen("MENU"));
+    }
+    assertThat(new ScreenStoreReader(file).getScreen(reference))
+        .isEqualTo(Optional.of(buildScreen("MENU")));
+  }
+
+  @Test
+  public void shouldGetScreenStoredAfterFirstReadWhenResolvingReference() throws IOException {
+    try (ScreenStore store = new ScreenStore(file)) {
+      ScreenStoreReader reader = new ScreenStoreReader(file);
+      reader.getScreen(store.store(buildScreen("LOGIN")));
+      String reference = store.store(buildScreen("MENU"));
+      assertThat(reader.getScreen(reference)).isEqualTo(Optional.of(buildScreen("MENU")));
+    }
+  }
+
+  @Test
+  public void shouldGetEmptyWhenResolvingUnknownReference() throws IOException {
+    try (ScreenStore store = new ScreenStore(file)) {
+      store.store(buildScreen("LOGIN"));
+    }
+    assertThat(new ScreenStoreReader(file).getScreen(ScreenStore.SCREEN_REFERENCE_PREFIX + "00"))
+        .isEmpty();
+  }
+
+  @Test
+  public void shouldNotWriteScreenAgainWhenReopeningStore() throws IOException {
+    try (ScreenStore store = new ScreenStore(file)) {
+      store.store(buildScreen("LOGIN"));
+    }
+    long length = file.length();
+    try (ScreenStore store = new ScreenStore(file)) {
+      store.store(buildScreen("LOGIN"));
+    }
+    assertThat(file.length()).isEqualTo(length);
+  }
+
+}
@@ -0,0 +1,51 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.Test;
+
+public class PhaseTimerTest {
+
+  private static final long PHASE_MILLIS = 50;
+
+  @Test
+  public void shouldGetDurationsInEndOrderWhenPhasesMarked() throws Exception {
+    PhaseTimer timer = new PhaseTimer(System.currentTimeMillis());
+    timer.mark(SamplePhase.FIRST_SCREEN);
+    Thread.sleep(PHASE_MILLIS);
+    timer.mark(SamplePhase.NEGOTIATION);
+    assertThat(timer.getDurations().keySet())
+        .containsExactly(SamplePhase.FIRST_SCREEN, SamplePhase.NEGOTIATION);
+  }
+
+  @Test
+  public void shouldGetDurationsFromPreviousPhaseEndWhenPhasesMarked() throws Exception {
+    long startTime = System.currentTimeMillis();
+    PhaseTimer timer = new PhaseTimer(startTime);
+    Thread.sleep(PHASE_MILLIS);
+    timer.mark(SamplePhase.CONNECT);
+    Thread.sleep(PHASE_MILLIS);
+    timer.mark(SamplePhase.NEGOTIATION);
+    long endTime = System.currentTimeMillis();
+    Map<SamplePhase, Long> durations = timer.getDurations();
+    assertThat(durations.get(SamplePhase.NEGOTIATION)).isGreaterThanOrEqualTo(PHASE_MILLIS);
+    assertThat(durations.get(SamplePhase.CONNECT) + durations.get(SamplePhase.NEGOTIATION))
+        .isBetween(2 * PHASE_MILLIS, endTime - startTime);
+  }
+
+  @Test
+  public void shouldKeepFirstEndWhenPhaseMarkedTwice() throws Exception {
+    PhaseTimer timer = new PhaseTimer(System.currentTimeMillis());
+    timer.mark(SamplePhase.FIRST_SCREEN);
+    Thread.sleep(PHASE_MILLIS);
+    timer.mark(SamplePhase.FIRST_SCREEN);
+    assertThat(timer.getDurations().get(SamplePhase.FIRST_SCREEN)).isLessThan(PHASE_MILLIS);
+  }
+
+  @Test
+  public void shouldGetNoDurationsWhenNoPhaseMarked() {
+    assertThat(new PhaseTimer(System.currentTimeMillis()).getDurations()).isEmpty();
+  }
+
+}
@@ -0,0 +1,109 @@
+package com.blazemeter.jmeter.rte.core.timing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.ssl.SSLContextFactory;
+import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ServerSocketFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PhaseTimingSocketTest {
+
+  private static final String KEY_STORE_PROPERTY = "javax.net.ssl.keyStore";
+  private static final String KEY_STORE_PASSWORD_PROPERTY = "javax.net.ssl.keyStorePassword";
+  private static final byte[] PAYLOAD = "Hello RTE!".getBytes(StandardCharsets.UTF_8);
+  private static final long TIMEOUT_MILLIS = 10000;
+
+  private final AtomicLong bytesReceived = new AtomicLong();
+  private final AtomicLong bytesSent = new AtomicLong();
+  private final TrafficListener trafficListener = new TrafficListener() {
+    @Override
+    public void bytesReceived(int count) {
+      bytesReceived.addAndGet(count);
+    }
+
+    @Override
+    public void bytesSent(int count) {
+      bytesSent.addAndGet(count);
+    }
+  };
+  private ExecutorService serverExecutor;
+  private ServerSocket serverSocket;
+
+  @Before
+  public void setup() {
+    SSLContextFactory.clearCache();
+    SSLContextFactory.setKeyStore(getClass().getResource("/.keystore").getFile());
+    SSLContextFactory.setKeyStorePassword("changeit");
+    serverExecutor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void teardown() throws Exception {
+    serverExecutor.shutdownNow();
+    if (serverSocket != null) {
+      serverSocket.close();
+    }
+    System.clearProperty(KEY_STORE_PROPERTY);
+    System.clearProperty(KEY_STORE_PASSWORD_PROPERTY);
+    SSLContextFactory.clearCache();
+  }
+
+  @Test
+  public void shouldCountPayloadBytesWhenTransferWithoutTls() throws Exception {
+    transferPayload(ServerSocketFactory.getDefault(), null);
+    assertTrafficIsPayload();
+  }
+
+  private void transferPayload(ServerSocketFactory serverSocketFactory,
+      SSLSocketFactory sslSocketFactory) throws Exception {
+    serverSocket = serverSocketFactory.createServerSocket(0);
+    Future<?> server = serverExecutor.submit(this::echoPayload);
+    try (Socket socket = new PhaseTimingSocketFactory(sslSocketFactory, p -> {
+    }, trafficListener).createSocket("localhost", serverSocket.getLocalPort())) {
+      OutputStream output = socket.getOutputStream();
+      output.write(PAYLOAD);
+      output.flush();
+      new DataInputStream(socket.getInputStream()).readFully(new byte[PAYLOAD.length]);
+    }
+    server.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  private Void echoPayload() throws IOException {
+    try (Socket socket = serverSocket.accept()) {
+      byte[] payload = new byte[PAYLOAD.length];
+      new DataInputStream(socket.getInputStream()).readFully(payload);
+      socket.getOutputStream().write(payload);
+      socket.getOutputStream().flush();
+    }
+    return null;
+  }
+
+  private void assertTrafficIsPayload() {
+    assertThat(new long[]{bytesReceived.get(), bytesSent.get()})
+        .containsExactly(PAYLOAD.length, PAYLOAD.length);
+  }
+
+  @Test
+  public void shouldCountOnlyDecryptedPayloadBytesWhenTransferWithTls() throws Exception {
+    SSLContext context = SSLContextFactory.getSSLContext(SSLType.TLS);
+    transferPayload(context.getServerSocketFactory(), context.getSocketFactory());
+    assertTrafficIsPayload();
+  }
+
+}
@@ -0,0 +1,165 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.listener.ExceptionHandler;
+import com.google.common.base.Stopwatch;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompositeConditionWaiterTest {
+
+  private static final long TIMEOUT_MILLIS = 3000;
+  private static final long SHORT_TIMEOUT_MILLIS = 500;
+  private static final long STABLE_MILLIS = 100;
+
+  private ScheduledExecutorService stableTimeoutExecutor;
+  private ScheduledExecutorService eventGeneratorExecutor;
+  private ExceptionHandler exceptionHandler;
+
+  @Before
+  public void setup() {
+    stableTimeoutExecutor = Executors.newSingleThreadScheduledExecutor();
+    eventGeneratorExecutor = Executors.newSingleThreadScheduledExecutor();
+    exceptionHandler = new ExceptionHandler("server");
+  }
+
+  @After
+  public void teardown() {
+    eventGeneratorExecutor.shutdownNow();
+    stableTimeoutExecutor.shutdownNow();
+  }
+
+  @Test
+  public void shouldReturnMetConditionWhenAnyModeAndOnlyOneConditionIsMet() throws Exception {
+    TestConditionWaiter met = buildWaiter(TIMEOUT_MILLIS, true);
+    TestConditionWaiter notMet = buildWaiter(TIMEOUT_MILLIS + 1, false);
+    CompositeConditionWaiter waiter = new CompositeConditionWaiter(Arrays.asList(notMet, met),
+        WaitMode.ANY);
+    try {
+      assertThat(waiter.await()).containsExactly(met.getCondition());
+    } finally {
+      waiter.stop();
+    }
+  }
+
+  private TestConditionWaiter buildWaiter(long timeoutMillis, boolean conditionMet) {
+    return new TestConditionWaiter(new SyncWaitCondition(timeoutMillis, STABLE_MILLIS),
+        conditionMet);
+  }
+
+  @Test(expected = TimeoutException.class)
+  public void shouldThrowTimeoutExceptionWhenAllModeAndOnlyOneConditionIsMet() throws Exception {
+    CompositeConditionWaiter waiter = new CompositeConditionWaiter(Arrays.asList(
+        buildWaiter(SHORT_TIMEOUT_MILLIS, true), buildWaiter(SHORT_TIMEOUT_MILLIS + 1, false)),
+        WaitMode.ALL);
+    try {
+      waiter.await();
+    } finally {
+      waiter.stop();
+    }
+  }
+
+  @Test
+  public void shouldReturnLastMetConditionWhenAllModeAndAllConditionsAreMet() throws Exception {
+    TestConditionWaiter first = buildWaiter(TIMEOUT_MILLIS, true);
+    TestConditionWaiter last = buildWaiter(TIMEOUT_MILLIS + 1, false);
+    eventGeneratorExecutor.schedule(last::meetCondition, STABLE_MILLIS * 2,
+        TimeUnit.MILLISECONDS);
+    CompositeConditionWaiter waiter = new CompositeConditionWaiter(Arrays.asList(last, first),
+        WaitMode.ALL);
+    try {
+      assertThat(waiter.await()).containsExactly(first.getCondition(), last.getCondition());
+    } finally {
+      waiter.stop();
+    }
+  }
+
+  @Test
+  public void shouldNotWaitMoreThanLongestTimeoutWhenAllModeAndNoConditionIsMet()
+      throws Exception {
+    CompositeConditionWaiter waiter = new CompositeConditionWaiter(Arrays.asList(
+        buildWaiter(SHORT_TIMEOUT_MILLIS, false), buildWaiter(SHORT_TIMEOUT_MILLIS + 1, false)),
+        WaitMode.ALL);
+    Stopwatch waitTime = Stopwatch.createStarted();
+    try {
+      waiter.await();
+    } catch (TimeoutException e) {
+      assertThat(waitTime.elapsed(TimeUnit.MILLISECONDS)).isLessThan(SHORT_TIMEOUT_MILLIS * 2);
+    } finally {
+      waiter.stop();
+    }
+  }
+
+  @Test
+  public void shouldReturnScreenRecognizedWhenStablePeriodStartedWhenScreenConditionIsMet()
+      throws Exception {
+    ScreenSignature welcome = new ScreenSignature("welcome", "Welcome",
+        Area.fromTopLeftBottomRight(1, 1, 1, 1));
+    TestScreenConditionWaiter screenWaiter = new TestScreenConditionWaiter(
+        new ScreenWaitCondition(Collections.singletonList(welcome), TIMEOUT_MILLIS,
+            STABLE_MILLIS), welcome);
+    CompositeConditionWaiter waiter = new CompositeConditionWaiter(
+        Collections.singletonList(screenWaiter), WaitMode.ALL);
+    // changes not notified to the waiter should not change the reported screen
+    screenWaiter.recognized = null;
+    try {
+      assertThat(((ScreenWaitCondition) waiter.await().get(0)).getRecognizedScreen())
+          .isEqualTo(welcome);
+    } finally {
+      waiter.stop();
+    }
+  }
+
+  private class TestScreenConditionWaiter extends ConditionWaiter<ScreenWaitCondition> {
+
+    private volatile ScreenSignature recognized;
+
+    private TestScreenConditionWaiter(ScreenWaitCondition condition, ScreenSignature recognized) {
+      super(condition, stableTimeoutExecutor, exceptionHandler);
+      this.recognized = recognized;
+      initialVerificationOfCondition();
+    }
+
+    @Override
+    protected boolean getCurrentConditionState() {
+      return recognized != null;
+    }
+
+    @Override
+    protected WaitCondition buildCompletedCondition() {
+      return condition.withRecognizedScreen(recognized);
+    }
+
+  }
+
+  private class TestConditionWaiter extends ConditionWaiter<SyncWaitCondition> {
+
+    private volatile boolean conditionMet;
+
+    private TestConditionWaiter(SyncWaitCondition condition, boolean conditionMet) {
+      super(condition, stableTimeoutExecutor, exceptionHandler);
+      this.conditionMet = conditionMet;
+      initialVerificationOfCondition();
+    }
+
+    private void meetCondition() {
+      conditionMet = true;
+      updateConditionState("conditionMet");
+    }
+
+    @Override
+    protected boolean getCurrentConditionState() {
+      return conditionMet;
+    }
+
+  }
+
+}
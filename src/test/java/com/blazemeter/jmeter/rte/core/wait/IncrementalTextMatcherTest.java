@@ -0,0 +1,77 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Screen;
+import java.awt.Dimension;
+import org.apache.oro.text.regex.MalformedPatternException;
+import org.apache.oro.text.regex.Perl5Compiler;
+import org.apache.oro.text.regex.Perl5Matcher;
+import org.junit.Test;
+
+public class IncrementalTextMatcherTest {
+
+  private static final Area DEFAULT_SEARCH_AREA = Area
+      .fromTopLeftBottomRight(1, 1, Position.UNSPECIFIED_INDEX, Position.UNSPECIFIED_INDEX);
+  private static final Dimension SCREEN_SIZE = new Dimension(20, 4);
+  private static final String WELCOME_SCREEN = "+------------------+\n"
+      + "| Welcome to the   |\n"
+      + "|  awesome server! |\n"
+      + "+------------------+\n";
+  private static final String LOGIN_SCREEN = "+------------------+\n"
+      + "| Welcome to the   |\n"
+      + "|  login screen    |\n"
+      + "+------------------+\n";
+
+  @Test
+  public void shouldMatchWhenLiteralInScreen() throws Exception {
+    assertThat(buildMatcher("awesome").matches(buildScreen(WELCOME_SCREEN))).isTrue();
+  }
+
+  private IncrementalTextMatcher buildMatcher(String regex) throws MalformedPatternException {
+    return new TextWaitCondition(new Perl5Compiler().compile(regex), new Perl5Matcher(),
+        DEFAULT_SEARCH_AREA, 60000, 1000).buildIncrementalMatcher();
+  }
+
+  private Screen buildScreen(String text) {
+    return Screen.buildScreenFromText(text, SCREEN_SIZE);
+  }
+
+  @Test
+  public void shouldNotMatchWhenLiteralRemovedFromChangedRow() throws Exception {
+    IncrementalTextMatcher matcher = buildMatcher("awesome");
+    matcher.matches(buildScreen(WELCOME_SCREEN));
+    assertThat(matcher.matches(buildScreen(LOGIN_SCREEN))).isFalse();
+  }
+
+  @Test
+  public void shouldMatchWhenLiteralAddedInChangedRow() throws Exception {
+    IncrementalTextMatcher matcher = buildMatcher("awesome");
+    matcher.matches(buildScreen(LOGIN_SCREEN));
+    assertThat(matcher.matches(buildScreen(WELCOME_SCREEN))).isTrue();
+  }
+
+  @Test
+  public void shouldKeepMatchingWhenUnchangedScreen() throws Exception {
+    IncrementalTextMatcher matcher = buildMatcher("Welcome.*\\n.*awesome");
+    matcher.matches(buildScreen(WELCOME_SCREEN));
+    assertThat(matcher.matches(buildScreen(WELCOME_SCREEN))).isTrue();
+  }
+
+  @Test
+  public void shouldNotMatchWhenRegexNoLongerMatchingChangedScreen() throws Exception {
+    IncrementalTextMatcher matcher = buildMatcher("Welcome.*\\n.*awesome");
+    matcher.matches(buildScreen(WELCOME_SCREEN));
+    assertThat(matcher.matches(buildScreen(LOGIN_SCREEN))).isFalse();
+  }
+
+  @Test
+  public void shouldMatchWhenScreenSizeChanges() throws Exception {
+    IncrementalTextMatcher matcher = buildMatcher("awesome");
+    matcher.matches(buildScreen(LOGIN_SCREEN));
+    assertThat(matcher.matches(Screen.buildScreenFromText("awesome\n", new Dimension(7, 1))))
+        .isTrue();
+  }
+
+}
@@ -0,0 +1,49 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.Position;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class ScreenSignatureTest {
+
+  private static final Area DEFAULT_SEARCH_AREA = Area
+      .fromTopLeftBottomRight(1, 1, Position.UNSPECIFIED_INDEX,
+          Position.UNSPECIFIED_INDEX);
+
+  @Test
+  public void shouldParseSignaturesWhenTableWithAndWithoutSearchAreas() {
+    List<ScreenSignature> signatures = ScreenSignature
+        .fromTable("welcome|Welcome\n\nawesome|awesome|3,4,3,\n");
+    assertThat(signatures).containsExactly(
+        new ScreenSignature("welcome", "Welcome", DEFAULT_SEARCH_AREA),
+        new ScreenSignature("awesome", "awesome",
+            Area.fromTopLeftBottomRight(3, 4, 3, Position.UNSPECIFIED_INDEX)));
+  }
+
+  @Test
+  public void shouldGetSameSignaturesWhenParsingGeneratedTable() {
+    List<ScreenSignature> signatures = Arrays.asList(
+        new ScreenSignature("menu", "MAIN|MENU", DEFAULT_SEARCH_AREA),
+        new ScreenSignature("awesome", "awesome", Area.fromTopLeftBottomRight(3, 4, 3, 10)));
+    assertThat(ScreenSignature.fromTable(ScreenSignature.toTable(signatures)))
+        .isEqualTo(signatures);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIllegalArgumentExceptionWhenSignatureWithoutText() {
+    ScreenSignature.fromTable("welcome|");
+  }
+
+  @Test
+  public void shouldFindAllTextsOccurrencesWhenSearchingWithAutomaton() {
+    StringBuilder matches = new StringBuilder();
+    new AhoCorasickAutomaton(Arrays.asList("he", "she", "hers", "his"))
+        .search("ushers", (pattern, start) -> matches.append(pattern).append('@')
+            .append(start).append(' '));
+    assertThat(matches.toString()).isEqualTo("1@1 0@2 2@2 ");
+  }
+
+}
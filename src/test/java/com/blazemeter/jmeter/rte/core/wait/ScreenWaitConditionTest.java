@@ -0,0 +1,111 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Screen;
+import java.awt.Dimension;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScreenWaitConditionTest {
+
+  @Mock
+  private Screen screen;
+  @Mock
+  private Screen sameScreen;
+
+  private static final Area DEFAULT_SEARCH_AREA = Area
+      .fromTopLeftBottomRight(1, 1, Position.UNSPECIFIED_INDEX,
+          Position.UNSPECIFIED_INDEX);
+  private static final String SCREEN = "+------------------+\n"
+      + "| Welcome to the   |\n"
+      + "|  awesome server! |\n"
+      + "+------------------+\n";
+  private static final Dimension SCREEN_SIZE = new Dimension(20, 4);
+
+  @Before
+  public void setup() {
+    when(screen.getText()).thenReturn(SCREEN);
+    when(screen.getSize()).thenReturn(SCREEN_SIZE);
+  }
+
+  @Test
+  public void shouldRecognizeScreenWhenTextMatchesInDefaultSearchArea() {
+    ScreenSignature welcome = new ScreenSignature("welcome", "Welcome", DEFAULT_SEARCH_AREA);
+    assertThat(buildCondition(new ScreenSignature("login", "Password", DEFAULT_SEARCH_AREA),
+        welcome).recognize(screen))
+        .isEqualTo(welcome);
+  }
+
+  private ScreenWaitCondition buildCondition(ScreenSignature... signatures) {
+    return new ScreenWaitCondition(Arrays.asList(signatures), 60000, 1000);
+  }
+
+  @Test
+  public void shouldRecognizeScreenWhenConditionWithOtherStableTimeout() {
+    ScreenSignature welcome = new ScreenSignature("welcome", "Welcome", DEFAULT_SEARCH_AREA);
+    ScreenWaitCondition condition = (ScreenWaitCondition) buildCondition(welcome)
+        .withStableTimeout(100);
+    assertThat(new Object[]{condition.getStableTimeoutMillis(), condition.recognize(screen)})
+        .containsExactly(100L, welcome);
+  }
+
+  @Test
+  public void shouldNotRecognizeScreenWhenNoTextMatches() {
+    assertThat(buildCondition(new ScreenSignature("login", "Password", DEFAULT_SEARCH_AREA))
+        .recognize(screen))
+        .isNull();
+  }
+
+  @Test
+  public void shouldRecognizeFirstSignatureWhenSeveralMatch() {
+    ScreenSignature server = new ScreenSignature("server", "server", DEFAULT_SEARCH_AREA);
+    assertThat(buildCondition(server,
+        new ScreenSignature("welcome", "Welcome", DEFAULT_SEARCH_AREA)).recognize(screen))
+        .isEqualTo(server);
+  }
+
+  @Test
+  public void shouldRecognizeScreenWhenTextMatchesInReducedSearchArea() {
+    ScreenSignature awesome = new ScreenSignature("awesome", "awesome",
+        Area.fromTopLeftBottomRight(3, 4, 3, 10));
+    assertThat(buildCondition(awesome).recognize(screen))
+        .isEqualTo(awesome);
+  }
+
+  @Test
+  public void shouldNotRecognizeScreenWhenTextMatchesOutsideSearchArea() {
+    assertThat(buildCondition(new ScreenSignature("awesome", "awesome",
+        Area.fromTopLeftBottomRight(3, 4, 3, 9))).recognize(screen))
+        .isNull();
+  }
+
+  @Test
+  public void shouldRecognizeScreenWhenSignaturesShareTextWithDifferentSearchAreas() {
+    ScreenSignature bottom = new ScreenSignature("bottom", "+---", Area
+        .fromTopLeftBottomRight(4, 1, Position.UNSPECIFIED_INDEX, Position.UNSPECIFIED_INDEX));
+    assertThat(buildCondition(new ScreenSignature("middle", "+---",
+        Area.fromTopLeftBottomRight(2, 1, 3, Position.UNSPECIFIED_INDEX)), bottom)
+        .recognize(screen))
+        .isEqualTo(bottom);
+  }
+
+  @Test
+  public void shouldNotSearchScreenAgainWhenRecognizerGetsScreenWithSameFingerprint() {
+    when(screen.getFingerprint()).thenReturn(1L);
+    when(sameScreen.getFingerprint()).thenReturn(1L);
+    ScreenSignature welcome = new ScreenSignature("welcome", "Welcome", DEFAULT_SEARCH_AREA);
+    ScreenRecognizer recognizer = buildCondition(welcome).buildRecognizer();
+    recognizer.recognize(screen);
+    assertThat(recognizer.recognize(sameScreen)).isEqualTo(welcome);
+    assertThat(recognizer.isRecognizedChanged()).isFalse();
+  }
+
+}
@@ -0,0 +1,75 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.blazemeter.jmeter.rte.core.listener.TerminalStateListener;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StablePeriodLearnerTest {
+
+  private static final String LABEL = "login";
+  private static final long CONFIGURED_STABLE_PERIOD_MILLIS = 1000;
+  private static final long MARGIN_MILLIS = 100;
+
+  private StablePeriodLearner learner;
+
+  @Before
+  public void setup() {
+    learner = new StablePeriodLearner(MARGIN_MILLIS);
+  }
+
+  @Test
+  public void shouldGetConfiguredStablePeriodWhenNotEnoughGaps() {
+    addGaps(LABEL, StablePeriodLearner.MIN_GAPS - 1, 10);
+    assertThat(getStablePeriod()).isEqualTo(CONFIGURED_STABLE_PERIOD_MILLIS);
+  }
+
+  private void addGaps(String label, int count, long gapMillis) {
+    for (int i = 0; i < count; i++) {
+      learner.addGap(label, gapMillis);
+    }
+  }
+
+  private long getStablePeriod() {
+    return learner.getStablePeriodMillis(LABEL, CONFIGURED_STABLE_PERIOD_MILLIS);
+  }
+
+  @Test
+  public void shouldGetPercentileGapPlusMarginWhenEnoughGaps() {
+    addGaps(LABEL, StablePeriodLearner.MIN_GAPS - 1, 10);
+    learner.addGap(LABEL, 500);
+    assertThat(getStablePeriod()).isEqualTo(10 + MARGIN_MILLIS);
+  }
+
+  @Test
+  public void shouldGetConfiguredStablePeriodWhenLearnedIsGreater() {
+    addGaps(LABEL, StablePeriodLearner.MIN_GAPS, CONFIGURED_STABLE_PERIOD_MILLIS);
+    assertThat(getStablePeriod()).isEqualTo(CONFIGURED_STABLE_PERIOD_MILLIS);
+  }
+
+  @Test
+  public void shouldGetConfiguredStablePeriodWhenExplorationSample() {
+    addGaps(LABEL, StablePeriodLearner.MIN_GAPS, 10);
+    for (int i = 1; i < StablePeriodLearner.EXPLORATION_INTERVAL; i++) {
+      getStablePeriod();
+    }
+    assertThat(getStablePeriod()).isEqualTo(CONFIGURED_STABLE_PERIOD_MILLIS);
+  }
+
+  @Test
+  public void shouldGetConfiguredStablePeriodWhenGapsFromOtherLabel() {
+    addGaps("other", StablePeriodLearner.MIN_GAPS, 10);
+    assertThat(getStablePeriod()).isEqualTo(CONFIGURED_STABLE_PERIOD_MILLIS);
+  }
+
+  @Test
+  public void shouldLearnStablePeriodWhenGapRecorderNotifiedEnoughEvents() {
+    TerminalStateListener recorder = learner.buildGapRecorder(LABEL);
+    for (int i = 0; i <= StablePeriodLearner.MIN_GAPS; i++) {
+      recorder.onTerminalStateChange();
+    }
+    assertThat(getStablePeriod()).isLessThan(CONFIGURED_STABLE_PERIOD_MILLIS);
+  }
+
+}
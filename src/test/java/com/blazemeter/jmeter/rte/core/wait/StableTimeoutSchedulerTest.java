@@ -0,0 +1,60 @@
+package com.blazemeter.jmeter.rte.core.wait;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class StableTimeoutSchedulerTest {
+
+  private static final long DELAY_MILLIS = 50;
+
+  private final Object session = new Object();
+
+  @After
+  public void teardown() {
+    StableTimeoutScheduler.shutdownInstance();
+  }
+
+  @Test
+  public void shouldGetSameInstanceWhenGetInstanceTwice() {
+    assertThat(StableTimeoutScheduler.getInstance())
+        .isSameAs(StableTimeoutScheduler.getInstance());
+  }
+
+  @Test
+  public void shouldGetNewInstanceWhenGetInstanceAfterShutdown() {
+    StableTimeoutScheduler scheduler = StableTimeoutScheduler.getInstance();
+    StableTimeoutScheduler.shutdownInstance();
+    assertThat(StableTimeoutScheduler.getInstance()).isNotSameAs(scheduler);
+  }
+
+  @Test
+  public void shouldGetSameExecutorWhenGetExecutorForSameSession() {
+    StableTimeoutScheduler scheduler = StableTimeoutScheduler.getInstance();
+    assertThat(scheduler.getExecutor(session)).isSameAs(scheduler.getExecutor(session));
+  }
+
+  @Test
+  public void shouldTrackExecutedTaskWhenScheduledTaskRuns() throws Exception {
+    StableTimeoutScheduler scheduler = StableTimeoutScheduler.getInstance();
+    CountDownLatch latch = new CountDownLatch(1);
+    scheduler.getExecutor(session)
+        .schedule(latch::countDown, DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    latch.await();
+    assertThat(scheduler.getExecutedCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldRemoveTaskFromQueueWhenCancelled() {
+    StableTimeoutScheduler scheduler = StableTimeoutScheduler.getInstance();
+    ScheduledFuture<?> task = scheduler.getExecutor(session).schedule(() -> {
+    }, DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    task.cancel(false);
+    assertThat(scheduler.getScheduledCount()).isZero();
+  }
+
+}
@@ -95,4 +95,28 @@ public class TextWaitConditionTest {
         .isTrue();
   }
 
+  @Test
+  public void shouldBeLiteralWhenRegexWithoutMetaCharacters() throws Exception {
+    assertThat(buildCondition("Welcome to", DEFAULT_SEARCH_AREA).isLiteral()).isTrue();
+  }
+
+  @Test
+  public void shouldNotBeLiteralWhenRegexWithMetaCharacters() throws Exception {
+    assertThat(buildCondition("Welcome.*", DEFAULT_SEARCH_AREA).isLiteral()).isFalse();
+  }
+
+  @Test
+  public void shouldNotBeLiteralWhenCaseInsensitiveRegex() throws Exception {
+    assertThat(new TextWaitCondition(
+        new Perl5Compiler().compile("welcome", Perl5Compiler.CASE_INSENSITIVE_MASK),
+        new Perl5Matcher(), DEFAULT_SEARCH_AREA, 60000, 1000).isLiteral()).isFalse();
+  }
+
+  @Test
+  public void shouldNotMatchScreenWhenLiteralSpansMultipleRowsOfArea() throws Exception {
+    assertThat(buildCondition("server! |+---", DEFAULT_SEARCH_AREA)
+        .matchesScreen(screen))
+        .isFalse();
+  }
+
 }
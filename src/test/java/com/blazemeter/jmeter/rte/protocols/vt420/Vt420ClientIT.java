@@ -6,6 +6,8 @@ import com.blazemeter.jmeter.rte.JMeterTestUtils;
 import com.blazemeter.jmeter.rte.core.AttentionKey;
 import com.blazemeter.jmeter.rte.core.NavigationInput;
 import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Protocol;
+import com.blazemeter.jmeter.rte.core.RteSampleResultBuilder;
 import com.blazemeter.jmeter.rte.core.Segment;
 import com.blazemeter.jmeter.rte.core.TerminalType;
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
@@ -19,6 +21,7 @@ import com.blazemeter.jmeter.rte.core.wait.SyncWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
 import com.blazemeter.jmeter.rte.protocols.RteProtocolClientIT;
+import com.blazemeter.jmeter.rte.sampler.Action;
 import com.blazemeter.jmeter.rte.sampler.NavigationType;
 import com.blazemeter.jmeter.rte.sampler.RTESampler;
 import java.awt.Dimension;
@@ -27,6 +30,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
+import org.apache.jmeter.samplers.SampleResult;
 import org.apache.oro.text.regex.Perl5Compiler;
 import org.apache.oro.text.regex.Perl5Matcher;
 import org.assertj.core.api.JUnitSoftAssertions;
@@ -51,6 +55,9 @@ public class Vt420ClientIT extends RteProtocolClientIT<Vt420Client> {
   private static final Position USER_ID_CURSOR_POSITION = new Position(12, 42);
   private static final Position WELCOME_SCREEN_CURSOR_POSITION = new Position(12, 27);
   private static final String ARROW_NAVIGATION_SCREEN_HTML = "arrow-navigation-screen.html";
+  // telnet negotiation and welcome screen bytes in login flow, excluding TLS records overhead
+  private static final int WELCOME_SERVER_BYTES = 585;
+  private static final int WELCOME_CLIENT_BYTES = 6;
   @Rule
   public final JUnitSoftAssertions softly = new JUnitSoftAssertions();
 
@@ -73,6 +80,7 @@ public class Vt420ClientIT extends RteProtocolClientIT<Vt420Client> {
   public void setup() throws Exception {
     super.setup();
     RTESampler.setCharacterTimeout(5000);
+    RTESampler.setCharacterSendWindow(1);
   }
 
   @Override
@@ -139,6 +147,51 @@ public class Vt420ClientIT extends RteProtocolClientIT<Vt420Client> {
         TIMEOUT_MILLIS);
   }
 
+  @Test
+  public void shouldGetArrowNavigationScreenWhenSendCredentialsWithCharacterSendWindowOfOne()
+      throws Exception {
+    RTESampler.setCharacterSendWindow(1);
+    loadUserMenuScreen();
+    sendCredentialsByTabulator();
+    awaitSync();
+    assertThat(client.getScreen().withInvisibleCharsToSpaces())
+        .isEqualTo(buildScreenFromHtmlFile(ARROW_NAVIGATION_SCREEN_HTML));
+  }
+
+  private void loadUserMenuScreen() throws Exception {
+    loadLoginFlow();
+    connectToVirtualService();
+    waitForCursorPosition(WELCOME_SCREEN_CURSOR_POSITION);
+    sendEnterAttentionKey();
+    waitForCursorPosition(USER_ID_CURSOR_POSITION);
+  }
+
+  @Test
+  public void shouldGetArrowNavigationScreenWhenSendCredentialsWithCharacterSendWindowOfSeveral()
+      throws Exception {
+    RTESampler.setCharacterSendWindow(3);
+    loadUserMenuScreen();
+    sendCredentialsByTabulator();
+    awaitSync();
+    assertThat(client.getScreen().withInvisibleCharsToSpaces())
+        .isEqualTo(buildScreenFromHtmlFile(ARROW_NAVIGATION_SCREEN_HTML));
+  }
+
+  @Test
+  public void shouldNotWaitCharacterTimeoutWhenSendWindowAndCursorNotInExpectedPosition()
+      throws Exception {
+    RTESampler.setCharacterSendWindow(0);
+    loadUserMenuScreen();
+    long startMillis = System.currentTimeMillis();
+    // host moves the cursor to next field after each input, instead of the end of typed text
+    sendCredentialsByTabulator();
+    softly.assertThat(System.currentTimeMillis() - startMillis)
+        .isLessThan(RTESampler.getCharacterTimeout());
+    awaitSync();
+    softly.assertThat(client.getScreen().withInvisibleCharsToSpaces())
+        .isEqualTo(buildScreenFromHtmlFile(ARROW_NAVIGATION_SCREEN_HTML));
+  }
+
   private void awaitSync() throws InterruptedException, TimeoutException, RteIOException {
     client.await(Collections.singletonList(new SyncWaitCondition(3000, STABLE_TIMEOUT_MILLIS)));
   }
@@ -250,6 +303,13 @@ public class Vt420ClientIT extends RteProtocolClientIT<Vt420Client> {
 
   @Test
   public void shouldGetWelcomeScreenWhenConnectWithSsl() throws Exception {
+    connectToSslVirtualService();
+    awaitSync();
+    assertThat(client.getScreen().withInvisibleCharsToSpaces())
+        .isEqualTo(buildScreenFromHtmlFile("user-welcome-screen.html"));
+  }
+
+  private void connectToSslVirtualService() throws Exception {
     server.stop(SERVER_STOP_TIMEOUT);
     loadLoginFlow();
     SSLContextFactory.setKeyStore(findResource("/.keystore").getFile());
@@ -258,9 +318,26 @@ public class Vt420ClientIT extends RteProtocolClientIT<Vt420Client> {
     server.start();
     client.connect(VIRTUAL_SERVER_HOST, server.getPort(), SSLType.TLS, getDefaultTerminalType(),
         TIMEOUT_MILLIS);
+  }
+
+  @Test
+  public void shouldGetWelcomeScreenFlowBytesInSampleResultWhenConnectWithSsl()
+      throws Exception {
+    RteSampleResultBuilder resultBuilder = new RteSampleResultBuilder()
+        .withAction(Action.CONNECT)
+        .withProtocol(Protocol.VT420)
+        .withTerminalType(getDefaultTerminalType())
+        .withServer(VIRTUAL_SERVER_HOST)
+        .withSslType(SSLType.TLS)
+        .withTrafficSource(client);
+    connectToSslVirtualService();
     awaitSync();
-    assertThat(client.getScreen().withInvisibleCharsToSpaces())
-        .isEqualTo(buildScreenFromHtmlFile("user-welcome-screen.html"));
+    SampleResult result = resultBuilder
+        .withPort(server.getPort())
+        .withSuccessResponse(client)
+        .build();
+    assertThat(new long[]{result.getBytesAsLong(), result.getSentBytes()})
+        .containsExactly(WELCOME_SERVER_BYTES, WELCOME_CLIENT_BYTES);
   }
 
   @Test
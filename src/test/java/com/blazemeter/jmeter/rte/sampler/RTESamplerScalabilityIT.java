@@ -0,0 +1,271 @@
+package com.blazemeter.jmeter.rte.sampler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import com.blazemeter.jmeter.rte.JMeterTestUtils;
+import com.blazemeter.jmeter.rte.core.AttentionKey;
+import com.blazemeter.jmeter.rte.core.CoordInput;
+import com.blazemeter.jmeter.rte.core.Position;
+import com.blazemeter.jmeter.rte.core.Protocol;
+import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.jmeter.samplers.SampleResult;
+import org.apache.jmeter.threads.JMeterContextService;
+import org.apache.jmeter.threads.JMeterVariables;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import us.abstracta.wiresham.Flow;
+import us.abstracta.wiresham.VirtualTcpService;
+
+/**
+ * Measures how many concurrent sessions a single engine sustains running a full login flow with
+ * {@link RTESampler} against a local wiresham virtual host.
+ *
+ * <p>Since it takes a long time and a lot of resources, it is only run when
+ * {@value #SESSIONS_PROPERTY} system property is set with the comma separated list of concurrent
+ * sessions to run (eg: 10,100,1000,5000). Results are stored as json in the file specified by
+ * {@value #REPORT_PROPERTY} system property, or {@value #DEFAULT_REPORT_FILE} when not set.
+ */
+public class RTESamplerScalabilityIT {
+
+  private static final String SESSIONS_PROPERTY = "rte.scalability.sessions";
+  private static final String REPORT_PROPERTY = "rte.scalability.report";
+  private static final String DEFAULT_REPORT_FILE = "target/scalability-report.json";
+  private static final String FLOW_FILE = "/com/blazemeter/jmeter/rte/protocols/tn5250/login.yml";
+  private static final Pattern DELAY_PATTERN = Pattern.compile("delayMillis: *(\\d+)");
+  private static final String TERMINAL_TYPE = "IBM-3477-FC";
+  private static final String CONNECT_LABEL = "connect";
+  private static final String LOGIN_LABEL = "login";
+  private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(2);
+  private static final long SERVER_STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+  private static final long HEAP_SAMPLING_PERIOD_MILLIS = 100;
+
+  private VirtualTcpService server;
+
+  @BeforeClass
+  public static void setupClass() {
+    JMeterTestUtils.setupJmeterEnv();
+  }
+
+  @Before
+  public void setup() {
+    assumeTrue("Scalability suite is only run when " + SESSIONS_PROPERTY + " is set",
+        System.getProperty(SESSIONS_PROPERTY) != null);
+  }
+
+  @Test
+  public void shouldRunAllSessionsWithoutErrorsWhenLoginConcurrently() throws Exception {
+    long scriptedDelayMillis = getScriptedDelayMillis();
+    List<Map<String, Object>> runs = new ArrayList<>();
+    for (int sessions : getSessions()) {
+      runs.add(runSessions(sessions, scriptedDelayMillis));
+    }
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("flow", FLOW_FILE);
+    report.put("scriptedDelayMillis", scriptedDelayMillis);
+    report.put("stableTimeoutMillis", RTESampler.getStableTimeout());
+    report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+    report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+    report.put("runs", runs);
+    File reportFile = new File(System.getProperty(REPORT_PROPERTY, DEFAULT_REPORT_FILE));
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+    assertThat(runs).allMatch(r -> (long) r.get("errors") == 0);
+  }
+
+  private List<Integer> getSessions() {
+    return Arrays.stream(System.getProperty(SESSIONS_PROPERTY).split(","))
+        .map(s -> Integer.parseInt(s.trim()))
+        .collect(Collectors.toList());
+  }
+
+  private long getScriptedDelayMillis() throws IOException {
+    Matcher matcher = DELAY_PATTERN.matcher(Resources.toString(findFlow(), Charsets.UTF_8));
+    long ret = 0;
+    while (matcher.find()) {
+      ret += Long.parseLong(matcher.group(1));
+    }
+    return ret;
+  }
+
+  private URL findFlow() {
+    return getClass().getResource(FLOW_FILE);
+  }
+
+  private Map<String, Object> runSessions(int sessions, long scriptedDelayMillis)
+      throws Exception {
+    startServer(sessions);
+    ScheduledExecutorService heapSampler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      int baselineThreads = threads.getThreadCount();
+      threads.resetPeakThreadCount();
+      AtomicLong peakHeapBytes = new AtomicLong();
+      MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+      heapSampler.scheduleAtFixedRate(
+          () -> peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+          0, HEAP_SAMPLING_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+      long gcTimeMillis = getGcTimeMillis();
+      long gcCount = getGcCount();
+
+      ConcurrentLinkedQueue<SampleResult> results = new ConcurrentLinkedQueue<>();
+      ConcurrentLinkedQueue<Long> sessionTimes = new ConcurrentLinkedQueue<>();
+      CountDownLatch start = new CountDownLatch(1);
+      List<Thread> sessionThreads = new ArrayList<>();
+      new RTESampler().testStarted();
+      for (int i = 0; i < sessions; i++) {
+        Thread thread = new Thread(() -> runSession(start, results, sessionTimes),
+            "scalability-session-" + i);
+        thread.start();
+        sessionThreads.add(thread);
+      }
+      long startNanos = System.nanoTime();
+      start.countDown();
+      for (Thread thread : sessionThreads) {
+        thread.join(TIMEOUT_MILLIS);
+      }
+      long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      new RTESampler().testEnded();
+
+      Map<String, Object> ret = new LinkedHashMap<>();
+      ret.put("sessions", sessions);
+      ret.put("samples", results.size());
+      ret.put("errors", results.stream().filter(r -> !r.isSuccessful()).count()
+          + (sessions - sessionTimes.size()));
+      ret.put("durationMillis", durationMillis);
+      ret.put("samplesPerSecond", results.size() * 1000.0 / Math.max(durationMillis, 1));
+      ret.put("sampleTimeMillis", buildLabelsPercentiles(results));
+      Map<String, Long> sessionPercentiles = buildPercentiles(new ArrayList<>(sessionTimes));
+      ret.put("sessionTimeMillis", sessionPercentiles);
+      // time spent by the engine on top of the delays scripted in the flow
+      ret.put("sessionOverheadMillis", sessionPercentiles.entrySet().stream()
+          .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue() - scriptedDelayMillis,
+              (a, b) -> a, LinkedHashMap::new)));
+      ret.put("baselineThreads", baselineThreads);
+      ret.put("peakThreads", threads.getPeakThreadCount());
+      // threads started by emulators and the plugin, besides the thread running each session
+      ret.put("emulatorThreadsPerSession",
+          (threads.getPeakThreadCount() - baselineThreads - sessions) / (double) sessions);
+      ret.put("peakHeapBytes", peakHeapBytes.get());
+      ret.put("gcTimeMillis", getGcTimeMillis() - gcTimeMillis);
+      ret.put("gcCount", getGcCount() - gcCount);
+      return ret;
+    } finally {
+      heapSampler.shutdownNow();
+      server.stop(SERVER_STOP_TIMEOUT_MILLIS);
+    }
+  }
+
+  private void startServer(int sessions) throws IOException {
+    server = new VirtualTcpService();
+    server.setSslEnabled(false);
+    server.setMaxConnections(sessions);
+    server.setFlow(Flow.fromYml(new File(findFlow().getFile())));
+    server.start();
+  }
+
+  private long getGcTimeMillis() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+        .sum();
+  }
+
+  private long getGcCount() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+        .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+        .sum();
+  }
+
+  private void runSession(CountDownLatch start, ConcurrentLinkedQueue<SampleResult> results,
+      ConcurrentLinkedQueue<Long> sessionTimes) {
+    JMeterContextService.getContext().setVariables(new JMeterVariables());
+    RTESampler connect = buildSampler(CONNECT_LABEL, Action.CONNECT);
+    RTESampler login = buildSampler(LOGIN_LABEL, Action.SEND_INPUT);
+    login.setInputs(Arrays.asList(new CoordInput(new Position(6, 53), "TESTUSR"),
+        new CoordInput(new Position(7, 53), "TESTPSW")));
+    login.setAttentionKey(AttentionKey.ENTER);
+    try {
+      start.await();
+      long startNanos = System.nanoTime();
+      SampleResult connectResult = connect.sample(null);
+      results.add(connectResult);
+      if (connectResult.isSuccessful()) {
+        results.add(login.sample(null));
+      }
+      sessionTimes.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      connect.threadFinished();
+    }
+  }
+
+  private RTESampler buildSampler(String label, Action action) {
+    RTESampler ret = new RTESampler();
+    ret.setName(label);
+    ret.setProperty(RTESampler.CONFIG_SERVER, "localhost");
+    ret.setProperty(RTESampler.CONFIG_PORT, server.getPort());
+    ret.setProperty(RTESampler.CONFIG_PROTOCOL, Protocol.TN5250.name());
+    ret.setProperty(RTESampler.CONFIG_TERMINAL_TYPE, TERMINAL_TYPE);
+    ret.setProperty(RTESampler.CONFIG_CONNECTION_TIMEOUT, TIMEOUT_MILLIS);
+    ret.setSslType(SSLType.NONE);
+    ret.setAction(action);
+    ret.setWaitSync(true);
+    ret.setWaitSyncTimeout(String.valueOf(TIMEOUT_MILLIS));
+    return ret;
+  }
+
+  private Map<String, Map<String, Long>> buildLabelsPercentiles(
+      Collection<SampleResult> results) {
+    Map<String, List<Long>> labelsTimes = results.stream()
+        .collect(Collectors.groupingBy(SampleResult::getSampleLabel, LinkedHashMap::new,
+            Collectors.mapping(SampleResult::getTime, Collectors.toList())));
+    Map<String, Map<String, Long>> ret = new LinkedHashMap<>();
+    labelsTimes.forEach((label, times) -> ret.put(label, buildPercentiles(times)));
+    return ret;
+  }
+
+  private Map<String, Long> buildPercentiles(List<Long> times) {
+    Map<String, Long> ret = new LinkedHashMap<>();
+    if (times.isEmpty()) {
+      return ret;
+    }
+    Collections.sort(times);
+    ret.put("p50", getPercentile(times, 50));
+    ret.put("p99", getPercentile(times, 99));
+    ret.put("max", times.get(times.size() - 1));
+    return ret;
+  }
+
+  private long getPercentile(List<Long> sortedTimes, int percentile) {
+    int index = (int) Math.ceil(percentile / 100.0 * sortedTimes.size()) - 1;
+    return sortedTimes.get(Math.max(index, 0));
+  }
+
+}
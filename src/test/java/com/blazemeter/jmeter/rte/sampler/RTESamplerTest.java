@@ -1,15 +1,16 @@
 package com.blazemeter.jmeter.rte.sampler;
 
 import static com.blazemeter.jmeter.rte.SampleResultAssertions.assertSampleResult;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,11 +26,17 @@ import com.blazemeter.jmeter.rte.core.ScreenTest;
 import com.blazemeter.jmeter.rte.core.TerminalType;
 import com.blazemeter.jmeter.rte.core.exceptions.RteIOException;
 import com.blazemeter.jmeter.rte.core.ssl.SSLType;
+import com.blazemeter.jmeter.rte.core.timing.PhaseTimer;
+import com.blazemeter.jmeter.rte.core.timing.SamplePhase;
 import com.blazemeter.jmeter.rte.core.wait.Area;
 import com.blazemeter.jmeter.rte.core.wait.CursorWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.ScreenSignature;
+import com.blazemeter.jmeter.rte.core.wait.ScreenWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.SilentWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.SyncWaitCondition;
 import com.blazemeter.jmeter.rte.core.wait.TextWaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitCondition;
+import com.blazemeter.jmeter.rte.core.wait.WaitMode;
 import java.awt.Dimension;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -37,6 +44,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.jmeter.config.ConfigTestElement;
 import org.apache.jmeter.samplers.SampleResult;
 import org.apache.jmeter.util.JMeterUtils;
@@ -183,7 +191,7 @@ public class RTESamplerTest {
     doThrow(e).
         when(client).await(Collections
         .singletonList(new SyncWaitCondition(CUSTOM_TIMEOUT_MILLIS,
-            RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)));
+            RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)), WaitMode.ALL);
     assertSampleResult(rteSampler.sample(null), buildTimeoutErrorResult(e));
   }
 
@@ -211,6 +219,48 @@ public class RTESamplerTest {
         .build();
   }
 
+  @Test
+  public void shouldStorePhaseVariablesWhenClientMarksPhases() {
+    doAnswer(invocation -> {
+      PhaseTimer phaseTimer = invocation.getArgument(0);
+      if (phaseTimer != null) {
+        phaseTimer.mark(SamplePhase.SEND);
+      }
+      return null;
+    }).when(client).setPhaseTimer(any());
+    rteSampler.getThreadContext().getVariables().put("RTE_PHASE_CONNECT", "10");
+    rteSampler.sample(null);
+    assertThat(rteSampler.getThreadContext().getVariables().get("RTE_PHASE_SEND")).isNotNull();
+    assertThat(rteSampler.getThreadContext().getVariables().get("RTE_PHASE_CONNECT")).isNull();
+  }
+
+  @Test
+  public void shouldGetStablePhaseAfterSendPhaseWhenSampleConnects() throws Exception {
+    AtomicReference<PhaseTimer> phaseTimer = new AtomicReference<>();
+    doAnswer(invocation -> {
+      phaseTimer.set(invocation.getArgument(0));
+      return null;
+    }).when(client).setPhaseTimer(any());
+    doAnswer(invocation -> markPhase(phaseTimer, SamplePhase.STABLE))
+        .when(client).await(anyList());
+    doAnswer(invocation -> markPhase(phaseTimer, SamplePhase.SEND))
+        .when(client).send(any(), any(), anyLong());
+    doAnswer(invocation -> markPhase(phaseTimer, SamplePhase.STABLE))
+        .when(client).await(anyList(), any());
+    assertThat(rteSampler.sample(null).getResponseHeaders())
+        .contains("Phase-timings: send=")
+        .containsPattern("send=\\d+, stable=\\d+");
+  }
+
+  private Object markPhase(AtomicReference<PhaseTimer> phaseTimer, SamplePhase phase) {
+    // emulates protocol clients, which only mark phases when a timer is attached
+    PhaseTimer timer = phaseTimer.get();
+    if (timer != null) {
+      timer.mark(phase);
+    }
+    return null;
+  }
+
   @Test
   public void shouldGetSuccessfulSamplerWithResultAlarmHeaderResultWhenClientGetAlarmSignal() {
     when(client.isAlarmOn()).thenReturn(true);
@@ -284,6 +334,76 @@ public class RTESamplerTest {
     }
   }
 
+  @Test
+  public void shouldNotDisconnectEmulatorWhenIterationStartAndSessionPoolEnabled()
+      throws Exception {
+    rteSampler.setSessionPoolEnabled(true);
+    try {
+      rteSampler.sample(null);
+      rteSampler.iterationStart(null);
+      verify(client, never()).disconnect();
+    } finally {
+      rteSampler.setSessionPoolEnabled(false);
+      rteSampler.testEnded();
+    }
+  }
+
+  @Test
+  public void shouldReusePooledSessionWhenSampleAfterIterationStartAndSessionPoolEnabled()
+      throws Exception {
+    rteSampler.setSessionPoolEnabled(true);
+    try {
+      rteSampler.sample(null);
+      rteSampler.iterationStart(null);
+      rteSampler.sample(null);
+      verify(client).connect(any(), anyInt(), any(), any(), anyLong());
+    } finally {
+      rteSampler.setSessionPoolEnabled(false);
+      rteSampler.testEnded();
+    }
+  }
+
+  @Test
+  public void shouldDisconnectPooledSessionsWhenTestEnded() throws Exception {
+    rteSampler.setSessionPoolEnabled(true);
+    try {
+      rteSampler.sample(null);
+      rteSampler.iterationStart(null);
+    } finally {
+      rteSampler.setSessionPoolEnabled(false);
+      rteSampler.testEnded();
+    }
+    verify(client).disconnect();
+  }
+
+  @Test
+  public void shouldConnectEmulatorWhenThreadStartedAndWarmUpEnabled() throws Exception {
+    rteSampler.setWarmUp(true);
+    try {
+      rteSampler.threadStarted();
+      verify(client).connect(any(), anyInt(), any(), any(), anyLong());
+    } finally {
+      rteSampler.setWarmUp(false);
+      rteSampler.testEnded();
+    }
+  }
+
+  @Test
+  public void shouldNotConnectEmulatorAgainWhenSampleAfterIterationStartAndWarmUpEnabled()
+      throws Exception {
+    rteSampler.setWarmUp(true);
+    try {
+      rteSampler.threadStarted();
+      rteSampler.iterationStart(null);
+      rteSampler.sample(null);
+      verify(client).connect(any(), anyInt(), any(), any(), anyLong());
+      verify(client, never()).disconnect();
+    } finally {
+      rteSampler.setWarmUp(false);
+      rteSampler.testEnded();
+    }
+  }
+
   private void connectClient() {
     RTESampler sampler = new RTESampler(p -> client);
     sampler.addTestElement(configTestElement);
@@ -345,11 +465,12 @@ public class RTESamplerTest {
   @Test
   public void shouldAwaitSyncWaiterWhenSendInputWithSyncWaitEnabled() throws Exception {
     rteSampler.sample(null);
-    // we wait for 2 events since both connection wait and send input wait use same parameters
-    verify(client, times(2))
-        .await(Collections.singletonList(
-            new SyncWaitCondition(RTESampler.DEFAULT_WAIT_SYNC_TIMEOUT_MILLIS,
-                RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)));
+    // connection wait and send input wait use same parameters, but only send input uses wait mode
+    List<WaitCondition> conditions = Collections.singletonList(
+        new SyncWaitCondition(RTESampler.DEFAULT_WAIT_SYNC_TIMEOUT_MILLIS,
+            RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS));
+    verify(client).await(conditions);
+    verify(client).await(conditions, WaitMode.ALL);
   }
 
   @Test
@@ -359,7 +480,47 @@ public class RTESamplerTest {
     rteSampler.sample(null);
     verify(client)
         .await(Collections.singletonList(
-            new SyncWaitCondition(CUSTOM_TIMEOUT_MILLIS, CUSTOM_STABLE_TIMEOUT_MILLIS)));
+            new SyncWaitCondition(CUSTOM_TIMEOUT_MILLIS, CUSTOM_STABLE_TIMEOUT_MILLIS)),
+            WaitMode.ALL);
+  }
+
+  @Test
+  public void shouldAwaitAnyConditionWhenSampleWithAnyWaitMode() throws Exception {
+    rteSampler.setWaitMode(WaitMode.ANY);
+    rteSampler.sample(null);
+    verify(client)
+        .await(Collections.singletonList(
+            new SyncWaitCondition(RTESampler.DEFAULT_WAIT_SYNC_TIMEOUT_MILLIS,
+                RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)), WaitMode.ANY);
+  }
+
+  @Test
+  public void shouldIncludeCompletedWaitConditionHeaderWhenSampleWithAllWaitMode()
+      throws Exception {
+    rteSampler.setWaitSyncTimeout(String.valueOf(CUSTOM_TIMEOUT_MILLIS));
+    SyncWaitCondition condition = new SyncWaitCondition(CUSTOM_TIMEOUT_MILLIS,
+        RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS);
+    when(client.await(Collections.singletonList(condition), WaitMode.ALL))
+        .thenReturn(Collections.singletonList(condition));
+    assertThat(rteSampler.sample(null).getResponseHeaders())
+        .contains("Completed-wait-condition: " + condition.getDescription());
+  }
+
+  @Test
+  public void shouldStoreScreenRecognizedByWaitWhenSampleWithScreenWait() throws Exception {
+    ScreenSignature welcome = new ScreenSignature("welcome", "Welcome",
+        Area.fromTopLeftBottomRight(1, 1, Position.UNSPECIFIED_INDEX,
+            Position.UNSPECIFIED_INDEX));
+    rteSampler.setWaitScreens(true);
+    rteSampler
+        .setWaitScreensSignatures(ScreenSignature.toTable(Collections.singletonList(welcome)));
+    ScreenWaitCondition condition = new ScreenWaitCondition(Collections.singletonList(welcome),
+        RTESampler.DEFAULT_WAIT_SCREENS_TIMEOUT_MILLIS, RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS);
+    when(client.await(anyList(), eq(WaitMode.ALL)))
+        .thenReturn(Collections.singletonList(condition.withRecognizedScreen(welcome)));
+    rteSampler.sample(null);
+    assertThat(rteSampler.getThreadContext().getVariables()
+        .get(RTESampler.DEFAULT_WAIT_SCREENS_VARIABLE)).isEqualTo(welcome.getName());
   }
 
   @Test
@@ -380,7 +541,7 @@ public class RTESamplerTest {
         .await(Arrays.asList(
             new SyncWaitCondition(CUSTOM_TIMEOUT_MILLIS, RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS),
             new CursorWaitCondition(CURSOR_POSITION, CUSTOM_TIMEOUT_MILLIS,
-                RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)));
+                RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)), WaitMode.ALL);
   }
 
   @Test
@@ -395,7 +556,7 @@ public class RTESamplerTest {
             new CursorWaitCondition(CURSOR_POSITION, CUSTOM_TIMEOUT_MILLIS - 1,
                 RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS),
             new SyncWaitCondition(CUSTOM_TIMEOUT_MILLIS,
-                RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)));
+                RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)), WaitMode.ALL);
   }
 
   @Test
@@ -406,7 +567,7 @@ public class RTESamplerTest {
     verify(client)
         .await(Collections.singletonList(
             new SilentWaitCondition(RTESampler.DEFAULT_WAIT_SILENT_TIMEOUT_MILLIS,
-                RTESampler.DEFAULT_WAIT_SILENT_TIME_MILLIS)));
+                RTESampler.DEFAULT_WAIT_SILENT_TIME_MILLIS)), WaitMode.ALL);
   }
 
   @Test
@@ -418,7 +579,8 @@ public class RTESamplerTest {
     rteSampler.sample(null);
     verify(client)
         .await(Collections.singletonList(
-            new SilentWaitCondition(CUSTOM_TIMEOUT_MILLIS, CUSTOM_STABLE_TIMEOUT_MILLIS)));
+            new SilentWaitCondition(CUSTOM_TIMEOUT_MILLIS, CUSTOM_STABLE_TIMEOUT_MILLIS)),
+            WaitMode.ALL);
   }
 
   @Test
@@ -429,7 +591,7 @@ public class RTESamplerTest {
     verify(client)
         .await(Collections.singletonList(new CursorWaitCondition(CURSOR_POSITION,
             RTESampler.DEFAULT_WAIT_CURSOR_TIMEOUT_MILLIS,
-            RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)));
+            RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)), WaitMode.ALL);
   }
 
   @Test
@@ -446,7 +608,7 @@ public class RTESamplerTest {
     verify(client)
         .await(Collections.singletonList(
             new CursorWaitCondition(new Position(customRow, customColumn), CUSTOM_TIMEOUT_MILLIS,
-                CUSTOM_STABLE_TIMEOUT_MILLIS)));
+                CUSTOM_STABLE_TIMEOUT_MILLIS)), WaitMode.ALL);
   }
 
   @Test
@@ -463,7 +625,7 @@ public class RTESamplerTest {
             Area.fromTopLeftBottomRight(1, 1, Position.UNSPECIFIED_INDEX,
                 Position.UNSPECIFIED_INDEX),
             RTESampler.DEFAULT_WAIT_TEXT_TIMEOUT_MILLIS,
-            RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)));
+            RTESampler.DEFAULT_STABLE_TIMEOUT_MILLIS)), WaitMode.ALL);
   }
 
   @Test
@@ -490,7 +652,7 @@ public class RTESamplerTest {
                 JMeterUtils.getMatcher(),
                 Area.fromTopLeftBottomRight(areaTop, areaLeft, areaBottom, areaRight),
                 CUSTOM_TIMEOUT_MILLIS,
-                CUSTOM_STABLE_TIMEOUT_MILLIS)));
+                CUSTOM_STABLE_TIMEOUT_MILLIS)), WaitMode.ALL);
   }
 
   @Test
@@ -502,6 +664,26 @@ public class RTESamplerTest {
         .connect(any(), anyInt(), eq(SSLType.TLS), any(), anyLong());
   }
 
+  @Test
+  public void shouldConnectToUpdatedServerWhenSampleAfterServerChanged() throws Exception {
+    rteSampler.sample(null);
+    rteSampler.setProperty(RTESampler.CONFIG_SERVER, "otherServer");
+    rteSampler.sample(null);
+    verify(client).connect(eq("otherServer"), anyInt(), any(), any(), anyLong());
+  }
+
+  @Test
+  public void shouldConnectToUpdatedServerWhenSampleAfterServerRemovedAndConfigMerged()
+      throws Exception {
+    rteSampler.sample(null);
+    ConfigTestElement otherConfig = new ConfigTestElement();
+    otherConfig.setProperty(RTESampler.CONFIG_SERVER, "otherServer");
+    rteSampler.removeProperty(RTESampler.CONFIG_SERVER);
+    rteSampler.addTestElement(otherConfig);
+    rteSampler.sample(null);
+    verify(client).connect(eq("otherServer"), anyInt(), any(), any(), anyLong());
+  }
+
   @Test
   public void shouldGetCustomSslHeaderWhenUsingCustomSsl() {
     rteSampler.setSslType(SSLType.TLS);
@@ -4,6 +4,7 @@ import static org.mockito.Mockito.when;
 
 import com.blazemeter.jmeter.rte.JMeterTestUtils;
 import com.blazemeter.jmeter.rte.core.AttentionKey;
+import com.blazemeter.jmeter.rte.core.wait.WaitMode;
 import com.blazemeter.jmeter.rte.sampler.Action;
 import com.blazemeter.jmeter.rte.sampler.RTESampler;
 import org.assertj.core.api.JUnitSoftAssertions;
@@ -54,8 +55,12 @@ public class RTESamplerGuiTest {
     final String waitTextRegex = "regExp";
     final String waitTextTimeout = "11";
     final String waitDisconnectTimeout = "12";
+    final String waitScreensSignatures = "menu|MAIN MENU|1,1,3,";
+    final String waitScreensVariable = "SCREEN";
+    final String waitScreensTimeout = "13";
     when(panel.getAttentionKey()).thenReturn(attentionKey);
     when(panel.getAction()).thenReturn(Action.CONNECT);
+    when(panel.getWaitMode()).thenReturn(WaitMode.ANY);
     when(panel.getWaitSync()).thenReturn(true);
     when(panel.getWaitSyncTimeout()).thenReturn(waitSyncTimeout);
     when(panel.getWaitCursor()).thenReturn(true);
@@ -72,6 +77,10 @@ public class RTESamplerGuiTest {
     when(panel.getWaitTextAreaTop()).thenReturn(waitTextAreaTop);
     when(panel.getWaitTextRegex()).thenReturn(waitTextRegex);
     when(panel.getWaitTextTimeout()).thenReturn(waitTextTimeout);
+    when(panel.getWaitScreens()).thenReturn(true);
+    when(panel.getWaitScreensSignatures()).thenReturn(waitScreensSignatures);
+    when(panel.getWaitScreensVariable()).thenReturn(waitScreensVariable);
+    when(panel.getWaitScreensTimeout()).thenReturn(waitScreensTimeout);
     when(panel.getPayload()).thenReturn(null);
     when(panel.getWaitDisconnectTimeout()).thenReturn(waitDisconnectTimeout);
     when(panel.getWaitDisconnect()).thenReturn(true);
@@ -80,10 +89,12 @@ public class RTESamplerGuiTest {
 
     softly.assertThat(testElement.getAttentionKey()).as("AttentionKey").isEqualTo(attentionKey);
     softly.assertThat(testElement.getAction()).as("Action").isEqualTo(Action.CONNECT);
+    softly.assertThat(testElement.getWaitMode()).as("WaitMode").isEqualTo(WaitMode.ANY);
     softly.assertThat(testElement.getWaitSync()).as("WaitSync").isEqualTo(true);
     softly.assertThat(testElement.getWaitCursor()).as("WaitCursor").isEqualTo(true);
     softly.assertThat(testElement.getWaitSilent()).as("WaitSilent").isEqualTo(true);
     softly.assertThat(testElement.getWaitText()).as("WaitText").isEqualTo(true);
+    softly.assertThat(testElement.getWaitScreens()).as("WaitScreens").isEqualTo(true);
     softly.assertThat(testElement.getWaitDisconnect()).as("WaitDisconnect").isEqualTo(true);
     softly.assertThat(testElement.getWaitSyncTimeout()).as("WaitSyncTimeout")
         .isEqualTo(waitSyncTimeout);
@@ -109,6 +120,12 @@ public class RTESamplerGuiTest {
         .isEqualTo(waitTextTimeout);
     softly.assertThat(testElement.getWaitTextRegex()).as("WaitTextRegex")
         .isEqualTo(waitTextRegex);
+    softly.assertThat(testElement.getWaitScreensSignatures()).as("WaitScreensSignatures")
+        .isEqualTo(waitScreensSignatures);
+    softly.assertThat(testElement.getWaitScreensVariable()).as("WaitScreensVariable")
+        .isEqualTo(waitScreensVariable);
+    softly.assertThat(testElement.getWaitScreensTimeout()).as("WaitScreensTimeout")
+        .isEqualTo(waitScreensTimeout);
     softly.assertThat(testElement.getWaitDisconnectTimeout()).as("WaitDisconnectTimeout")
         .isEqualTo(waitDisconnectTimeout);
   }